@@ -0,0 +1,61 @@
+package de.aittr.lmsbe.zoom.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.aittr.lmsbe.zoom.model.LessonTopicObject;
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONStyle;
+import net.minidev.json.parser.JSONParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares {@link LessonTopicParser} with the previous conversion of a topic, which parsed the topic wrapped
+ * in braces with json-smart, serialized the result to JSON and parsed it again with Jackson.
+ * <p>
+ * Every invocation parses all topics of {@code topics.txt}, one topic per line.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LessonTopicParserBenchmark {
+
+    private List<String> topics;
+    private JSONParser jsonParser;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                LessonTopicParserBenchmark.class.getResourceAsStream("/topics.txt"), StandardCharsets.UTF_8))) {
+            topics = reader.lines().filter(line -> !line.isBlank()).collect(Collectors.toList());
+        }
+        jsonParser = new JSONParser(JSONParser.MODE_PERMISSIVE);
+        objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Benchmark
+    public void lessonTopicParser(Blackhole blackhole) {
+        for (String topic : topics) {
+            blackhole.consume(LessonTopicParser.parse(topic));
+        }
+    }
+
+    @Benchmark
+    public void jsonSmartAndJackson(Blackhole blackhole) throws Exception {
+        for (String topic : topics) {
+            final JSONObject jsonObject = (JSONObject) jsonParser.parse("{" + topic + "}");
+            blackhole.consume(objectMapper.readValue(jsonObject.toJSONString(JSONStyle.NO_COMPRESS),
+                    LessonTopicObject.class));
+        }
+    }
+}
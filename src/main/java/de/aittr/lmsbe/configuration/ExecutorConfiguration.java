@@ -0,0 +1,139 @@
+package de.aittr.lmsbe.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates a bounded thread pool for every kind of background work, so a burst of one kind cannot starve the others.
+ * <p>
+ * Every pool has a fixed number of threads, a bounded queue and a policy for a full queue. The size, the queue and
+ * the number of active threads of every pool are exposed as {@code executor.*} metrics tagged with the pool name.
+ * <p>
+ * Spring Boot does not create its {@code applicationTaskExecutor} when executors are defined, so the asynchronous
+ * MVC requests, e.g. the streamed downloads, are given their own pool here. The scheduled jobs run on the scheduler
+ * of Spring Boot, whose size is set with {@code spring.task.scheduling.pool.size}.
+ */
+@Configuration
+public class ExecutorConfiguration {
+
+    /**
+     * The executor of the {@code @Async} methods without an explicit executor.
+     */
+    public static final String DEFAULT_EXECUTOR = "taskExecutor";
+    public static final String MAIL_EXECUTOR = "mailExecutor";
+    public static final String GITHUB_WRITE_EXECUTOR = "githubWriteExecutor";
+    public static final String VIDEO_TRANSFER_EXECUTOR = "videoTransferExecutor";
+    public static final String VIDEO_PART_UPLOAD_EXECUTOR = "videoPartUploadExecutor";
+    public static final String ZOOM_EVENT_EXECUTOR = "zoomEventExecutor";
+    public static final String MVC_ASYNC_EXECUTOR = "mvcAsyncExecutor";
+
+    /**
+     * A full queue makes the caller run the task itself, which slows down the producer.
+     */
+    @Bean(DEFAULT_EXECUTOR)
+    public ThreadPoolExecutor taskExecutor(MeterRegistry meterRegistry,
+                                           @Value("${executors.default.threads:4}") int threads,
+                                           @Value("${executors.default.queueSize:200}") int queueSize) {
+        return createExecutor("default", threads, queueSize, new ThreadPoolExecutor.CallerRunsPolicy(), meterRegistry);
+    }
+
+    /**
+     * A full queue makes the caller send the mail itself, which slows down the producer.
+     */
+    @Bean(MAIL_EXECUTOR)
+    public ThreadPoolExecutor mailExecutor(MeterRegistry meterRegistry,
+                                           @Value("${executors.mail.threads:2}") int threads,
+                                           @Value("${executors.mail.queueSize:500}") int queueSize) {
+        return createExecutor("mail", threads, queueSize, new ThreadPoolExecutor.CallerRunsPolicy(), meterRegistry);
+    }
+
+    /**
+     * A full queue rejects the submission. The submission is stored, so it is scheduled again by the periodic retry.
+     */
+    @Bean(GITHUB_WRITE_EXECUTOR)
+    public ThreadPoolExecutor githubWriteExecutor(MeterRegistry meterRegistry,
+                                                  @Value("${executors.github-write.threads:4}") int threads,
+                                                  @Value("${executors.github-write.queueSize:1000}") int queueSize) {
+        return createExecutor("github-write", threads, queueSize, new ThreadPoolExecutor.AbortPolicy(), meterRegistry);
+    }
+
+    /**
+     * A full queue rejects the transfer. The transfer is stored, so it is scheduled again by the periodic retry.
+     */
+    @Bean(VIDEO_TRANSFER_EXECUTOR)
+    public ThreadPoolExecutor videoTransferExecutor(MeterRegistry meterRegistry,
+                                                    @Value("${executors.video-transfer.threads:2}") int threads,
+                                                    @Value("${executors.video-transfer.queueSize:100}") int queueSize) {
+        return createExecutor("video-transfer", threads, queueSize, new ThreadPoolExecutor.AbortPolicy(), meterRegistry);
+    }
+
+    /**
+     * A full queue makes the transfer upload the part itself. The queue is rarely full, since the number of parts
+     * in flight is limited by the part buffers of the transfers.
+     */
+    @Bean(VIDEO_PART_UPLOAD_EXECUTOR)
+    public ThreadPoolExecutor videoPartUploadExecutor(MeterRegistry meterRegistry,
+                                                      @Value("${executors.video-part-upload.threads:4}") int threads,
+                                                      @Value("${executors.video-part-upload.queueSize:16}") int queueSize) {
+        return createExecutor("video-part-upload", threads, queueSize, new ThreadPoolExecutor.CallerRunsPolicy(), meterRegistry);
+    }
+
+    /**
+     * A full queue rejects the event. The event is stored, so it is scheduled again by the periodic retry.
+     */
+    @Bean(ZOOM_EVENT_EXECUTOR)
+    public ThreadPoolExecutor zoomEventExecutor(MeterRegistry meterRegistry,
+                                                @Value("${executors.zoom-event.threads:2}") int threads,
+                                                @Value("${executors.zoom-event.queueSize:100}") int queueSize) {
+        return createExecutor("zoom-event", threads, queueSize, new ThreadPoolExecutor.AbortPolicy(), meterRegistry);
+    }
+
+    /**
+     * A full queue makes the request thread write the response itself, as without asynchronous processing.
+     */
+    @Bean(MVC_ASYNC_EXECUTOR)
+    public ThreadPoolExecutor mvcAsyncExecutor(MeterRegistry meterRegistry,
+                                               @Value("${executors.mvc-async.threads:8}") int threads,
+                                               @Value("${executors.mvc-async.queueSize:100}") int queueSize) {
+        return createExecutor("mvc-async", threads, queueSize, new ThreadPoolExecutor.CallerRunsPolicy(), meterRegistry);
+    }
+
+    @Bean
+    public WebMvcConfigurer asyncSupportConfigurer(@Qualifier(MVC_ASYNC_EXECUTOR) ThreadPoolExecutor mvcAsyncExecutor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(new TaskExecutorAdapter(mvcAsyncExecutor));
+            }
+        };
+    }
+
+    private static ThreadPoolExecutor createExecutor(String name,
+                                                     int threads,
+                                                     int queueSize,
+                                                     RejectedExecutionHandler rejectedExecutionHandler,
+                                                     MeterRegistry meterRegistry) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new CustomizableThreadFactory(name + "-"),
+                rejectedExecutionHandler);
+        executor.allowCoreThreadTimeOut(true);
+        new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -8,4 +8,5 @@ public class ZoomConstants {
     }
 
     public static final String ZOOM_API_URL = "https://api.zoom.us/v2/users/%s/meetings";
+    public static final String ZOOM_OAUTH_URL = "https://zoom.us/oauth/token";
 }
@@ -0,0 +1,17 @@
+package de.aittr.lmsbe.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TopicParseException extends RuntimeException {
+
+    /**
+     * The index of the character of the topic where the error was found, starting at 0.
+     */
+    private final int position;
+
+    public TopicParseException(String message, int position) {
+        super(message + " at position " + position);
+        this.position = position;
+    }
+}
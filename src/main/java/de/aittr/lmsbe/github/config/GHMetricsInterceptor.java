@@ -0,0 +1,86 @@
+package de.aittr.lmsbe.github.config;
+
+import de.aittr.lmsbe.github.service.GHRequestScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Records the latency of every GitHub API request and passes the rate limit headers to the {@link GHRequestScheduler}.
+ * <p>
+ * Registered as network interceptor, so responses served from the HTTP cache are not counted.
+ */
+@RequiredArgsConstructor
+public class GHMetricsInterceptor implements Interceptor {
+
+    private static final String RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+    private static final String RATE_LIMIT_RESET = "X-RateLimit-Reset";
+    private static final String RATE_LIMIT_RESOURCE = "X-RateLimit-Resource";
+    private static final String CORE_RESOURCE = "core";
+    private static final String REPOS_SEGMENT = "repos";
+    private static final String GIT_SEGMENT = "git";
+
+    private final GHRequestScheduler ghRequestScheduler;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final Request request = chain.request();
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "IO_ERROR";
+        try {
+            final Response response = chain.proceed(request);
+            status = String.valueOf(response.code());
+            updateRateLimit(response);
+            return response;
+        } finally {
+            sample.stop(Timer.builder("github.api.requests")
+                    .description("Latency of the GitHub API requests")
+                    .tag("endpoint", endpoint(request.url().pathSegments()))
+                    .tag("method", request.method())
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private void updateRateLimit(Response response) {
+        final String resource = response.header(RATE_LIMIT_RESOURCE, CORE_RESOURCE);
+        final String remaining = response.header(RATE_LIMIT_REMAINING);
+        final String reset = response.header(RATE_LIMIT_RESET);
+        if (CORE_RESOURCE.equals(resource) && remaining != null && reset != null) {
+            try {
+                ghRequestScheduler.updateRateLimit(Long.parseLong(remaining), Long.parseLong(reset));
+            } catch (NumberFormatException e) {
+                // malformed headers are ignored, the next response updates the rate limit
+            }
+        }
+    }
+
+    /**
+     * Reduces the request path to its endpoint, e.g. {@code /repos/{owner}/{repo}/git/blobs},
+     * so the number of metric tags stays bounded.
+     */
+    static String endpoint(List<String> segments) {
+        if (segments.isEmpty() || segments.get(0).isEmpty()) {
+            return "/";
+        }
+        if (!REPOS_SEGMENT.equals(segments.get(0)) || segments.size() < 3) {
+            return "/" + segments.get(0);
+        }
+        final StringBuilder endpoint = new StringBuilder("/repos/{owner}/{repo}");
+        if (segments.size() > 3) {
+            endpoint.append('/').append(segments.get(3));
+            if (GIT_SEGMENT.equals(segments.get(3)) && segments.size() > 4) {
+                endpoint.append('/').append(segments.get(4));
+            }
+        }
+        return endpoint.toString();
+    }
+}
@@ -1,31 +1,72 @@
 package de.aittr.lmsbe.github.config;
 
+import de.aittr.lmsbe.github.service.GHRequestScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
 import org.kohsuke.github.GitHub;
 import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.extras.okhttp3.OkHttpGitHubConnector;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class GithubConfig {
 
+    private static final long BYTES_IN_MB = 1024L * 1024L;
+
     @Value("${github.key}")
     private String githubKey;
     @Value("${github.user}")
     private String githubUser;
 
+    @Value("${git.http.cacheDir:${java.io.tmpdir}/lms-github-cache}")
+    private String cacheDir;
+    @Value("${git.http.cacheSizeMb:100}")
+    private long cacheSizeMb;
+    @Value("${git.http.maxIdleConnections:16}")
+    private int maxIdleConnections;
+    @Value("${git.http.keepAliveMinutes:5}")
+    private long keepAliveMinutes;
+
+    /**
+     * Creates the HTTP client of all requests to GitHub.
+     * <p>
+     * The client reuses pooled HTTP/2 connections and keeps the responses in a disk cache.
+     * Cached responses are revalidated with their ETag, and a 304 answer does not count against the rate limit.
+     *
+     * @param ghRequestScheduler the scheduler which receives the rate limit of every response.
+     * @param meterRegistry      the registry of the request metrics.
+     * @return the HTTP client.
+     */
+    @Bean
+    public OkHttpClient gitHubHttpClient(GHRequestScheduler ghRequestScheduler,
+                                         MeterRegistry meterRegistry) {
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMinutes, TimeUnit.MINUTES))
+                .cache(new Cache(new File(cacheDir), cacheSizeMb * BYTES_IN_MB))
+                .addNetworkInterceptor(new GHMetricsInterceptor(ghRequestScheduler, meterRegistry))
+                .build();
+    }
+
     /**
      * Establishes a connection to GitHub using the provided OAuth token and user.
      *
+     * @param gitHubHttpClient the HTTP client of the connection.
      * @return An initialized GitHub object representing the connection to GitHub.
      * @throws IOException if an I/O error occurs while connecting to GitHub.
      */
     @Bean
-    public GitHub gitHubConnection() throws IOException {
+    public GitHub gitHubConnection(OkHttpClient gitHubHttpClient) throws IOException {
         return new GitHubBuilder()
                 .withOAuthToken(githubKey, githubUser)
+                .withConnector(new OkHttpGitHubConnector(gitHubHttpClient))
                 .build();
     }
 }
@@ -0,0 +1,52 @@
+package de.aittr.lmsbe.github.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.aittr.lmsbe.github.dto.GHPushEventDto;
+import de.aittr.lmsbe.github.service.GHWebhookService;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("github")
+@Slf4j
+public class GHWebhookController {
+
+    private static final String PUSH_EVENT_NAME = "push";
+    private static final String PING_EVENT_NAME = "ping";
+
+    private final ObjectMapper objectMapper;
+    private final GHWebhookService ghWebhookService;
+
+    @PostMapping("/webhook")
+    @SneakyThrows
+    public ResponseEntity<Void> processWebhook(HttpEntity<String> httpEntity,
+                                               @RequestHeader(name = "X-Hub-Signature-256", required = false)
+                                               String requestSignature,
+                                               @RequestHeader(name = "X-GitHub-Event", required = false)
+                                               String eventName) {
+
+        final String body = httpEntity.getBody();
+        if (!ghWebhookService.isValidRequestSignature(body, requestSignature)) {
+            log.warn("GitHub webhook request is not valid");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (PUSH_EVENT_NAME.equals(eventName)) {
+            ghWebhookService.processPushEvent(objectMapper.readValue(body, GHPushEventDto.class));
+            return ResponseEntity.ok().build();
+        }
+        if (!PING_EVENT_NAME.equals(eventName)) {
+            log.debug("Ignoring GitHub webhook event: {}", eventName);
+        }
+        return ResponseEntity.ok().build();
+    }
+}
@@ -3,11 +3,15 @@ package de.aittr.lmsbe.github.controller;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.aittr.lmsbe.github.dto.GHSubmissionDto;
 import de.aittr.lmsbe.github.dto.LessonCode;
 import de.aittr.lmsbe.github.dto.LessonMeta;
+import de.aittr.lmsbe.github.model.GHLessonArchive;
+import de.aittr.lmsbe.github.model.GHLessonFile;
 import de.aittr.lmsbe.github.model.GHUploadFile;
 import de.aittr.lmsbe.github.model.GHUploadFileInfo;
 import de.aittr.lmsbe.github.service.GHServiceImpl;
+import de.aittr.lmsbe.github.service.GHSubmissionService;
 import de.aittr.lmsbe.model.User;
 import de.aittr.lmsbe.security.details.AuthenticatedUser;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,12 +22,17 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -36,7 +45,10 @@ import static de.aittr.lmsbe.github.model.GHLessonType.LESSON;
 @RequiredArgsConstructor
 public class GitHubController {
 
+    private static final String ARCHIVE_CONTENT_TYPE = "application/zip";
+
     private final GHServiceImpl gitHubService;
+    private final GHSubmissionService ghSubmissionService;
 
     @Operation(summary = "Returns All Modules by Cohort")
     @ApiResponses(value = {
@@ -136,14 +148,54 @@ public class GitHubController {
         return gitHubService.getlessonMeta(cohort, module, lessonNr, user, CONSULTATION);
     }
 
+    @Operation(summary = "Downloads the Lesson Code Archive by Cohort, Module, and Lesson Number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streamed the lesson archive successfully"),
+            @ApiResponse(responseCode = "304", description = "The archive was not modified since the given ETag"),
+            @ApiResponse(responseCode = "404", description = "Lesson, module or cohort not found")
+    })
+    @GetMapping(value = "/{cohort}/{module}/{lessonNr}/archive", produces = ARCHIVE_CONTENT_TYPE)
+    public ResponseEntity<StreamingResponseBody> getLessonArchive(@PathVariable String cohort,
+                                                                  @PathVariable String module,
+                                                                  @PathVariable String lessonNr,
+                                                                  @Parameter(hidden = true, description = "Current user")
+                                                                  @AuthenticationPrincipal AuthenticatedUser currentUser,
+                                                                  @Parameter(hidden = true) WebRequest request) {
+        final User user = currentUser == null ? null : currentUser.getUser();
+        return streamArchive(gitHubService.getLessonArchive(cohort, module, lessonNr, user, LESSON), request);
+    }
+
+    @Operation(summary = "Downloads the Consultation Code Archive by Cohort, Module, and Lesson Number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streamed the consultation archive successfully"),
+            @ApiResponse(responseCode = "304", description = "The archive was not modified since the given ETag"),
+            @ApiResponse(responseCode = "404", description = "Consultation, module or cohort not found")
+    })
+    @GetMapping(value = "/{cohort}/{module}/{lessonNr}/consultation/archive", produces = ARCHIVE_CONTENT_TYPE)
+    public ResponseEntity<StreamingResponseBody> getConsultationArchive(@PathVariable String cohort,
+                                                                        @PathVariable String module,
+                                                                        @PathVariable String lessonNr,
+                                                                        @Parameter(hidden = true, description = "Current user")
+                                                                        @AuthenticationPrincipal AuthenticatedUser currentUser,
+                                                                        @Parameter(hidden = true) WebRequest request) {
+        final User user = currentUser == null ? null : currentUser.getUser();
+        return streamArchive(gitHubService.getLessonArchive(cohort, module, lessonNr, user, CONSULTATION), request);
+    }
+
+    @Operation(summary = "Queues Homework Files for the Upload to the Homework Branch of the User")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "The homework was queued",
+                    content = @Content(schema = @Schema(implementation = GHSubmissionDto.class))),
+            @ApiResponse(responseCode = "400", description = "Too many or too large files")
+    })
     @PreAuthorize("isAuthenticated()")
     @PostMapping(value = "/{cohort}/{module}/{lessonNr}/upload", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
-    public void addFiles(@PathVariable String cohort,
-                         @PathVariable String module,
-                         @PathVariable String lessonNr,
-                         @RequestParam("files") MultipartFile[] files,
-                         @RequestParam("fileDestinations") String jsonInfo,
-                         @AuthenticationPrincipal AuthenticatedUser currentUser) throws JsonProcessingException {
+    public ResponseEntity<GHSubmissionDto> addFiles(@PathVariable String cohort,
+                                                    @PathVariable String module,
+                                                    @PathVariable String lessonNr,
+                                                    @RequestParam("files") MultipartFile[] files,
+                                                    @RequestParam("fileDestinations") String jsonInfo,
+                                                    @AuthenticationPrincipal AuthenticatedUser currentUser) throws JsonProcessingException {
 
         final List<GHUploadFile> ghUploadFiles = new ArrayList<>();
         final ObjectMapper objectMapper = new ObjectMapper();
@@ -153,11 +205,25 @@ public class GitHubController {
             ghUploadFiles.add(new GHUploadFile(files[GHUploadFileInfo.getFileIndex()], GHUploadFileInfo.getPath()));
         }
 
-        gitHubService.addFilesToLesson(cohort,
+        final GHSubmissionDto submission = ghSubmissionService.submit(cohort,
                 module,
                 lessonNr,
                 currentUser.getUser(),
                 ghUploadFiles);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(submission);
+    }
+
+    @Operation(summary = "Returns the Processing Status of a Homework Submission")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fetched the submission successfully",
+                    content = @Content(schema = @Schema(implementation = GHSubmissionDto.class))),
+            @ApiResponse(responseCode = "404", description = "Submission not found")
+    })
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/submissions/{submissionId}")
+    public GHSubmissionDto getSubmission(@PathVariable Long submissionId,
+                                         @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return ghSubmissionService.getSubmission(submissionId, currentUser.getUser());
     }
 
     @PreAuthorize("isAuthenticated()")
@@ -173,6 +239,16 @@ public class GitHubController {
                 currentUser.getUser());
     }
 
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping(value = "/{cohort}/{module}/{lessonNr}/hw/archive", produces = ARCHIVE_CONTENT_TYPE)
+    public ResponseEntity<StreamingResponseBody> getHomeWorkArchive(@PathVariable String cohort,
+                                                                    @PathVariable String module,
+                                                                    @PathVariable String lessonNr,
+                                                                    @AuthenticationPrincipal AuthenticatedUser currentUser,
+                                                                    WebRequest request) {
+        return streamArchive(gitHubService.getHomeWorkArchive(cohort, module, lessonNr, currentUser.getUser()), request);
+    }
+
     @PreAuthorize("isAuthenticated()")
     @DeleteMapping(value = "/{cohort}/file/{filePath:.+}")
     public LessonCode deleteRepoFile(@PathVariable String cohort,
@@ -180,5 +256,21 @@ public class GitHubController {
                                      @AuthenticationPrincipal AuthenticatedUser currentUser) {
         return gitHubService.deleteRepoFile(cohort, filePath.replace("~", "/"), currentUser.getUser());
     }
-}
 
+    /**
+     * Streams the archive to the client, unless the client already has the archive with the same ETag.
+     */
+    private ResponseEntity<StreamingResponseBody> streamArchive(GHLessonArchive archive, WebRequest request) {
+        if (request.checkNotModified(archive.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(archive.getETag()).build();
+        }
+        final List<GHLessonFile> files = gitHubService.readArchiveFiles(archive);
+        final StreamingResponseBody body = outputStream -> gitHubService.writeArchive(files, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ARCHIVE_CONTENT_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(archive.getFileName()).build().toString())
+                .eTag(archive.getETag())
+                .body(body);
+    }
+}
@@ -0,0 +1,52 @@
+package de.aittr.lmsbe.github.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the part of a GitHub push webhook event which is needed to refresh the cached repository content.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GHPushEventDto {
+
+    /**
+     * The full git ref that was pushed, e.g. {@code refs/heads/main}.
+     */
+    private String ref;
+
+    /**
+     * The SHA1 of the most recent commit on the ref after the push.
+     */
+    private String after;
+
+    private Repository repository;
+
+    private List<Commit> commits = new ArrayList<>();
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Repository {
+
+        private String name;
+
+        @JsonProperty("full_name")
+        private String fullName;
+
+        @JsonProperty("default_branch")
+        private String defaultBranch;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Commit {
+
+        private List<String> added = new ArrayList<>();
+        private List<String> removed = new ArrayList<>();
+        private List<String> modified = new ArrayList<>();
+    }
+}
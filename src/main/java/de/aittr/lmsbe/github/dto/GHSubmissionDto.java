@@ -0,0 +1,38 @@
+package de.aittr.lmsbe.github.dto;
+
+import de.aittr.lmsbe.github.entity.GHSubmission;
+import de.aittr.lmsbe.github.model.GHSubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO for {@link GHSubmission}
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GHSubmissionDto {
+
+    private Long id;
+    private String cohort;
+    private String moduleName;
+    private String lessonNr;
+    private GHSubmissionStatus status;
+    private String errorMessage;
+    private Instant createdOn;
+    private Instant updatedOn;
+
+    public static GHSubmissionDto from(final GHSubmission submission) {
+        return new GHSubmissionDto(submission.getId(),
+                submission.getCohort(),
+                submission.getModuleName(),
+                submission.getLessonNr(),
+                submission.getStatus(),
+                submission.getErrorMessage(),
+                submission.getCreatedOn(),
+                submission.getUpdatedOn());
+    }
+}
@@ -33,8 +33,9 @@ public class LessonMeta {
     @Schema(description = "Boolean value outlining if the video is allowed for the lesson", example = "false")
     private boolean isVideoAllowed;
 
-    @Schema(description = "Lesson archive data as Base64 string", example = "UEsDBBQAAAAIA...")
-    private String archiveData;
+    @Schema(description = "Link to download the lesson archive as zip file, relative to the API base URL",
+            example = "/github/36/basic_programming/lesson_09/archive")
+    private String archiveUrl;
 
     private LessonDto lessonDto;
 }
@@ -0,0 +1,77 @@
+package de.aittr.lmsbe.github.entity;
+
+import de.aittr.lmsbe.github.model.GHSubmissionStatus;
+import de.aittr.lmsbe.model.User;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+
+/**
+ * A homework submission waiting to be committed to the homework branch of its user, or already processed.
+ * <p>
+ * The uploaded files are kept in the spool directory of the submission until it is processed.
+ */
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Table(name = "gh_submission", indexes = @Index(name = "idx_gh_submission_status", columnList = "status"))
+public class GHSubmission {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Setter(AccessLevel.NONE)
+    private Long id;
+
+    @NotNull
+    @Column(nullable = false)
+    private String cohort;
+
+    @NotNull
+    @Column(nullable = false)
+    private String moduleName;
+
+    @NotNull
+    @Column(nullable = false)
+    private String lessonNr;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GHSubmissionStatus status;
+
+    @NotNull
+    @Column(nullable = false)
+    private String spoolPath;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @CreationTimestamp
+    private Instant createdOn;
+
+    @UpdateTimestamp
+    private Instant updatedOn;
+
+    @Override
+    public String toString() {
+        return "GHSubmission{" +
+                "id=" + id +
+                ", cohort='" + cohort + '\'' +
+                ", moduleName='" + moduleName + '\'' +
+                ", lessonNr='" + lessonNr + '\'' +
+                ", userId=" + (user == null ? "null" : user.getId()) +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,14 @@
+package de.aittr.lmsbe.github.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a GitHub request is not started because the rate limit of the GitHub token is exhausted
+ * or reserved for interactive requests.
+ */
+public class GithubRateLimitException extends IOException {
+
+    public GithubRateLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,30 @@
+package de.aittr.lmsbe.github.model;
+
+import de.aittr.lmsbe.github.uttils.GHCall;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents a downloadable zip archive of lesson files.
+ * <p>
+ * The ETag is known before the files are read, so a client that already has the archive
+ * does not cause any download from GitHub.
+ */
+@RequiredArgsConstructor
+@Getter
+public class GHLessonArchive {
+
+    private final String fileName;
+
+    /**
+     * The weak ETag of the archive, derived from the commit SHA1 and the path of the archived directory.
+     */
+    private final String eTag;
+
+    /**
+     * Reads the files of the archive.
+     */
+    private final GHCall<List<GHLessonFile>> filesLoader;
+}
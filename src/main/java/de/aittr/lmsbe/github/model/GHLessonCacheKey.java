@@ -0,0 +1,28 @@
+package de.aittr.lmsbe.github.model;
+
+import lombok.Value;
+
+/**
+ * Key of the lesson content cache.
+ * <p>
+ * The key contains the SHA1 of the branch head, so a new push to the repository produces new keys
+ * and the stale entries are never served again.
+ */
+@Value
+public class GHLessonCacheKey {
+
+    /**
+     * The name of the cohort repository.
+     */
+    String repository;
+
+    /**
+     * The SHA1 of the branch head the content was read from.
+     */
+    String branchSHA1;
+
+    /**
+     * The path to the lesson directory inside the repository.
+     */
+    String path;
+}
@@ -0,0 +1,49 @@
+package de.aittr.lmsbe.github.model;
+
+import de.aittr.lmsbe.github.dto.LessonCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents the user independent part of a lesson, as it was rendered from the GitHub repository.
+ */
+@RequiredArgsConstructor
+@Getter
+public class GHLessonContent {
+
+    private final String planData;
+    private final String theoryData;
+    private final String homeworkData;
+    private final List<LessonCode> lessonCode;
+
+    /**
+     * The lesson code files which are included in the lesson archive.
+     */
+    private final List<GHLessonFile> archiveFiles;
+
+    /**
+     * Estimates the size of the content in bytes.
+     *
+     * @return the approximate size of the content in bytes
+     */
+    public int estimateSize() {
+        int size = length(planData) + length(theoryData) + length(homeworkData);
+        if (lessonCode != null) {
+            for (LessonCode code : lessonCode) {
+                size += length(code.getFileData()) + length(code.getPathToFile());
+            }
+        }
+        if (archiveFiles != null) {
+            for (GHLessonFile file : archiveFiles) {
+                size += file == null ? 0 : file.getContent().length;
+            }
+        }
+        return size;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
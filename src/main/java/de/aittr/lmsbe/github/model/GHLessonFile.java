@@ -0,0 +1,28 @@
+package de.aittr.lmsbe.github.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Represents a file of a lesson together with its content, as it was read from the GitHub repository.
+ */
+@RequiredArgsConstructor
+@Getter
+public class GHLessonFile {
+
+    /**
+     * The path to the file inside the repository.
+     */
+    private final String path;
+
+    private final String name;
+
+    /**
+     * The SHA1 of the git blob of the file.
+     */
+    private final String sha;
+
+    private final byte[] content;
+
+    private final String downloadUrl;
+}
@@ -0,0 +1,40 @@
+package de.aittr.lmsbe.github.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the modules, lessons and consultations of a cohort repository at a given commit.
+ */
+@RequiredArgsConstructor
+public class GHNavigationIndex {
+
+    /**
+     * The SHA1 of the default branch head the index was built from.
+     */
+    @Getter
+    private final String headSHA1;
+
+    @Getter
+    private final List<String> modules;
+
+    private final Map<String, List<String>> lessonsByModule;
+    private final Map<String, List<String>> consultationsByModule;
+
+    /**
+     * Returns the lessons or consultations of the given module.
+     *
+     * @param moduleName   the name of the module
+     * @param ghLessonType the type of the lessons
+     * @return the names of the lessons, or an empty list if the module does not exist
+     */
+    public List<String> getLessons(String moduleName, GHLessonType ghLessonType) {
+        final Map<String, List<String>> lessons = GHLessonType.LESSON.equals(ghLessonType)
+                ? lessonsByModule
+                : consultationsByModule;
+        return lessons.getOrDefault(moduleName, List.of());
+    }
+}
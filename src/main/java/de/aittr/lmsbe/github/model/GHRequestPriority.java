@@ -0,0 +1,15 @@
+package de.aittr.lmsbe.github.model;
+
+/**
+ * Represents the priority of a GitHub request.
+ */
+public enum GHRequestPriority {
+    /**
+     * A request a user is waiting for, e.g. opening a lesson page.
+     */
+    INTERACTIVE,
+    /**
+     * A request which may be delayed or rejected when the rate limit runs low, e.g. a homework upload.
+     */
+    BACKGROUND
+}
@@ -0,0 +1,23 @@
+package de.aittr.lmsbe.github.model;
+
+/**
+ * Represents the processing state of a homework submission.
+ */
+public enum GHSubmissionStatus {
+    /**
+     * The submission is stored and waits for a worker.
+     */
+    QUEUED,
+    /**
+     * The files of the submission are being committed to GitHub.
+     */
+    PROCESSING,
+    /**
+     * The files of the submission were committed to the homework branch.
+     */
+    COMPLETED,
+    /**
+     * The submission could not be committed, see the error message of the submission.
+     */
+    FAILED
+}
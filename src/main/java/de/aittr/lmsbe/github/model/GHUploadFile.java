@@ -2,11 +2,22 @@ package de.aittr.lmsbe.github.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 @Data
 @AllArgsConstructor
 public class GHUploadFile {
-    private MultipartFile file;
+
+    /**
+     * The content of the file, read as a stream when the file is uploaded to GitHub.
+     */
+    private Resource file;
+    private String fileName;
+    private long size;
     private String fileDestination;
+
+    public GHUploadFile(MultipartFile file, String fileDestination) {
+        this(file.getResource(), file.getOriginalFilename(), file.getSize(), fileDestination);
+    }
 }
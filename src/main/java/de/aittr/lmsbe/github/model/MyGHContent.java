@@ -3,18 +3,17 @@ package de.aittr.lmsbe.github.model;
 import de.aittr.lmsbe.github.dto.LessonCode;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import org.kohsuke.github.GHContent;
 
 /**
- * Represents a wrapper class for GitHub content and Lesson code.
+ * Represents a wrapper class for a GitHub lesson file and Lesson code.
  */
 @AllArgsConstructor
 @Getter
 public class MyGHContent {
     /**
-     * Represents a GitHub content object.
+     * Represents a file read from GitHub, or null if the file does not exist.
      */
-    private GHContent ghContent;
+    private GHLessonFile lessonFile;
     /**
      *
      */
@@ -0,0 +1,13 @@
+package de.aittr.lmsbe.github.repository;
+
+import de.aittr.lmsbe.github.entity.GHSubmission;
+import de.aittr.lmsbe.github.model.GHSubmissionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface GHSubmissionRepository extends JpaRepository<GHSubmission, Long> {
+
+    List<GHSubmission> findAllByStatusInOrderByIdAsc(Collection<GHSubmissionStatus> statuses);
+}
@@ -0,0 +1,165 @@
+package de.aittr.lmsbe.github.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The GHBlobDiskStore class keeps the content of git blobs in files named by their SHA1.
+ * <p>
+ * The store is the second level of the {@link GHBlobService}: blobs evicted from memory or lost with a restart
+ * are read from the local disk instead of GitHub. The files are read as memory-mapped buffers, and the least
+ * recently used files are deleted when the store exceeds its maximum size.
+ */
+@Service
+@Slf4j
+public class GHBlobDiskStore {
+
+    private static final long BYTES_IN_MB = 1024L * 1024L;
+    private static final int SHA1_LENGTH = 40;
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final Path storeDir;
+    private final boolean enabled;
+
+    /**
+     * The sizes of the stored blobs by their SHA1, in the order of their last access.
+     * An evicted entry deletes its file.
+     */
+    private final Cache<String, Long> index;
+
+    public GHBlobDiskStore(@Value("${git.cache.blob.diskDir:${java.io.tmpdir}/lms-github-blobs}") String storeDir,
+                           @Value("${git.cache.blob.diskMaxSizeMb:2048}") long maxSizeMb) {
+        this.storeDir = Paths.get(storeDir);
+        this.enabled = maxSizeMb > 0;
+        this.index = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * BYTES_IN_MB)
+                .weigher((String sha, Long size) -> (int) Math.min(Integer.MAX_VALUE, size))
+                .removalListener((String sha, Long size, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        delete(sha);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Registers the blobs stored by a previous run, the most recently modified last.
+     */
+    @PostConstruct
+    public void loadIndex() {
+        if (!enabled || !Files.isDirectory(storeDir)) {
+            return;
+        }
+        final List<Path> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(storeDir, 2)) {
+            paths.filter(path -> path.getFileName().toString().length() == SHA1_LENGTH && Files.isRegularFile(path))
+                    .forEach(files::add);
+        } catch (IOException e) {
+            log.warn("Failed to read the blob store {}: {}", storeDir, e.getMessage());
+            return;
+        }
+        files.sort(Comparator.comparing(GHBlobDiskStore::lastModified));
+        for (Path file : files) {
+            index.put(file.getFileName().toString(), file.toFile().length());
+        }
+        log.info("Blob store {} contains {} blobs", storeDir, files.size());
+    }
+
+    /**
+     * Reads the content of a stored blob.
+     *
+     * @param blobSHA1 the SHA1 of the blob
+     * @return the content of the blob, or null if the blob is not stored
+     */
+    public byte[] read(String blobSHA1) {
+        if (!enabled || index.getIfPresent(blobSHA1) == null) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(pathOf(blobSHA1), StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            final byte[] content = new byte[buffer.remaining()];
+            buffer.get(content);
+            return content;
+        } catch (IOException e) {
+            log.warn("Failed to read blob {} from the blob store: {}", blobSHA1, e.getMessage());
+            index.invalidate(blobSHA1);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the content of a blob, if the content matches the SHA1.
+     *
+     * @param blobSHA1 the SHA1 of the blob
+     * @param content  the raw content of the blob
+     */
+    public void write(String blobSHA1, byte[] content) {
+        if (!enabled || index.getIfPresent(blobSHA1) != null) {
+            return;
+        }
+        if (!blobSHA1.equals(gitBlobSHA1(content))) {
+            log.debug("Content of blob {} does not match its SHA1 and is not stored", blobSHA1);
+            return;
+        }
+        final Path target = pathOf(blobSHA1);
+        try {
+            Files.createDirectories(target.getParent());
+            final Path tempFile = Files.createTempFile(target.getParent(), blobSHA1, TEMP_FILE_SUFFIX);
+            Files.write(tempFile, content);
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            index.put(blobSHA1, (long) content.length);
+        } catch (IOException e) {
+            log.warn("Failed to write blob {} to the blob store: {}", blobSHA1, e.getMessage());
+        }
+    }
+
+    /**
+     * Computes the SHA1 git assigns to a blob with the given content.
+     */
+    static String gitBlobSHA1(byte[] content) {
+        final MessageDigest digest = DigestUtils.getSha1Digest();
+        digest.update(("blob " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+        digest.update(content);
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    private Path pathOf(String blobSHA1) {
+        return storeDir.resolve(blobSHA1.substring(0, 2)).resolve(blobSHA1);
+    }
+
+    private void delete(String blobSHA1) {
+        try {
+            Files.deleteIfExists(pathOf(blobSHA1));
+        } catch (IOException e) {
+            log.warn("Failed to delete blob {} from the blob store: {}", blobSHA1, e.getMessage());
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class).lastModifiedTime();
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package de.aittr.lmsbe.github.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.aittr.lmsbe.github.uttils.GHCacheUtils;
+import de.aittr.lmsbe.github.uttils.GHCall;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.kohsuke.github.GHRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * The GHBlobService class reads git blobs from GitHub and keeps them in memory by their SHA1.
+ * <p>
+ * A blob SHA1 identifies the file content itself, so the same file in several cohort repositories
+ * is downloaded only once. Blobs which are not in memory are looked up in the {@link GHBlobDiskStore}
+ * before they are downloaded.
+ */
+@Service
+@Slf4j
+public class GHBlobService {
+
+    private static final long BYTES_IN_MB = 1024L * 1024L;
+
+    private final AsyncCache<String, byte[]> blobCache;
+    private final GHBlobDiskStore ghBlobDiskStore;
+
+    public GHBlobService(GHBlobDiskStore ghBlobDiskStore,
+                         @Value("${git.cache.blob.maxSizeMb:256}") long maxSizeMb,
+                         @Value("${git.cache.blob.ttlMinutes:1440}") long ttlMinutes) {
+        this.blobCache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * BYTES_IN_MB)
+                .weigher((String sha, byte[] content) -> content.length)
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .buildAsync();
+        this.ghBlobDiskStore = ghBlobDiskStore;
+    }
+
+    /**
+     * Reads the content of a blob from the given repository.
+     *
+     * @param repository the repository containing the blob
+     * @param blobSHA1   the SHA1 of the blob
+     * @return the raw content of the blob
+     * @throws IOException if the blob could not be read
+     */
+    public byte[] readBlob(GHRepository repository, String blobSHA1) throws IOException {
+        return getOrLoad(blobSHA1, () -> repository.readBlob(blobSHA1));
+    }
+
+    /**
+     * Returns the cached content of a blob or reads it from the given stream.
+     *
+     * @param blobSHA1 the SHA1 of the blob
+     * @param loader   opens the stream with the raw content of the blob
+     * @return the raw content of the blob
+     * @throws IOException if the blob could not be read
+     */
+    public byte[] getOrLoad(String blobSHA1, GHCall<InputStream> loader) throws IOException {
+        return GHCacheUtils.getOrLoad(blobCache, blobSHA1, () -> {
+            final byte[] storedContent = ghBlobDiskStore.read(blobSHA1);
+            if (storedContent != null) {
+                return storedContent;
+            }
+            log.debug("Blob cache miss: {}", blobSHA1);
+            final byte[] content;
+            try (InputStream stream = loader.call()) {
+                content = IOUtils.toByteArray(stream);
+            }
+            ghBlobDiskStore.write(blobSHA1, content);
+            return content;
+        });
+    }
+}
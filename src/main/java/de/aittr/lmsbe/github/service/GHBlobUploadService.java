@@ -0,0 +1,137 @@
+package de.aittr.lmsbe.github.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.aittr.lmsbe.github.exception.GithubRateLimitException;
+import de.aittr.lmsbe.github.model.GHUploadFile;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+import okio.BufferedSink;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.kohsuke.github.GHRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * The GHBlobUploadService class creates git blobs from uploaded files.
+ * <p>
+ * The content of a file is streamed from its multipart part or spooled copy and encoded to base64 while it is sent,
+ * so neither the raw nor the encoded content of the file is ever held in memory as a whole.
+ */
+@Service
+@Slf4j
+public class GHBlobUploadService {
+
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.get("application/json; charset=utf-8");
+    private static final String BLOB_BODY_PREFIX = "{\"encoding\":\"base64\",\"content\":\"";
+    private static final String BLOB_BODY_SUFFIX = "\"}";
+    private static final int HTTP_FORBIDDEN = 403;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private final OkHttpClient gitHubHttpClient;
+    private final ObjectMapper objectMapper;
+    private final GHFetchService ghFetchService;
+    private final String apiUrl;
+    private final String githubKey;
+    private final long timeoutSeconds;
+
+    public GHBlobUploadService(OkHttpClient gitHubHttpClient,
+                               ObjectMapper objectMapper,
+                               GHFetchService ghFetchService,
+                               @Value("${git.http.apiUrl:https://api.github.com}") String apiUrl,
+                               @Value("${github.key}") String githubKey,
+                               @Value("${git.upload.timeoutSeconds:300}") long timeoutSeconds) {
+        this.gitHubHttpClient = gitHubHttpClient;
+        this.objectMapper = objectMapper;
+        this.ghFetchService = ghFetchService;
+        this.apiUrl = apiUrl;
+        this.githubKey = githubKey;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * Creates the blobs of the given files concurrently.
+     * The number of uploads running at the same time is limited by the write cap of the {@link GHFetchService}.
+     *
+     * @param repo  the repository to create the blobs in
+     * @param files the files to upload
+     * @return the SHA1 of the created blobs, in the order of the files
+     * @throws IOException if one of the blobs could not be created
+     */
+    public List<String> createBlobs(GHRepository repo, List<GHUploadFile> files) throws IOException {
+        final Instant deadline = Instant.now().plusSeconds(timeoutSeconds);
+        return ghFetchService.writeAll(files, file -> () -> createBlob(repo, file), deadline);
+    }
+
+    /**
+     * Creates a blob from the given file.
+     *
+     * @param repo the repository to create the blob in
+     * @param file the file to upload
+     * @return the SHA1 of the created blob
+     * @throws IOException if the blob could not be created
+     */
+    public String createBlob(GHRepository repo, GHUploadFile file) throws IOException {
+        final Request request = new Request.Builder()
+                .url(apiUrl + "/repos/" + repo.getFullName() + "/git/blobs")
+                .header("Authorization", "token " + githubKey)
+                .header("Accept", "application/vnd.github+json")
+                .post(new Base64FileRequestBody(file))
+                .build();
+
+        try (Response response = gitHubHttpClient.newCall(request).execute()) {
+            final ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                if (response.code() == HTTP_TOO_MANY_REQUESTS
+                        || (response.code() == HTTP_FORBIDDEN && "0".equals(response.header("X-RateLimit-Remaining")))) {
+                    throw new GithubRateLimitException("GitHub rate limit exceeded while uploading " + file.getFileName());
+                }
+                throw new IOException("Failed to create blob for " + file.getFileName() + ": HTTP " + response.code());
+            }
+            final JsonNode blob = objectMapper.readTree(body.byteStream());
+            log.debug("Blob {} created for {}", blob.path("sha").asText(), file.getFileName());
+            return blob.path("sha").asText();
+        }
+    }
+
+    /**
+     * Writes the JSON body of the create blob request, encoding the content of the file while it is sent.
+     * The body can be written again if the request is retried, since every write opens a new stream of the file.
+     */
+    private static final class Base64FileRequestBody extends RequestBody {
+
+        private final GHUploadFile file;
+
+        private Base64FileRequestBody(GHUploadFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return JSON_MEDIA_TYPE;
+        }
+
+        @Override
+        public long contentLength() {
+            final long base64Length = 4 * ((file.getSize() + 2) / 3);
+            return BLOB_BODY_PREFIX.length() + base64Length + BLOB_BODY_SUFFIX.length();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            sink.writeUtf8(BLOB_BODY_PREFIX);
+            try (InputStream content = file.getFile().getInputStream();
+                 OutputStream base64 = Base64.getEncoder().wrap(CloseShieldOutputStream.wrap(sink.outputStream()))) {
+                content.transferTo(base64);
+            }
+            sink.writeUtf8(BLOB_BODY_SUFFIX);
+        }
+    }
+}
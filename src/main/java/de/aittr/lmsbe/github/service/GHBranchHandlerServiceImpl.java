@@ -7,17 +7,16 @@ import de.aittr.lmsbe.github.uttils.GHBranchHandlerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.kohsuke.github.GHBranch;
+import org.kohsuke.github.GHFileNotFoundException;
 import org.kohsuke.github.GHRepository;
 import org.kohsuke.github.GHTreeBuilder;
-import org.kohsuke.github.GitHub;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import static de.aittr.lmsbe.github.uttils.GHHelper.*;
 
@@ -32,12 +31,14 @@ public class GHBranchHandlerServiceImpl implements GHBranchHandlerService {
     @Value("${git.organization}")
     private String organizationName;
 
-    private final GitHub githubConnector;
+    private final GHHandleRegistry ghHandleRegistry;
+    private final GHBranchRegistry ghBranchRegistry;
     private final GhValidationService ghUploadValidator;
+    private final GHBlobUploadService ghBlobUploadService;
 
     @Override
     public GHRepository getRepo(final String repo) throws IOException {
-        return githubConnector.getOrganization(organizationName).getRepository(repo);
+        return ghHandleRegistry.getRepository(organizationName, repo);
     }
 
     @Override
@@ -45,6 +46,11 @@ public class GHBranchHandlerServiceImpl implements GHBranchHandlerService {
         return getBranch(repo, repo.getDefaultBranch());
     }
 
+    @Override
+    public String getDefaultBranchSHA1(final GHRepository repo) throws IOException {
+        return ghHandleRegistry.getHeadSHA1(repo);
+    }
+
     @Override
     public GHBranch getBranch(final GHRepository repo,
                               final String branchName) throws IOException {
@@ -56,43 +62,65 @@ public class GHBranchHandlerServiceImpl implements GHBranchHandlerService {
                                         final GHBranch currentUserBranch,
                                         final String fileRepoPath,
                                         final List<GHUploadFile> files) throws IOException {
-        final GHTreeBuilder treeBuilder = repo.createTree().baseTree(currentUserBranch.getSHA1());
+        final List<String> filePaths = new ArrayList<>(files.size());
+        final List<GHUploadFile> uploadFiles = new ArrayList<>(files.size());
         for (GHUploadFile ghFile : files) {
-            addSingleFileToTree(treeBuilder, fileRepoPath, ghFile);
+            final String filePath = getUploadPath(fileRepoPath, ghFile);
+            if (filePath != null) {
+                filePaths.add(filePath);
+                uploadFiles.add(ghFile);
+            }
+        }
+
+        final List<String> blobSHA1s = ghBlobUploadService.createBlobs(repo, uploadFiles);
+        final GHTreeBuilder treeBuilder = repo.createTree().baseTree(currentUserBranch.getSHA1());
+        for (int i = 0; i < filePaths.size(); i++) {
+            treeBuilder.shaEntry(filePaths.get(i), blobSHA1s.get(i), true);
         }
         return treeBuilder;
     }
 
     @Override
-    public void addSingleFileToTree(final GHTreeBuilder treeBuilder,
+    public void addSingleFileToTree(final GHRepository repo,
+                                    final GHTreeBuilder treeBuilder,
                                     final String path,
                                     final GHUploadFile ghFile) throws IOException {
-        final MultipartFile file = ghFile.getFile();
-        ghUploadValidator.validateFileSize(file.getSize());
-        final String fileDestination = ghFile.getFileDestination();
-        if (!isDestinationIgnored(fileDestination) && !isFileIgnored(file.getOriginalFilename())) {
-            final String filePath = path + PATH_SEPARATOR + fileDestination;
-            byte[] bytes = file.getBytes();
-            treeBuilder.add(filePath, bytes, true);
+        final String filePath = getUploadPath(path, ghFile);
+        if (filePath != null) {
+            treeBuilder.shaEntry(filePath, ghBlobUploadService.createBlob(repo, ghFile), true);
         }
     }
 
     @Override
     public GHBranch createBranchFromMainBranch(final GHRepository repo,
                                                final String branchName) throws IOException {
-        final Map<String, GHBranch> branchList = repo.getBranches();
-        final GHBranch mainBranch = branchList.get(repo.getDefaultBranch());
-
-        if (mainBranch == null) {
-            throw new RestException(HttpStatus.BAD_REQUEST, "Default branch is undefined. Repository: " + repo.getName());
-        }
-
-        if (branchList.containsKey(branchName)) {
+        if (ghBranchRegistry.exists(repo, branchName)) {
             log.debug("Branch already exists: {}", branchName);
         } else {
-            repo.createRef("refs/heads/" + branchName, mainBranch.getSHA1());
+            final String mainBranchSHA1;
+            try {
+                mainBranchSHA1 = getDefaultBranchSHA1(repo);
+            } catch (GHFileNotFoundException e) {
+                throw new RestException(HttpStatus.BAD_REQUEST, "Default branch is undefined. Repository: " + repo.getName());
+            }
+            repo.createRef("refs/heads/" + branchName, mainBranchSHA1);
+            ghBranchRegistry.registerCreated(repo, branchName);
             log.debug("New branch created: {}", branchName);
         }
         return repo.getBranch(branchName);
     }
+
+    /**
+     * Validates the size of the uploaded file and returns its path in the repository.
+     *
+     * @return the path of the file or null if the file is ignored
+     */
+    private String getUploadPath(final String path, final GHUploadFile ghFile) {
+        ghUploadValidator.validateFileSize(ghFile.getSize());
+        final String fileDestination = ghFile.getFileDestination();
+        if (isDestinationIgnored(fileDestination) || isFileIgnored(ghFile.getFileName())) {
+            return null;
+        }
+        return path + PATH_SEPARATOR + fileDestination;
+    }
 }
@@ -0,0 +1,93 @@
+package de.aittr.lmsbe.github.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.aittr.lmsbe.github.uttils.GHCacheUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The GHBranchRegistry class keeps the branch names of the cohort repositories in memory.
+ * <p>
+ * The branch names of a repository are listed once. A name which is not known yet is looked up as a single branch,
+ * so a branch created outside of the application is found without listing all branches again. The lookup matches
+ * the name exactly, unlike a ref lookup, which also finds the branches the name is a prefix of.
+ */
+@Service
+@Slf4j
+public class GHBranchRegistry {
+
+    /**
+     * The branch names by the full repository name, e.g. {@code ait-tr/cohort-36}.
+     */
+    private final AsyncCache<String, Set<String>> branchNames;
+
+    public GHBranchRegistry(@Value("${git.branches.maxSize:500}") long maxSize,
+                            @Value("${git.branches.ttlMinutes:1440}") long ttlMinutes) {
+        this.branchNames = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .buildAsync();
+    }
+
+    /**
+     * Checks if the given branch exists in the repository.
+     *
+     * @param repository the repository
+     * @param branchName the name of the branch
+     * @return true if the branch exists
+     * @throws IOException if the branches could not be read
+     */
+    public boolean exists(GHRepository repository, String branchName) throws IOException {
+        final Set<String> names = getBranchNames(repository);
+        if (names.contains(branchName)) {
+            return true;
+        }
+        try {
+            repository.getBranch(branchName);
+        } catch (GHFileNotFoundException e) {
+            return false;
+        }
+        names.add(branchName);
+        return true;
+    }
+
+    /**
+     * Registers a branch which was created by the application.
+     *
+     * @param repository the repository
+     * @param branchName the name of the new branch
+     */
+    public void registerCreated(GHRepository repository, String branchName) {
+        final Set<String> names = branchNames.synchronous().getIfPresent(repository.getFullName());
+        if (names != null) {
+            names.add(branchName);
+        }
+    }
+
+    /**
+     * Removes the branch names of the given repository, e.g. after the repository was renamed.
+     *
+     * @param fullName the full name of the repository
+     */
+    public void invalidate(String fullName) {
+        branchNames.synchronous().invalidate(fullName);
+    }
+
+    private Set<String> getBranchNames(GHRepository repository) throws IOException {
+        return GHCacheUtils.getOrLoad(branchNames, repository.getFullName(), () -> {
+            log.debug("Listing branches of {}", repository.getFullName());
+            final Set<String> names = ConcurrentHashMap.newKeySet();
+            names.addAll(repository.getBranches().keySet());
+            return names;
+        });
+    }
+}
@@ -7,39 +7,82 @@ import org.kohsuke.github.GHRepository;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
-import static de.aittr.lmsbe.github.uttils.GHHelper.PATH_SEPARATOR;
-
-
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class GHContentService {
 
-    private final GHFileEncodeService ghFileEncodeService;
+    private final GHFetchService ghFetchService;
 
+    /**
+     * Retrieves all files below the given path.
+     * <p>
+     * The directories of the same level are listed concurrently, so the number of sequential round trips
+     * equals the depth of the directory tree. The files are returned in depth-first order of the listings.
+     *
+     * @param repo       the repository to read from
+     * @param path       the path of the root directory
+     * @param branchSHA1 the SHA1 of the branch to read from
+     * @param deadline   the deadline of the request
+     * @return the files below the given path, or an empty list if the root directory could not be listed
+     */
     public List<GHContent> retrieveContentRecursive(GHRepository repo,
                                                     String path,
-                                                    List<GHContent> fileList,
-                                                    String branchSHA1) {
-        List<GHContent> contents;
+                                                    String branchSHA1,
+                                                    Instant deadline) {
+        final Map<String, List<GHContent>> listings = new HashMap<>();
+        List<String> currentLevel = List.of(path);
+        while (!currentLevel.isEmpty()) {
+            final List<List<GHContent>> levelListings;
+            try {
+                levelListings = ghFetchService.fetchAll(currentLevel,
+                        dirPath -> () -> listDirectory(repo, dirPath, branchSHA1),
+                        deadline);
+            } catch (IOException e) {
+                log.warn("Failed to list directories {}: {}", currentLevel, e.getMessage());
+                return new ArrayList<>();
+            }
+
+            final List<String> nextLevel = new ArrayList<>();
+            for (int i = 0; i < currentLevel.size(); i++) {
+                final List<GHContent> listing = levelListings.get(i);
+                listings.put(currentLevel.get(i), listing);
+                listing.stream()
+                        .filter(GHContent::isDirectory)
+                        .map(GHContent::getPath)
+                        .forEach(nextLevel::add);
+            }
+            currentLevel = nextLevel;
+        }
+
+        final List<GHContent> fileList = new ArrayList<>();
+        collectFiles(path, listings, fileList);
+        return fileList;
+    }
+
+    private List<GHContent> listDirectory(GHRepository repo, String path, String branchSHA1) {
         try {
-            contents = repo.getDirectoryContent(path, branchSHA1);
+            return repo.getDirectoryContent(path, branchSHA1);
         } catch (IOException e) {
             return new ArrayList<>();
         }
+    }
 
-        for (GHContent content : contents) {
+    private void collectFiles(String path, Map<String, List<GHContent>> listings, List<GHContent> fileList) {
+        for (GHContent content : listings.getOrDefault(path, List.of())) {
             if (content.isDirectory()) {
-                retrieveContentRecursive(repo, content.getPath(), fileList, branchSHA1);
+                collectFiles(content.getPath(), listings, fileList);
             } else {
                 fileList.add(content);
             }
         }
-        return fileList;
     }
 
     public GHContent retrieveContent(GHRepository repo,
@@ -63,14 +106,4 @@ public class GHContentService {
             return new ArrayList<>();
         }
     }
-
-    public String getFileData(GHRepository repository,
-                              String lessonModuleName,
-                              String lessonNr,
-                              String fileName,
-                              String branchSHA1) {
-        String lessonPath = lessonModuleName + PATH_SEPARATOR + lessonNr;
-        GHContent fileContent = retrieveContent(repository, lessonPath + PATH_SEPARATOR + fileName, branchSHA1);
-        return ghFileEncodeService.readFileContentAsString(fileContent, null);
-    }
 }
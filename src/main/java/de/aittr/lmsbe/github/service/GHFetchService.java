@@ -0,0 +1,217 @@
+package de.aittr.lmsbe.github.service;
+
+import de.aittr.lmsbe.github.model.GHRequestPriority;
+import de.aittr.lmsbe.github.uttils.GHCall;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * The GHFetchService class executes calls to the GitHub API concurrently on a dedicated bounded executor.
+ * <p>
+ * The number of calls running at the same time is capped per GitHub token, and every caller waits for the results
+ * only until its own deadline. Read calls and write calls, e.g. blob uploads, have separate caps, so the uploads
+ * of a large homework cannot hold all connections needed to serve the lesson pages.
+ * The calls are executed by the {@link GHRequestScheduler} with the priority of the thread which submits them,
+ * i.e. as background requests when they are made by a background job, otherwise as interactive requests.
+ * A call is admitted by the scheduler on the submitting thread before it is handed over to the executor,
+ * so a background call waiting for the rate limit holds neither a thread of the executor nor a connection.
+ */
+@Service
+@Slf4j
+public class GHFetchService {
+
+    private final ThreadPoolExecutor fetchExecutor;
+
+    /**
+     * Limits the number of concurrent read calls made with the configured GitHub token.
+     */
+    private final Semaphore tokenPermits;
+
+    /**
+     * Limits the number of concurrent write calls made with the configured GitHub token.
+     */
+    private final Semaphore writePermits;
+
+    private final Duration requestTimeout;
+
+    private final GHRequestScheduler ghRequestScheduler;
+
+    public GHFetchService(GHRequestScheduler ghRequestScheduler,
+                          @Value("${git.fetch.threads:16}") int threads,
+                          @Value("${git.fetch.queueSize:500}") int queueSize,
+                          @Value("${git.fetch.maxConcurrencyPerToken:8}") int maxConcurrencyPerToken,
+                          @Value("${git.fetch.maxWriteConcurrencyPerToken:4}") int maxWriteConcurrencyPerToken,
+                          @Value("${git.fetch.timeoutSeconds:20}") long timeoutSeconds) {
+        this.fetchExecutor = new ThreadPoolExecutor(threads, threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new CustomizableThreadFactory("gh-fetch-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.fetchExecutor.allowCoreThreadTimeOut(true);
+        this.tokenPermits = new Semaphore(maxConcurrencyPerToken, true);
+        this.writePermits = new Semaphore(maxWriteConcurrencyPerToken, true);
+        this.requestTimeout = Duration.ofSeconds(timeoutSeconds);
+        this.ghRequestScheduler = ghRequestScheduler;
+    }
+
+    /**
+     * Creates the deadline for a new request, based on the configured request timeout.
+     *
+     * @return the point in time until which the results of the request are awaited
+     */
+    public Instant newDeadline() {
+        return Instant.now().plus(requestTimeout);
+    }
+
+    /**
+     * Submits a call for asynchronous execution.
+     *
+     * @param call     the call to execute
+     * @param deadline the deadline of the request the call belongs to
+     * @param <T>      the type of the call result
+     * @return the future result of the call
+     */
+    public <T> CompletableFuture<T> submit(GHCall<T> call, Instant deadline) {
+        return submit(call, tokenPermits, deadline);
+    }
+
+    /**
+     * Waits for the result of the given future until the deadline is reached.
+     *
+     * @param future   the future to wait for
+     * @param deadline the deadline of the request
+     * @param <T>      the type of the result
+     * @return the result of the future
+     * @throws IOException if the call failed or the deadline was exceeded
+     */
+    public <T> T await(CompletableFuture<T> future, Instant deadline) throws IOException {
+        try {
+            return future.get(remainingMillis(deadline), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IOException("GitHub request exceeded its deadline");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("GitHub request was interrupted", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Executes a call for every source concurrently and returns the results in the order of the sources.
+     *
+     * @param sources     the sources to create the calls for
+     * @param callFactory creates the call for a single source
+     * @param deadline    the deadline of the request
+     * @param <S>         the type of the sources
+     * @param <T>         the type of the results
+     * @return the results in the order of the sources
+     * @throws IOException if one of the calls failed or the deadline was exceeded
+     */
+    public <S, T> List<T> fetchAll(Collection<S> sources,
+                                   Function<S, GHCall<T>> callFactory,
+                                   Instant deadline) throws IOException {
+        return executeAll(sources, callFactory, tokenPermits, deadline);
+    }
+
+    /**
+     * Executes a write call for every source concurrently and returns the results in the order of the sources.
+     * The write calls are capped separately from the read calls.
+     *
+     * @param sources     the sources to create the calls for
+     * @param callFactory creates the call for a single source
+     * @param deadline    the deadline of the request
+     * @param <S>         the type of the sources
+     * @param <T>         the type of the results
+     * @return the results in the order of the sources
+     * @throws IOException if one of the calls failed or the deadline was exceeded
+     */
+    public <S, T> List<T> writeAll(Collection<S> sources,
+                                   Function<S, GHCall<T>> callFactory,
+                                   Instant deadline) throws IOException {
+        return executeAll(sources, callFactory, writePermits, deadline);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(GHCall<T> call, Semaphore permits, Instant deadline) {
+        final GHRequestPriority priority = ghRequestScheduler.getCallerPriority();
+        try {
+            ghRequestScheduler.admit(priority, deadline);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException(e));
+        }
+        final CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> execute(call, permits, deadline), fetchExecutor);
+        future.whenComplete((result, error) -> ghRequestScheduler.release(priority));
+        return future;
+    }
+
+    private <S, T> List<T> executeAll(Collection<S> sources,
+                                      Function<S, GHCall<T>> callFactory,
+                                      Semaphore permits,
+                                      Instant deadline) throws IOException {
+        final List<CompletableFuture<T>> futures = new ArrayList<>(sources.size());
+        for (S source : sources) {
+            futures.add(submit(callFactory.apply(source), permits, deadline));
+        }
+        final List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(await(future, deadline));
+        }
+        return results;
+    }
+
+    private <T> T execute(GHCall<T> call, Semaphore permits, Instant deadline) {
+        boolean acquired = false;
+        try {
+            acquired = permits.tryAcquire(remainingMillis(deadline), TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                throw new UncheckedIOException(new IOException("GitHub request exceeded its deadline while waiting for a free connection"));
+            }
+            return call.call();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new IOException("GitHub request was interrupted", e));
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+        }
+    }
+
+    private static long remainingMillis(Instant deadline) {
+        return Math.max(0, Duration.between(Instant.now(), deadline).toMillis());
+    }
+
+    private static IOException unwrap(Throwable cause) {
+        if (cause instanceof UncheckedIOException) {
+            return ((UncheckedIOException) cause).getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IOException(cause);
+    }
+}
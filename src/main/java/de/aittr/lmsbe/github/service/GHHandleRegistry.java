@@ -0,0 +1,118 @@
+package de.aittr.lmsbe.github.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import de.aittr.lmsbe.github.uttils.GHCacheUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The GHHandleRegistry class keeps the handles of the GitHub repositories in memory.
+ * <p>
+ * A handle is reloaded in the background when it is older than the refresh interval,
+ * so the requests keep using the cached handle while the new one is fetched.
+ */
+@Service
+@Slf4j
+public class GHHandleRegistry {
+
+    private final GitHub githubConnector;
+
+    /**
+     * The repository handles by the full repository name, e.g. {@code ait-tr/cohort-36}.
+     */
+    private final LoadingCache<String, GHRepository> repositories;
+
+    /**
+     * The SHA1 of the default branch head by the full repository name.
+     */
+    private final AsyncCache<String, String> headSHA1s;
+
+    public GHHandleRegistry(GitHub githubConnector,
+                            @Value("${git.handles.maxSize:500}") long maxSize,
+                            @Value("${git.handles.ttlMinutes:60}") long ttlMinutes,
+                            @Value("${git.handles.refreshMinutes:10}") long refreshMinutes,
+                            @Value("${git.handles.headTtlSeconds:60}") long headTtlSeconds) {
+        this.githubConnector = githubConnector;
+        this.repositories = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .refreshAfterWrite(Duration.ofMinutes(refreshMinutes))
+                .build(this::loadRepository);
+        this.headSHA1s = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(headTtlSeconds))
+                .buildAsync();
+    }
+
+    /**
+     * Returns the handle of the given repository.
+     *
+     * @param owner    the organization or user owning the repository
+     * @param repoName the name of the repository
+     * @return the handle of the repository
+     * @throws IOException if the repository could not be found
+     */
+    public GHRepository getRepository(String owner, String repoName) throws IOException {
+        try {
+            return repositories.get(fullName(owner, repoName));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the SHA1 of the default branch head of the given repository.
+     * <p>
+     * The SHA1 is kept until the TTL expires or a push webhook reports a new head.
+     *
+     * @param repository the repository
+     * @return the SHA1 of the default branch head
+     * @throws IOException if the default branch could not be read
+     */
+    public String getHeadSHA1(GHRepository repository) throws IOException {
+        return GHCacheUtils.getOrLoad(headSHA1s, repository.getFullName(),
+                () -> repository.getBranch(repository.getDefaultBranch()).getSHA1());
+    }
+
+    /**
+     * Sets the SHA1 of the default branch head, as reported by a push webhook.
+     *
+     * @param fullName the full name of the repository, e.g. {@code ait-tr/cohort-36}
+     * @param headSHA1 the new SHA1 of the default branch head
+     */
+    public void updateHeadSHA1(String fullName, String headSHA1) {
+        headSHA1s.put(fullName, CompletableFuture.completedFuture(headSHA1));
+    }
+
+    /**
+     * Removes the handle of the given repository, e.g. after the repository was renamed.
+     *
+     * @param owner    the organization or user owning the repository
+     * @param repoName the name of the repository
+     */
+    public void invalidate(String owner, String repoName) {
+        repositories.invalidate(fullName(owner, repoName));
+    }
+
+    private GHRepository loadRepository(String fullName) throws IOException {
+        log.debug("Loading repository handle: {}", fullName);
+        return githubConnector.getRepository(fullName);
+    }
+
+    private static String fullName(String owner, String repoName) {
+        return owner + "/" + repoName;
+    }
+}
@@ -0,0 +1,80 @@
+package de.aittr.lmsbe.github.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.aittr.lmsbe.github.model.GHLessonCacheKey;
+import de.aittr.lmsbe.github.model.GHLessonContent;
+import de.aittr.lmsbe.github.uttils.GHCacheUtils;
+import de.aittr.lmsbe.github.uttils.GHCall;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The GHLessonCacheService class keeps the rendered lesson content in memory, so the same lesson
+ * is fetched from GitHub only once per commit.
+ */
+@Service
+@Slf4j
+public class GHLessonCacheService {
+
+    private static final long BYTES_IN_MB = 1024L * 1024L;
+
+    private final AsyncCache<GHLessonCacheKey, GHLessonContent> lessonCache;
+
+    public GHLessonCacheService(@Value("${git.cache.lesson.maxSizeMb:256}") long maxSizeMb,
+                                @Value("${git.cache.lesson.ttlMinutes:60}") long ttlMinutes) {
+        this.lessonCache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * BYTES_IN_MB)
+                .weigher((GHLessonCacheKey key, GHLessonContent content) -> content.estimateSize())
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached lesson content or loads it with the given loader.
+     * <p>
+     * Concurrent requests for the same key wait for a single load. The load runs in the calling thread,
+     * outside the cache lock, and a failed load is not cached.
+     *
+     * @param key    the key of the lesson content
+     * @param loader the loader used when the content is not cached yet
+     * @return the lesson content
+     * @throws IOException if the loader fails to read the content from GitHub
+     */
+    public GHLessonContent getOrLoad(GHLessonCacheKey key, GHCall<GHLessonContent> loader) throws IOException {
+        return GHCacheUtils.getOrLoad(lessonCache, key, () -> {
+            log.debug("Lesson content cache miss: {}", key);
+            return loader.call();
+        });
+    }
+
+    /**
+     * Returns the paths of the cached lessons of the given repository, regardless of their commit.
+     *
+     * @param repository the name of the cohort repository
+     * @return the paths of the cached lessons
+     */
+    public Set<String> getCachedPaths(String repository) {
+        return lessonCache.asMap().keySet().stream()
+                .filter(key -> key.getRepository().equals(repository))
+                .map(GHLessonCacheKey::getPath)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Removes the cached lessons of the given repository which were read from another commit than the given head.
+     *
+     * @param repository the name of the cohort repository
+     * @param headSHA1   the SHA1 of the current branch head
+     */
+    public void invalidateOutdated(String repository, String headSHA1) {
+        lessonCache.asMap().keySet().removeIf(key ->
+                key.getRepository().equals(repository) && !key.getBranchSHA1().equals(headSHA1));
+    }
+}
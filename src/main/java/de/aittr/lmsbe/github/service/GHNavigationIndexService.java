@@ -0,0 +1,178 @@
+package de.aittr.lmsbe.github.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.aittr.lmsbe.github.model.GHLessonType;
+import de.aittr.lmsbe.github.model.GHNavigationIndex;
+import de.aittr.lmsbe.github.model.GHRequestPriority;
+import de.aittr.lmsbe.github.uttils.GHBranchHandlerService;
+import de.aittr.lmsbe.github.uttils.GHCacheUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GHTree;
+import org.kohsuke.github.GHTreeEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static de.aittr.lmsbe.github.model.GHLessonType.CONSULTATION;
+import static de.aittr.lmsbe.github.model.GHLessonType.LESSON;
+
+/**
+ * The GHNavigationIndexService class keeps the modules, lessons and consultations of the cohort repositories
+ * in memory, so the navigation endpoints do not call GitHub.
+ * <p>
+ * An index is built on the first request for a cohort and rebuilt by a scheduled job only when
+ * the head of the default branch has moved.
+ */
+@Service
+@Slf4j
+public class GHNavigationIndexService {
+
+    private static final String TREE_TYPE = "tree";
+    private static final Pattern NUMBERED_NAME = Pattern.compile(".*\\d+$");
+
+    private final GHBranchHandlerService ghBranchHandlerService;
+    private final GHFetchService ghFetchService;
+    private final GHRequestScheduler ghRequestScheduler;
+
+    private final AsyncCache<String, GHNavigationIndex> indexCache;
+
+    public GHNavigationIndexService(GHBranchHandlerService ghBranchHandlerService,
+                                    GHFetchService ghFetchService,
+                                    GHRequestScheduler ghRequestScheduler,
+                                    @Value("${git.navigation.maxSize:500}") long maxSize) {
+        this.ghBranchHandlerService = ghBranchHandlerService;
+        this.ghFetchService = ghFetchService;
+        this.ghRequestScheduler = ghRequestScheduler;
+        this.indexCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .buildAsync();
+    }
+
+    /**
+     * Returns the navigation index of the given cohort repository, building it on the first request.
+     *
+     * @param cohort the name of the cohort repository
+     * @return the navigation index
+     * @throws IOException if the index could not be built
+     */
+    public GHNavigationIndex getIndex(String cohort) throws IOException {
+        return GHCacheUtils.getOrLoad(indexCache, cohort, () -> buildIndex(cohort));
+    }
+
+    /**
+     * Rebuilds the navigation index of the given cohort repository if the head of its default branch has moved.
+     *
+     * @param cohort the name of the cohort repository
+     * @throws IOException if the index could not be rebuilt
+     */
+    public void refresh(String cohort) throws IOException {
+        final GHRepository repo = ghBranchHandlerService.getRepo(cohort);
+        final String headSHA1 = ghBranchHandlerService.getDefaultBranchSHA1(repo);
+        final var cached = indexCache.getIfPresent(cohort);
+        if (cached != null && cached.isDone() && !cached.isCompletedExceptionally()
+                && headSHA1.equals(cached.join().getHeadSHA1())) {
+            return;
+        }
+        indexCache.synchronous().put(cohort, buildIndex(repo, headSHA1));
+    }
+
+    /**
+     * Rebuilds the navigation index of the given cohort repository if it was requested before and the head
+     * of its default branch has moved.
+     *
+     * @param cohort the name of the cohort repository
+     * @throws IOException if the index could not be rebuilt
+     */
+    public void refreshIfPresent(String cohort) throws IOException {
+        if (indexCache.getIfPresent(cohort) != null) {
+            refresh(cohort);
+        }
+    }
+
+    /**
+     * Refreshes the navigation indexes of all cohort repositories which were requested before.
+     * The refresh runs as background job, so its GitHub calls give way to the interactive requests when the rate limit runs low.
+     */
+    @Scheduled(fixedDelayString = "${git.navigation.refreshMillis:300000}",
+            initialDelayString = "${git.navigation.refreshMillis:300000}")
+    public void refreshAll() {
+        for (String cohort : List.copyOf(indexCache.asMap().keySet())) {
+            try {
+                ghRequestScheduler.runAs(GHRequestPriority.BACKGROUND, () -> {
+                    refresh(cohort);
+                    return null;
+                });
+            } catch (IOException e) {
+                log.warn("Failed to refresh the navigation index of {}: {}", cohort, e.getMessage());
+            }
+        }
+    }
+
+    private GHNavigationIndex buildIndex(String cohort) throws IOException {
+        final GHRepository repo = ghBranchHandlerService.getRepo(cohort);
+        return buildIndex(repo, ghBranchHandlerService.getDefaultBranchSHA1(repo));
+    }
+
+    /**
+     * Builds the index from the git trees of the commit. Every level of the tree is read with one request
+     * per directory, and the directories of the same level are read concurrently.
+     */
+    private GHNavigationIndex buildIndex(GHRepository repo, String headSHA1) throws IOException {
+        log.debug("Building navigation index of {} at {}", repo.getName(), headSHA1);
+        final Instant deadline = ghFetchService.newDeadline();
+
+        final List<GHTreeEntry> moduleEntries = directories(repo.getTree(headSHA1));
+        final List<GHTree> moduleTrees = ghFetchService.fetchAll(moduleEntries,
+                entry -> () -> repo.getTree(entry.getSha()), deadline);
+
+        final Map<String, List<String>> lessonsByModule = new HashMap<>();
+        final Map<String, GHTreeEntry> consultationEntries = new HashMap<>();
+        for (int i = 0; i < moduleEntries.size(); i++) {
+            final String moduleName = moduleEntries.get(i).getPath();
+            final List<GHTreeEntry> moduleDirectories = directories(moduleTrees.get(i));
+            lessonsByModule.put(moduleName, lessonNames(moduleDirectories, LESSON));
+            moduleDirectories.stream()
+                    .filter(entry -> CONSULTATION.getPath().equals(entry.getPath()))
+                    .findFirst()
+                    .ifPresent(entry -> consultationEntries.put(moduleName, entry));
+        }
+
+        final List<String> consultationModules = List.copyOf(consultationEntries.keySet());
+        final List<GHTree> consultationTrees = ghFetchService.fetchAll(consultationModules,
+                moduleName -> () -> repo.getTree(consultationEntries.get(moduleName).getSha()), deadline);
+        final Map<String, List<String>> consultationsByModule = new HashMap<>();
+        for (int i = 0; i < consultationModules.size(); i++) {
+            consultationsByModule.put(consultationModules.get(i),
+                    lessonNames(directories(consultationTrees.get(i)), CONSULTATION));
+        }
+
+        final List<String> modules = moduleEntries.stream()
+                .map(GHTreeEntry::getPath)
+                .filter(name -> !name.contains(CONSULTATION.getPath()))
+                .collect(Collectors.toList());
+        return new GHNavigationIndex(headSHA1, modules, lessonsByModule, consultationsByModule);
+    }
+
+    private static List<GHTreeEntry> directories(GHTree tree) {
+        return tree.getTree().stream()
+                .filter(entry -> TREE_TYPE.equals(entry.getType()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> lessonNames(List<GHTreeEntry> directories, GHLessonType ghLessonType) {
+        return directories.stream()
+                .map(GHTreeEntry::getPath)
+                .filter(name -> name.startsWith(ghLessonType.getPathsSuffix()) && NUMBERED_NAME.matcher(name).matches())
+                .collect(Collectors.toList());
+    }
+}
@@ -21,6 +21,7 @@ import java.io.IOException;
 public class GHRepositoryService {
 
     private final GitHub githubConnector;
+    private final GHHandleRegistry ghHandleRegistry;
 
     @Value("${git.template-owner}")
     private String templateOwner;
@@ -63,6 +64,7 @@ public class GHRepositoryService {
         }
         try {
             repository.renameTo(newCohortVersion);
+            ghHandleRegistry.invalidate(templateOwner, currentRepoName);
             log.debug("Renamed repository to '{}'", newCohortVersion);
             return repository;
         } catch (IOException e) {
@@ -73,7 +75,7 @@ public class GHRepositoryService {
 
     public GHRepository getRepository(String owner, String repoName) {
         try {
-            return githubConnector.getRepository(owner + "/" + repoName);
+            return ghHandleRegistry.getRepository(owner, repoName);
         } catch (IOException e) {
             log.error("Repository not found: {}/{}", owner, repoName, e);
             throw new RestException(HttpStatus.NOT_FOUND, "Repository not found: " + owner + "/" + repoName);
@@ -83,7 +85,7 @@ public class GHRepositoryService {
 
     private boolean repositoryExists(String owner, String repoName) {
         try {
-            githubConnector.getRepository(owner + "/" + repoName);
+            ghHandleRegistry.getRepository(owner, repoName);
             return true;
         } catch (IOException e) {
             return false;
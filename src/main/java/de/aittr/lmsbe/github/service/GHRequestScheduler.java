@@ -0,0 +1,229 @@
+package de.aittr.lmsbe.github.service;
+
+import de.aittr.lmsbe.github.exception.GithubRateLimitException;
+import de.aittr.lmsbe.github.model.GHRequestPriority;
+import de.aittr.lmsbe.github.uttils.GHCall;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The GHRequestScheduler class admits GitHub requests according to the remaining rate limit of the GitHub token.
+ * <p>
+ * The remaining quota is taken from the headers of the GitHub responses. Interactive requests are executed
+ * until the quota is exhausted. Background requests run with limited concurrency and only while the quota is above
+ * the configured reserve; otherwise they wait for the reset of the rate limit and are rejected after the maximum wait.
+ * <p>
+ * A job which makes many GitHub calls, e.g. a homework push, runs with {@link #runAs}. The job is admitted once
+ * without holding a permit, and the calls it makes through the {@link GHFetchService} take over its priority,
+ * so every single call is admitted as background request instead of the job as a whole.
+ */
+@Service
+@Slf4j
+public class GHRequestScheduler {
+
+    private static final long UNKNOWN = -1;
+    private static final long WAIT_STEP_MILLIS = 1000;
+
+    private final AtomicLong remaining = new AtomicLong(UNKNOWN);
+    private final AtomicLong resetEpochSecond = new AtomicLong(UNKNOWN);
+
+    private final Semaphore backgroundPermits;
+    private final long backgroundReserve;
+    private final Duration backgroundMaxWait;
+
+    private final Map<GHRequestPriority, Counter> shedCounters = new EnumMap<>(GHRequestPriority.class);
+
+    /**
+     * The priority of the job or call running on the current thread.
+     */
+    private final ThreadLocal<GHRequestPriority> callerPriority = new ThreadLocal<>();
+
+    public GHRequestScheduler(MeterRegistry meterRegistry,
+                              @Value("${git.scheduler.backgroundConcurrency:2}") int backgroundConcurrency,
+                              @Value("${git.scheduler.backgroundReserve:1000}") long backgroundReserve,
+                              @Value("${git.scheduler.backgroundMaxWaitSeconds:30}") long backgroundMaxWaitSeconds) {
+        this.backgroundPermits = new Semaphore(backgroundConcurrency, true);
+        this.backgroundReserve = backgroundReserve;
+        this.backgroundMaxWait = Duration.ofSeconds(backgroundMaxWaitSeconds);
+
+        Gauge.builder("github.ratelimit.remaining", remaining, AtomicLong::get)
+                .description("Remaining GitHub API requests of the current rate limit window, -1 if unknown")
+                .register(meterRegistry);
+        for (GHRequestPriority priority : GHRequestPriority.values()) {
+            shedCounters.put(priority, Counter.builder("github.requests.shed")
+                    .description("GitHub requests rejected because of the rate limit")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Updates the rate limit state from the headers of a GitHub response.
+     *
+     * @param remainingRequests the remaining requests of the current window
+     * @param resetAt           the epoch second when the window is reset
+     */
+    public void updateRateLimit(long remainingRequests, long resetAt) {
+        remaining.set(remainingRequests);
+        resetEpochSecond.set(resetAt);
+    }
+
+    /**
+     * Returns the priority of the job or call running on the current thread, the calls it makes are executed
+     * with this priority.
+     *
+     * @return the priority of the caller, {@link GHRequestPriority#INTERACTIVE} outside a job
+     */
+    public GHRequestPriority getCallerPriority() {
+        final GHRequestPriority priority = callerPriority.get();
+        return priority == null ? GHRequestPriority.INTERACTIVE : priority;
+    }
+
+    /**
+     * Runs a job which makes GitHub calls with the given priority. A background job waits until the quota is above
+     * the reserve, but does not hold a background permit, since its calls are admitted one by one.
+     *
+     * @param priority the priority of the job
+     * @param job      the job to run
+     * @param <T>      the type of the job result
+     * @return the result of the job
+     * @throws IOException if the job failed or was rejected because of the rate limit
+     */
+    public <T> T runAs(GHRequestPriority priority, GHCall<T> job) throws IOException {
+        if (GHRequestPriority.INTERACTIVE.equals(priority)) {
+            return callAs(priority, job);
+        }
+        try {
+            awaitBackgroundQuota(priority, Instant.now().plus(backgroundMaxWait));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("GitHub request was interrupted", e);
+        }
+        return callAs(priority, job);
+    }
+
+    /**
+     * Executes a GitHub call with the given priority.
+     *
+     * @param priority the priority of the call
+     * @param call     the call to execute
+     * @param <T>      the type of the call result
+     * @return the result of the call
+     * @throws IOException if the call failed or was rejected because of the rate limit
+     */
+    public <T> T execute(GHRequestPriority priority, GHCall<T> call) throws IOException {
+        admit(priority, Instant.now().plus(backgroundMaxWait));
+        try {
+            return callAs(priority, call);
+        } finally {
+            release(priority);
+        }
+    }
+
+    /**
+     * Admits a single GitHub call with the given priority before it is handed over for execution.
+     * A background call takes a background permit, which has to be returned with {@link #release} after the call.
+     * It waits for the permit and for the quota at most until the given deadline, so a call is never admitted
+     * after its caller stopped waiting for it.
+     *
+     * @param priority the priority of the call
+     * @param deadline the deadline of the request the call belongs to
+     * @throws IOException if the call was rejected because of the rate limit or the deadline
+     */
+    public void admit(GHRequestPriority priority, Instant deadline) throws IOException {
+        if (GHRequestPriority.INTERACTIVE.equals(priority)) {
+            if (!hasQuotaAbove(0)) {
+                throw shed(priority);
+            }
+            return;
+        }
+
+        final Instant maxWait = Instant.now().plus(backgroundMaxWait);
+        final Instant waitUntil = deadline.isBefore(maxWait) ? deadline : maxWait;
+        boolean acquired = false;
+        boolean admitted = false;
+        try {
+            acquired = backgroundPermits.tryAcquire(millisUntil(waitUntil), TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                throw shed(priority);
+            }
+            awaitBackgroundQuota(priority, waitUntil);
+            admitted = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("GitHub request was interrupted", e);
+        } finally {
+            if (acquired && !admitted) {
+                backgroundPermits.release();
+            }
+        }
+    }
+
+    /**
+     * Returns the permit of a call admitted with {@link #admit} after the call completed.
+     *
+     * @param priority the priority the call was admitted with
+     */
+    public void release(GHRequestPriority priority) {
+        if (!GHRequestPriority.INTERACTIVE.equals(priority)) {
+            backgroundPermits.release();
+        }
+    }
+
+    private void awaitBackgroundQuota(GHRequestPriority priority, Instant waitUntil)
+            throws GithubRateLimitException, InterruptedException {
+        while (!hasQuotaAbove(backgroundReserve)) {
+            final long waitMillis = millisUntil(waitUntil);
+            if (waitMillis <= 0) {
+                throw shed(priority);
+            }
+            Thread.sleep(Math.min(waitMillis, WAIT_STEP_MILLIS));
+        }
+    }
+
+    private <T> T callAs(GHRequestPriority priority, GHCall<T> call) throws IOException {
+        final GHRequestPriority previous = callerPriority.get();
+        callerPriority.set(priority);
+        try {
+            return call.call();
+        } finally {
+            if (previous == null) {
+                callerPriority.remove();
+            } else {
+                callerPriority.set(previous);
+            }
+        }
+    }
+
+    private boolean hasQuotaAbove(long reserve) {
+        final long remainingRequests = remaining.get();
+        return remainingRequests == UNKNOWN
+                || remainingRequests > reserve
+                || Instant.now().getEpochSecond() >= resetEpochSecond.get();
+    }
+
+    private static long millisUntil(Instant instant) {
+        return Math.max(0, Duration.between(Instant.now(), instant).toMillis());
+    }
+
+    private GithubRateLimitException shed(GHRequestPriority priority) {
+        shedCounters.get(priority).increment();
+        final String message = String.format("GitHub rate limit is exhausted, %d requests remaining until %s",
+                remaining.get(), Instant.ofEpochSecond(resetEpochSecond.get()));
+        log.warn("{} request rejected: {}", priority, message);
+        return new GithubRateLimitException(message);
+    }
+}
@@ -7,9 +7,17 @@ import de.aittr.lmsbe.exception.RestException;
 import de.aittr.lmsbe.github.dto.GHJsonMeta;
 import de.aittr.lmsbe.github.dto.LessonCode;
 import de.aittr.lmsbe.github.dto.LessonMeta;
+import de.aittr.lmsbe.github.exception.GithubRateLimitException;
+import de.aittr.lmsbe.github.model.GHLessonArchive;
+import de.aittr.lmsbe.github.model.GHLessonCacheKey;
+import de.aittr.lmsbe.github.model.GHLessonContent;
+import de.aittr.lmsbe.github.model.GHLessonFile;
 import de.aittr.lmsbe.github.model.GHLessonType;
+import de.aittr.lmsbe.github.model.GHRequestPriority;
 import de.aittr.lmsbe.github.model.GHUploadFile;
 import de.aittr.lmsbe.github.model.MyGHContent;
+import de.aittr.lmsbe.github.service.source.GHLessonFileSource;
+import de.aittr.lmsbe.github.service.source.GHLessonFileSourceService;
 import de.aittr.lmsbe.github.uttils.GHBranchHandlerService;
 import de.aittr.lmsbe.github.uttils.GHHelper;
 import de.aittr.lmsbe.model.Cohort;
@@ -21,21 +29,22 @@ import de.aittr.lmsbe.service.interfaces.IFileService;
 import de.aittr.lmsbe.utils.FileValidateResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.logging.log4j.util.Strings;
 import org.kohsuke.github.GHBranch;
 import org.kohsuke.github.GHContent;
 import org.kohsuke.github.GHRepository;
 import org.kohsuke.github.GHTreeBuilder;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -57,6 +66,10 @@ public class GHServiceImpl implements GHService {
     private static final String CODE_DIRECTORY = "code";
     static final String HOMEWORK_SOLUTION_PATH = "hw_solution";
     private static final String ERROR_TEMPLATE = "Error encountered: {}";
+    private static final String GITHUB_API_PATH = "/github";
+    private static final String HOMEWORK_PATH = "hw";
+    private static final String ARCHIVE_PATH = "archive";
+    private static final String ARCHIVE_EXTENSION = ".zip";
 
     private final CohortService cohortService;
     private final IFileService fileService;
@@ -65,11 +78,15 @@ public class GHServiceImpl implements GHService {
     private final GHContentService ghContentService;
     private final GHBranchHandlerService ghBranchHandlerService;
     private final GHCommitHandlerService ghCommitHandlerService;
-    private final GhValidationService ghValidationService;
     private final GHZipService ghZipService;
     private final GHFileEncodeService ghFileEncodeService;
     private final GHHelper ghHelper;
     private final LessonService lessonService;
+    private final GHLessonCacheService ghLessonCacheService;
+    private final GHFetchService ghFetchService;
+    private final GHLessonFileSourceService ghLessonFileSourceService;
+    private final GHNavigationIndexService ghNavigationIndexService;
+    private final GHRequestScheduler ghRequestScheduler;
 
     @Override
     public List<String> getLessonModuls(final String cohort) {
@@ -77,11 +94,9 @@ public class GHServiceImpl implements GHService {
         findCohortByRepoName(cohort);
 
         try {
-            final var repository = ghBranchHandlerService.getRepo(cohort);
-            return ghContentService.retrieveDirectories(repository, Strings.EMPTY).stream()
-                    .map(GHContent::getName)
-                    .filter(name -> !name.contains("consultation"))
-                    .collect(Collectors.toList());
+            return ghNavigationIndexService.getIndex(cohort).getModules();
+        } catch (GithubRateLimitException e) {
+            throw new RestException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
         } catch (IOException e) {
             log.error("", e);
             throw new RestException(HttpStatus.BAD_REQUEST, e.getMessage());
@@ -96,13 +111,9 @@ public class GHServiceImpl implements GHService {
         findCohortByRepoName(cohort);
 
         try {
-            final var repository = ghBranchHandlerService.getRepo(cohort);
-            final var pathToLessons = moduleName + (LESSON.equals(ghLessonType) ? "" : PATH_SEPARATOR + ghLessonType.getPath());
-            return ghContentService.retrieveDirectories(repository, pathToLessons)
-                    .stream()
-                    .map(GHContent::getName)
-                    .filter(name -> (name.startsWith(ghLessonType.getPathsSuffix()) && name.matches(".*\\d+$")))
-                    .collect(Collectors.toList());
+            return ghNavigationIndexService.getIndex(cohort).getLessons(moduleName, ghLessonType);
+        } catch (GithubRateLimitException e) {
+            throw new RestException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
         } catch (IOException e) {
             final var errorMsg = "An exception occurred while retrieving lessons for the specified cohort and module. " +
                     "Please ensure that the cohort, module name, and lesson type are correct and try again.";
@@ -122,71 +133,156 @@ public class GHServiceImpl implements GHService {
 
         final Cohort existingCohortRepo = findCohortByRepoName(cohortAlias);
         LessonDto lessonDto = null;
-        if (currentUser != null) {
-            final var loggedInUser = userService.getUserByEmailOrThrow(currentUser.getEmail());
-            final var userPrimaryCohort = loggedInUser.getPrimaryCohort();
-            final var userCohorts = loggedInUser.getCohorts();
-            final var userRole = loggedInUser.getRole();
-            final boolean allAllowed = User.Role.ADMIN.equals(userRole) || User.Role.TEACHER.equals(userRole);
-            log.debug("Access check - Email: {}, Primary Cohort: {}, Cohorts: {}, Role: {}, All allowed: {}",
-                    currentUser.getEmail(), userPrimaryCohort, userCohorts, userRole, allAllowed);
-            if (!allAllowed && (!userCohorts.contains(existingCohortRepo) && !existingCohortRepo.equals(userPrimaryCohort))) {
-                String message = String.format("User %s denied access to cohort %s", currentUser.getEmail(), existingCohortRepo);
-                log.warn(message);
-                throw new RestException(HttpStatus.FORBIDDEN, message);
-            }
-            if (allAllowed) {
-                lessonDto = lessonService.getLectureLesson(cohortAlias, moduleName, lessonNr, ghLessonType.getLessonType()).orElse(null);
-            }
+        if (checkCohortAccess(existingCohortRepo, currentUser)) {
+            lessonDto = lessonService.getLectureLesson(cohortAlias, moduleName, lessonNr, ghLessonType.getLessonType()).orElse(null);
         }
 
         final var pathToLessons = moduleName + (LESSON.equals(ghLessonType) ? "" : PATH_SEPARATOR + ghLessonType.getPath());
         try {
             log.debug("Fetching repo from Github for Cohort: {}", cohortAlias);
             final GHRepository repo = ghBranchHandlerService.getRepo(cohortAlias);
-            final GHBranch mainBranch = ghBranchHandlerService.getDefaultBranch(repo);
-            final String mainBranchSHA = mainBranch.getSHA1();
-
-            log.debug("Fetching files by lesson path: {}, lesson number: {}  for User: {}",
-                    pathToLessons, lessonNr, currentUser);
+            final String mainBranchSHA = ghBranchHandlerService.getDefaultBranchSHA1(repo);
 
-            final var planData = ghContentService.getFileData(repo, pathToLessons, lessonNr, PLAN_FILENAME, mainBranchSHA);
-            final var theoryData = ghContentService.getFileData(repo, pathToLessons, lessonNr, FILE_NAME, mainBranchSHA);
-            final var homeworkData = ghContentService.getFileData(repo, pathToLessons, lessonNr, HOMEWORK_FILE, mainBranchSHA);
-            final var ghLessonCode = getCode(repo, pathToLessons, lessonNr, mainBranchSHA);
-
-            final List<LessonCode> lessonCode = ghLessonCode.stream()
-                    .map(MyGHContent::getLessonCode)
-                    .collect(Collectors.toList());
-            final List<GHContent> ghContentList = ghLessonCode.stream()
-                    .map(MyGHContent::getGhContent)
-                    .collect(Collectors.toList());
-
-            final var baos = ghZipService.zipFilesToByteArray(ghContentList);
-            final var archiveData = Base64.getEncoder().encodeToString(baos.toByteArray());
-
-            log.debug("\n\tplandData found:\t{}\n theoryData found:\t{}\n homeworkData found:\t{}\n lessonCode found:\t{}",
-                    planData != null, theoryData != null, homeworkData != null, lessonCode.size());
+            final var cacheKey = new GHLessonCacheKey(repo.getName(), mainBranchSHA, pathToLessons + PATH_SEPARATOR + lessonNr);
+            final GHLessonContent lessonContent = ghLessonCacheService.getOrLoad(cacheKey,
+                    () -> loadLessonContent(repo, pathToLessons, lessonNr, mainBranchSHA));
 
             final FileValidateResult fileValidationResult = fileService.fileValidateResult(moduleName,
                     lessonNr, currentUser,
                     ghLessonType, existingCohortRepo);
             boolean isFileExist = fileValidationResult.isFileAllowed() && fileValidationResult.isFileExists();
 
-            return new LessonMeta(planData,
-                    theoryData,
-                    homeworkData,
-                    lessonCode,
+            return new LessonMeta(lessonContent.getPlanData(),
+                    lessonContent.getTheoryData(),
+                    lessonContent.getHomeworkData(),
+                    lessonContent.getLessonCode(),
                     isFileExist,
                     fileValidationResult.isFileAllowed(),
-                    archiveData,
+                    getArchiveUrl(cohortAlias, moduleName, lessonNr, ghLessonType),
                     lessonDto);
+        } catch (GithubRateLimitException e) {
+            throw new RestException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
         } catch (IOException e) {
             log.error("Error fetching lesson meta. Exception Message: {}", e.getMessage(), e);
             throw new RestException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
 
+    /**
+     * Retrieves the zip archive of the lesson code.
+     *
+     * @param cohortAlias  The cohort associated with the lesson.
+     * @param moduleName   The module name associated with the lesson.
+     * @param lessonNr     The lesson number.
+     * @param currentUser  The current user.
+     * @param ghLessonType The GitHub lesson type.
+     * @return The archive of the lesson code, which reads the files only when they are requested.
+     */
+    public GHLessonArchive getLessonArchive(final String cohortAlias,
+                                            final String moduleName,
+                                            final String lessonNr,
+                                            final User currentUser,
+                                            final GHLessonType ghLessonType) {
+        checkCohortAccess(findCohortByRepoName(cohortAlias), currentUser);
+
+        final var pathToLessons = moduleName + (LESSON.equals(ghLessonType) ? "" : PATH_SEPARATOR + ghLessonType.getPath());
+        try {
+            final GHRepository repo = ghBranchHandlerService.getRepo(cohortAlias);
+            final String mainBranchSHA = ghBranchHandlerService.getDefaultBranchSHA1(repo);
+            final var cacheKey = new GHLessonCacheKey(repo.getName(), mainBranchSHA, pathToLessons + PATH_SEPARATOR + lessonNr);
+
+            return new GHLessonArchive(lessonNr + ARCHIVE_EXTENSION,
+                    createArchiveETag(mainBranchSHA, cacheKey.getPath()),
+                    () -> ghLessonCacheService.getOrLoad(cacheKey,
+                            () -> loadLessonContent(repo, pathToLessons, lessonNr, mainBranchSHA)).getArchiveFiles());
+        } catch (GithubRateLimitException e) {
+            throw new RestException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        } catch (IOException e) {
+            log.error("Error fetching lesson archive. Exception Message: {}", e.getMessage(), e);
+            throw new RestException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the content of a lesson at the current default branch head into the lesson cache.
+     *
+     * @param cohort     The cohort repository of the lesson.
+     * @param lessonPath The path to the lesson directory, e.g. {@code basic_programming/lesson_01}.
+     * @throws IOException if the lesson could not be read from GitHub.
+     */
+    public void warmUpLesson(final String cohort, final String lessonPath) throws IOException {
+        final int separatorIndex = lessonPath.lastIndexOf(PATH_SEPARATOR);
+        final String pathToLessons = lessonPath.substring(0, separatorIndex);
+        final String lessonNr = lessonPath.substring(separatorIndex + 1);
+
+        final GHRepository repo = ghBranchHandlerService.getRepo(cohort);
+        final String mainBranchSHA = ghBranchHandlerService.getDefaultBranchSHA1(repo);
+        ghLessonCacheService.getOrLoad(new GHLessonCacheKey(repo.getName(), mainBranchSHA, lessonPath),
+                () -> loadLessonContent(repo, pathToLessons, lessonNr, mainBranchSHA));
+    }
+
+    /**
+     * Reads the files of the given archive.
+     *
+     * @param archive The archive to read the files of.
+     * @return The files of the archive.
+     */
+    public List<GHLessonFile> readArchiveFiles(final GHLessonArchive archive) {
+        try {
+            return archive.getFilesLoader().call();
+        } catch (GithubRateLimitException e) {
+            throw new RestException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        } catch (IOException e) {
+            log.error("Error reading archive {}. Exception Message: {}", archive.getFileName(), e.getMessage(), e);
+            throw new RestException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the given files as zip archive to the output stream.
+     *
+     * @param files        The files of the archive.
+     * @param outputStream The stream to write the archive to.
+     * @throws IOException if the archive could not be written.
+     */
+    public void writeArchive(final List<GHLessonFile> files, final OutputStream outputStream) throws IOException {
+        ghZipService.zipLessonFiles(files, outputStream);
+    }
+
+    private GHLessonContent loadLessonContent(final GHRepository repo,
+                                              final String pathToLessons,
+                                              final String lessonNr,
+                                              final String branchSHA1) throws IOException {
+        log.debug("Fetching files by lesson path: {}, lesson number: {}, branch SHA1: {}",
+                pathToLessons, lessonNr, branchSHA1);
+
+        final Instant deadline = ghFetchService.newDeadline();
+        final GHLessonFileSource source = ghLessonFileSourceService.open(repo, branchSHA1);
+        final var lessonPath = pathToLessons + PATH_SEPARATOR + lessonNr;
+        final var planFuture = ghFetchService.submit(
+                () -> getFileData(source, lessonPath, PLAN_FILENAME), deadline);
+        final var theoryFuture = ghFetchService.submit(
+                () -> getFileData(source, lessonPath, FILE_NAME), deadline);
+        final var homeworkFuture = ghFetchService.submit(
+                () -> getFileData(source, lessonPath, HOMEWORK_FILE), deadline);
+        final var ghLessonCode = getCode(source, lessonPath, deadline);
+        final var planData = ghFetchService.await(planFuture, deadline);
+        final var theoryData = ghFetchService.await(theoryFuture, deadline);
+        final var homeworkData = ghFetchService.await(homeworkFuture, deadline);
+
+        final List<LessonCode> lessonCode = ghLessonCode.stream()
+                .map(MyGHContent::getLessonCode)
+                .collect(Collectors.toList());
+        final List<GHLessonFile> lessonFiles = ghLessonCode.stream()
+                .map(MyGHContent::getLessonFile)
+                .collect(Collectors.toList());
+
+        log.debug("\n\tplandData found:\t{}\n theoryData found:\t{}\n homeworkData found:\t{}\n lessonCode found:\t{}",
+                planData != null, theoryData != null, homeworkData != null, lessonCode.size());
+
+        return new GHLessonContent(planData, theoryData, homeworkData, lessonCode, lessonFiles);
+    }
+
     public LessonCode deleteRepoFile(final String cohort, String filePath, User currentUser) {
         try {
             final GHRepository repo = ghBranchHandlerService.getRepo(cohort);
@@ -217,14 +313,25 @@ public class GHServiceImpl implements GHService {
         }
     }
 
-    public void addFilesToLesson(final String cohort,
-                                 final String moduleName,
-                                 final String lessonNr,
-                                 final User currentUser,
-                                 final List<GHUploadFile> files) {
-        ghValidationService.validateMaxUploadSize(files.size());
-
-        try {
+    /**
+     * Commits the homework files of a user to the homework branch of the user.
+     * The upload runs as background job, so its GitHub calls give way to the interactive requests when the rate limit
+     * runs low.
+     *
+     * @param cohort      The cohort repository.
+     * @param moduleName  The module name.
+     * @param lessonNr    The lesson number.
+     * @param currentUser The user who submitted the homework.
+     * @param files       The homework files.
+     * @throws GithubRateLimitException if the upload was shed because of the rate limit.
+     * @throws IOException              if the files could not be committed.
+     */
+    public void pushHomework(final String cohort,
+                             final String moduleName,
+                             final String lessonNr,
+                             final User currentUser,
+                             final List<GHUploadFile> files) throws IOException {
+        ghRequestScheduler.runAs(GHRequestPriority.BACKGROUND, () -> {
             final GHRepository repository = ghBranchHandlerService.getRepo(cohort);
             final String branchName = generateHwBranchName(currentUser);
             final String fileRepoPath = moduleName + PATH_SEPARATOR + lessonNr + PATH_SEPARATOR + HOMEWORK_SOLUTION_PATH;
@@ -237,10 +344,8 @@ public class GHServiceImpl implements GHService {
                     currentUser.getEmail(),
                     homeworkTree.create(),
                     currentUserBranch);
-
-        } catch (IOException e) {
-            log.error(ERROR_TEMPLATE, e.getMessage());
-        }
+            return null;
+        });
     }
 
     private GHTreeBuilder processUpload(final GHRepository repository,
@@ -255,25 +360,17 @@ public class GHServiceImpl implements GHService {
                                        final String lessonNr,
                                        final User currentUser) {
         try {
-            String userFullName = currentUser.getFirstName().trim() + " " + currentUser.getLastName().trim();
-            String currentUserEmail = currentUser.getEmail();
-            String userBranchName = (userFullName + "-" + currentUserEmail).replace(" ", "_");
-
             final GHRepository repo = ghBranchHandlerService.getRepo(cohort);
-            final GHBranch branch = ghBranchHandlerService.getBranch(repo, userBranchName);
+            final GHBranch branch = ghBranchHandlerService.getBranch(repo, getUserBranchName(currentUser));
 
             final String pathToLessons = moduleName + PATH_SEPARATOR + lessonNr;
 
-            final var ghLessonCode = getCodeFromCodeDir(repo, pathToLessons, HOMEWORK_SOLUTION_PATH, branch.getSHA1());
+            final GHLessonFileSource source = ghLessonFileSourceService.open(repo, branch.getSHA1());
+            final var ghLessonCode = getCodeFromCodeDir(source, pathToLessons, HOMEWORK_SOLUTION_PATH,
+                    ghFetchService.newDeadline());
             final List<LessonCode> lessonCode = ghLessonCode.stream()
                     .map(MyGHContent::getLessonCode)
                     .collect(Collectors.toList());
-            final List<GHContent> ghContentList = ghLessonCode.stream()
-                    .map(MyGHContent::getGhContent)
-                    .collect(Collectors.toList());
-
-            ByteArrayOutputStream baos = ghZipService.zipFilesToByteArray(ghContentList);
-            String archiveData = Base64.getEncoder().encodeToString(baos.toByteArray());
 
             return new LessonMeta(null,
                     null,
@@ -281,7 +378,7 @@ public class GHServiceImpl implements GHService {
                     lessonCode,
                     false,
                     false,
-                    archiveData,
+                    String.join(PATH_SEPARATOR, GITHUB_API_PATH, cohort, moduleName, lessonNr, HOMEWORK_PATH, ARCHIVE_PATH),
                     null);
         } catch (org.kohsuke.github.GHFileNotFoundException e) {
             log.warn(ERROR_TEMPLATE, e.getMessage());
@@ -292,38 +389,120 @@ public class GHServiceImpl implements GHService {
         }
     }
 
+    /**
+     * Retrieves the zip archive of the homework solution of the current user.
+     *
+     * @param cohort      The cohort associated with the lesson.
+     * @param moduleName  The module name associated with the lesson.
+     * @param lessonNr    The lesson number.
+     * @param currentUser The current user.
+     * @return The archive of the homework solution, which reads the files only when they are requested.
+     */
+    public GHLessonArchive getHomeWorkArchive(final String cohort,
+                                              final String moduleName,
+                                              final String lessonNr,
+                                              final User currentUser) {
+        try {
+            final GHRepository repo = ghBranchHandlerService.getRepo(cohort);
+            final GHBranch branch = ghBranchHandlerService.getBranch(repo, getUserBranchName(currentUser));
+            final String branchSHA1 = branch.getSHA1();
+            final String codePath = moduleName + PATH_SEPARATOR + lessonNr + PATH_SEPARATOR + HOMEWORK_SOLUTION_PATH;
+
+            return new GHLessonArchive(lessonNr + "_" + HOMEWORK_SOLUTION_PATH + ARCHIVE_EXTENSION,
+                    createArchiveETag(branchSHA1, codePath),
+                    () -> ghLessonFileSourceService.open(repo, branchSHA1).readFiles(codePath, ghFetchService.newDeadline()));
+        } catch (org.kohsuke.github.GHFileNotFoundException e) {
+            log.warn(ERROR_TEMPLATE, e.getMessage());
+            throw new RestException(HttpStatus.NOT_FOUND, "Homework solution not found");
+        } catch (IOException e) {
+            log.warn(ERROR_TEMPLATE, e.getMessage());
+            throw new RestException(HttpStatus.BAD_REQUEST, "Error encountered, please try again later");
+        }
+    }
+
+    /**
+     * Checks that the user is allowed to read the lessons of the cohort.
+     *
+     * @param cohort      The cohort to check the access to.
+     * @param currentUser The current user, or null for anonymous requests.
+     * @return true if the user is an admin or a teacher, false otherwise.
+     * @throws RestException with status FORBIDDEN if the user does not belong to the cohort.
+     */
+    private boolean checkCohortAccess(final Cohort cohort, final User currentUser) {
+        if (currentUser == null) {
+            return false;
+        }
+        final var loggedInUser = userService.getUserByEmailOrThrow(currentUser.getEmail());
+        final var userPrimaryCohort = loggedInUser.getPrimaryCohort();
+        final var userCohorts = loggedInUser.getCohorts();
+        final var userRole = loggedInUser.getRole();
+        final boolean allAllowed = User.Role.ADMIN.equals(userRole) || User.Role.TEACHER.equals(userRole);
+        log.debug("Access check - Email: {}, Primary Cohort: {}, Cohorts: {}, Role: {}, All allowed: {}",
+                currentUser.getEmail(), userPrimaryCohort, userCohorts, userRole, allAllowed);
+        if (!allAllowed && (!userCohorts.contains(cohort) && !cohort.equals(userPrimaryCohort))) {
+            String message = String.format("User %s denied access to cohort %s", currentUser.getEmail(), cohort);
+            log.warn(message);
+            throw new RestException(HttpStatus.FORBIDDEN, message);
+        }
+        return allAllowed;
+    }
+
+    private static String getUserBranchName(final User currentUser) {
+        final String userFullName = currentUser.getFirstName().trim() + " " + currentUser.getLastName().trim();
+        return (userFullName + "-" + currentUser.getEmail()).replace(" ", "_");
+    }
+
+    private static String getArchiveUrl(final String cohort,
+                                        final String moduleName,
+                                        final String lessonNr,
+                                        final GHLessonType ghLessonType) {
+        final String lessonUrl = String.join(PATH_SEPARATOR, GITHUB_API_PATH, cohort, moduleName, lessonNr);
+        return (LESSON.equals(ghLessonType) ? lessonUrl : lessonUrl + PATH_SEPARATOR + ghLessonType.getPath())
+                + PATH_SEPARATOR + ARCHIVE_PATH;
+    }
+
+    private static String createArchiveETag(final String commitSHA1, final String path) {
+        final String hash = DigestUtils.md5DigestAsHex((commitSHA1 + ":" + path).getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + hash + "\"";
+    }
+
     private Cohort findCohortByRepoName(final String cohort) {
         return cohortService.getCohortByRepoNameOrThrow(cohort);
     }
 
-    private List<MyGHContent> getCode(final GHRepository repository,
-                                      final String lessonModuleName,
-                                      final String lessonNr,
-                                      final String branchSHA1) {
+    private String getFileData(final GHLessonFileSource source,
+                               final String lessonPath,
+                               final String fileName) throws IOException {
+        final GHLessonFile lessonFile = source.readFile(lessonPath + PATH_SEPARATOR + fileName);
+        return ghFileEncodeService.readFileContentAsString(lessonFile, null);
+    }
+
+    private List<MyGHContent> getCode(final GHLessonFileSource source,
+                                      final String lessonPath,
+                                      final Instant deadline) throws IOException {
 
-        final var lessonPath = lessonModuleName + PATH_SEPARATOR + lessonNr;
-        final var metaJson = ghContentService.retrieveContent(repository, lessonPath + PATH_SEPARATOR + METADATA_FILE_NAME, branchSHA1);
-        if (metaJson != null && metaJson.isFile()) {
-            return getCodeFromMetaJson(repository, lessonPath, metaJson, branchSHA1);
+        final var metaJson = source.readFile(lessonPath + PATH_SEPARATOR + METADATA_FILE_NAME);
+        if (metaJson != null) {
+            return getCodeFromMetaJson(source, lessonPath, metaJson, deadline);
         } else {
-            return getCodeFromCodeDir(repository, lessonPath, CODE_DIRECTORY, branchSHA1);
+            return getCodeFromCodeDir(source, lessonPath, CODE_DIRECTORY, deadline);
         }
     }
 
-    private List<MyGHContent> getCodeFromCodeDir(final GHRepository repository,
+    private List<MyGHContent> getCodeFromCodeDir(final GHLessonFileSource source,
                                                  final String lessonPath,
                                                  final String pathToCode,
-                                                 final String branchSHA1) {
+                                                 final Instant deadline) throws IOException {
         final var codePath = lessonPath + PATH_SEPARATOR + pathToCode;
-        return ghContentService.retrieveContentRecursive(repository, codePath, new ArrayList<>(), branchSHA1)
-                .stream().map(ghContent -> new MyGHContent(ghContent, ghHelper.createLessonCode(ghContent)))
+        return source.readFiles(codePath, deadline).stream()
+                .map(lessonFile -> new MyGHContent(lessonFile, ghHelper.createLessonCode(lessonFile)))
                 .collect(Collectors.toList());
     }
 
-    private List<MyGHContent> getCodeFromMetaJson(final GHRepository repository,
+    private List<MyGHContent> getCodeFromMetaJson(final GHLessonFileSource source,
                                                   final String lessonPath,
-                                                  final GHContent metaJson,
-                                                  final String branchSHA1) {
+                                                  final GHLessonFile metaJson,
+                                                  final Instant deadline) throws IOException {
 
         final var metaFileContent = ghFileEncodeService.readFileContentAsString(metaJson, MD);
         final var objectMapper = new ObjectMapper();
@@ -335,14 +514,11 @@ public class GHServiceImpl implements GHService {
             return new ArrayList<>();
         }
 
-        final List<MyGHContent> lessonCodes = new ArrayList<>();
-        for (String codeFileName : meta.getCode()) {
+        return ghFetchService.fetchAll(meta.getCode(), codeFileName -> () -> {
             final var pathToCode = lessonPath + PATH_SEPARATOR + codeFileName;
-            final var codeContent = ghContentService.retrieveContent(repository, pathToCode, branchSHA1);
-            LessonCode lessonCode = ghHelper.createLessonCode(codeContent, pathToCode, codeFileName);
-            lessonCodes.add(new MyGHContent(codeContent, lessonCode));
-        }
-
-        return lessonCodes;
+            final var lessonFile = source.readFile(pathToCode);
+            LessonCode lessonCode = ghHelper.createLessonCode(lessonFile, pathToCode, codeFileName);
+            return new MyGHContent(lessonFile, lessonCode);
+        }, deadline);
     }
 }
@@ -0,0 +1,287 @@
+package de.aittr.lmsbe.github.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.aittr.lmsbe.exception.RestException;
+import de.aittr.lmsbe.github.dto.GHSubmissionDto;
+import de.aittr.lmsbe.github.entity.GHSubmission;
+import de.aittr.lmsbe.github.exception.GithubRateLimitException;
+import de.aittr.lmsbe.github.model.GHSubmissionStatus;
+import de.aittr.lmsbe.github.model.GHUploadFile;
+import de.aittr.lmsbe.github.repository.GHSubmissionRepository;
+import de.aittr.lmsbe.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static de.aittr.lmsbe.configuration.ExecutorConfiguration.GITHUB_WRITE_EXECUTOR;
+
+/**
+ * The GHSubmissionService class accepts homework submissions and commits them to GitHub in the background.
+ * <p>
+ * A submission is stored in the database and its files are copied to a spool directory, so the request returns
+ * immediately and the submission survives a restart. The spool directory {@code git.submission.spoolDir} has to be
+ * on persistent storage shared by the restarts of the application, it is required and checked at startup.
+ * The submissions are processed by the GitHub write executor;
+ * submissions of the same cohort repository are processed one after another, since every commit moves a branch
+ * of that repository.
+ */
+@Service
+@Slf4j
+public class GHSubmissionService {
+
+    private static final String MANIFEST_FILE_NAME = "manifest.json";
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+    private static final List<GHSubmissionStatus> PENDING_STATUSES =
+            List.of(GHSubmissionStatus.QUEUED, GHSubmissionStatus.PROCESSING);
+
+    private final GHSubmissionRepository ghSubmissionRepository;
+    private final GHServiceImpl ghService;
+    private final GhValidationService ghValidationService;
+    private final ObjectMapper objectMapper;
+    private final Path spoolDir;
+    private final ExecutorService submissionExecutor;
+
+    /**
+     * The last scheduled submission of every cohort repository. The next submission of the repository runs after it.
+     */
+    private final Map<String, CompletableFuture<Void>> repositoryQueues = new ConcurrentHashMap<>();
+
+    /**
+     * The ids of the submissions which are scheduled or running, so the retry does not schedule them twice.
+     */
+    private final Set<Long> scheduledSubmissions = ConcurrentHashMap.newKeySet();
+
+    public GHSubmissionService(GHSubmissionRepository ghSubmissionRepository,
+                               GHServiceImpl ghService,
+                               GhValidationService ghValidationService,
+                               ObjectMapper objectMapper,
+                               @Qualifier(GITHUB_WRITE_EXECUTOR) ExecutorService submissionExecutor,
+                               @Value("${git.submission.spoolDir}") String spoolDir) {
+        this.ghSubmissionRepository = ghSubmissionRepository;
+        this.ghService = ghService;
+        this.ghValidationService = ghValidationService;
+        this.objectMapper = objectMapper;
+        this.spoolDir = Paths.get(spoolDir);
+        this.submissionExecutor = submissionExecutor;
+    }
+
+    /**
+     * Creates the spool directory if needed and fails the startup if it cannot be written.
+     */
+    @PostConstruct
+    public void checkSpoolDir() throws IOException {
+        Files.createDirectories(spoolDir);
+        if (!Files.isWritable(spoolDir)) {
+            throw new IllegalStateException("The submission spool directory " + spoolDir + " is not writable");
+        }
+        log.info("Homework submissions are spooled to {}", spoolDir.toAbsolutePath());
+    }
+
+    /**
+     * Stores a homework submission and schedules it for processing.
+     *
+     * @param cohort      the cohort repository
+     * @param moduleName  the module name
+     * @param lessonNr    the lesson number
+     * @param currentUser the user who submits the homework
+     * @param files       the homework files
+     * @return the queued submission
+     */
+    public GHSubmissionDto submit(final String cohort,
+                                  final String moduleName,
+                                  final String lessonNr,
+                                  final User currentUser,
+                                  final List<GHUploadFile> files) {
+        ghValidationService.validateMaxUploadSize(files.size());
+        files.forEach(file -> ghValidationService.validateFileSize(file.getSize()));
+
+        final Path submissionDir;
+        try {
+            submissionDir = spoolFiles(files);
+        } catch (IOException e) {
+            log.error("Failed to store the homework of user {}: {}", currentUser.getEmail(), e.getMessage(), e);
+            throw new RestException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to store the homework. Please try again later.");
+        }
+
+        final GHSubmission submission = ghSubmissionRepository.save(GHSubmission.builder()
+                .cohort(cohort)
+                .moduleName(moduleName)
+                .lessonNr(lessonNr)
+                .user(currentUser)
+                .status(GHSubmissionStatus.QUEUED)
+                .spoolPath(submissionDir.toString())
+                .build());
+        log.debug("Homework submission queued: {}", submission);
+        schedule(submission);
+        return GHSubmissionDto.from(submission);
+    }
+
+    /**
+     * Returns a submission of the given user.
+     *
+     * @param submissionId the id of the submission
+     * @param currentUser  the user who submitted the homework
+     * @return the submission
+     * @throws RestException if the submission does not exist or belongs to another user
+     */
+    public GHSubmissionDto getSubmission(final Long submissionId, final User currentUser) {
+        return ghSubmissionRepository.findById(submissionId)
+                .filter(submission -> submission.getUser().getId().equals(currentUser.getId()))
+                .map(GHSubmissionDto::from)
+                .orElseThrow(() -> new RestException(HttpStatus.NOT_FOUND, "Submission " + submissionId + " not found"));
+    }
+
+    /**
+     * Schedules the pending submissions which are not scheduled yet: submissions left over from a restart
+     * and submissions which were postponed because of the GitHub rate limit.
+     */
+    @Scheduled(fixedDelayString = "${git.submission.retryMillis:60000}",
+            initialDelayString = "${git.submission.initialDelayMillis:10000}")
+    public void schedulePending() {
+        for (GHSubmission submission : ghSubmissionRepository.findAllByStatusInOrderByIdAsc(PENDING_STATUSES)) {
+            schedule(submission);
+        }
+    }
+
+    private void schedule(final GHSubmission submission) {
+        final Long submissionId = submission.getId();
+        if (!scheduledSubmissions.add(submissionId)) {
+            return;
+        }
+        final String cohort = submission.getCohort();
+        final CompletableFuture<Void> next = repositoryQueues.compute(cohort, (key, last) ->
+                (last == null ? CompletableFuture.<Void>completedFuture(null) : last)
+                        .handle((result, error) -> null)
+                        .thenCompose(ignored -> processAsync(submissionId)));
+        next.whenComplete((result, error) -> repositoryQueues.remove(cohort, next));
+    }
+
+    /**
+     * Runs a submission on the GitHub write executor. A submission rejected because the queue is full
+     * stays queued and is scheduled again by the retry.
+     */
+    private CompletableFuture<Void> processAsync(final Long submissionId) {
+        try {
+            return CompletableFuture.runAsync(() -> process(submissionId), submissionExecutor);
+        } catch (RejectedExecutionException e) {
+            scheduledSubmissions.remove(submissionId);
+            log.warn("Homework submission {} postponed, the submission queue is full", submissionId);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    void process(final Long submissionId) {
+        try {
+            final GHSubmission submission = ghSubmissionRepository.findById(submissionId).orElse(null);
+            if (submission == null || !PENDING_STATUSES.contains(submission.getStatus())) {
+                return;
+            }
+            submission.setStatus(GHSubmissionStatus.PROCESSING);
+            ghSubmissionRepository.save(submission);
+
+            final Path submissionDir = Paths.get(submission.getSpoolPath());
+            try {
+                ghService.pushHomework(submission.getCohort(),
+                        submission.getModuleName(),
+                        submission.getLessonNr(),
+                        submission.getUser(),
+                        readSpooledFiles(submissionDir));
+                submission.setStatus(GHSubmissionStatus.COMPLETED);
+                submission.setErrorMessage(null);
+                log.debug("Homework submission completed: {}", submission);
+            } catch (GithubRateLimitException e) {
+                submission.setStatus(GHSubmissionStatus.QUEUED);
+                submission.setErrorMessage(StringUtils.abbreviate(e.getMessage(), MAX_ERROR_MESSAGE_LENGTH));
+                log.warn("Homework submission {} postponed: {}", submissionId, e.getMessage());
+            } catch (IOException | RuntimeException e) {
+                submission.setStatus(GHSubmissionStatus.FAILED);
+                submission.setErrorMessage(StringUtils.abbreviate(e.getMessage(), MAX_ERROR_MESSAGE_LENGTH));
+                log.error("Homework submission {} failed: {}", submissionId, e.getMessage(), e);
+            }
+            ghSubmissionRepository.save(submission);
+            if (!PENDING_STATUSES.contains(submission.getStatus())) {
+                deleteSpool(submissionDir);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to process homework submission {}: {}", submissionId, e.getMessage(), e);
+        } finally {
+            scheduledSubmissions.remove(submissionId);
+        }
+    }
+
+    private Path spoolFiles(final List<GHUploadFile> files) throws IOException {
+        final Path submissionDir = Files.createDirectories(spoolDir.resolve(UUID.randomUUID().toString()));
+        final List<SpooledFile> manifest = new ArrayList<>(files.size());
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                final GHUploadFile file = files.get(i);
+                try (InputStream content = file.getFile().getInputStream()) {
+                    Files.copy(content, submissionDir.resolve(String.valueOf(i)));
+                }
+                manifest.add(new SpooledFile(file.getFileName(), file.getFileDestination()));
+            }
+            objectMapper.writeValue(submissionDir.resolve(MANIFEST_FILE_NAME).toFile(), manifest);
+        } catch (IOException e) {
+            deleteSpool(submissionDir);
+            throw e;
+        }
+        return submissionDir;
+    }
+
+    private List<GHUploadFile> readSpooledFiles(final Path submissionDir) throws IOException {
+        final Path manifestFile = submissionDir.resolve(MANIFEST_FILE_NAME);
+        if (!Files.isRegularFile(manifestFile)) {
+            throw new IOException("The spooled files of the submission are missing in " + submissionDir);
+        }
+        final List<SpooledFile> manifest = objectMapper.readValue(manifestFile.toFile(),
+                new TypeReference<>() {
+                });
+        final List<GHUploadFile> files = new ArrayList<>(manifest.size());
+        for (int i = 0; i < manifest.size(); i++) {
+            final Path file = submissionDir.resolve(String.valueOf(i));
+            files.add(new GHUploadFile(new FileSystemResource(file),
+                    manifest.get(i).getFileName(),
+                    Files.size(file),
+                    manifest.get(i).getFileDestination()));
+        }
+        return files;
+    }
+
+    private static void deleteSpool(final Path submissionDir) {
+        try {
+            FileUtils.deleteDirectory(submissionDir.toFile());
+        } catch (IOException e) {
+            log.warn("Failed to delete the spooled files {}: {}", submissionDir, e.getMessage());
+        }
+    }
+
+    /**
+     * An entry of the manifest of the spooled files, stored in the order of the files.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class SpooledFile {
+        private String fileName;
+        private String fileDestination;
+    }
+}
@@ -0,0 +1,143 @@
+package de.aittr.lmsbe.github.service;
+
+import de.aittr.lmsbe.github.model.GHLessonType;
+import de.aittr.lmsbe.github.model.GHRequestPriority;
+import de.aittr.lmsbe.model.Lesson;
+import de.aittr.lmsbe.model.LessonModul;
+import de.aittr.lmsbe.model.LessonType;
+import de.aittr.lmsbe.service.interfaces.ILessonService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static de.aittr.lmsbe.github.model.GHLessonType.CONSULTATION;
+import static de.aittr.lmsbe.github.model.GHLessonType.LESSON;
+import static de.aittr.lmsbe.github.uttils.GHHelper.PATH_SEPARATOR;
+
+/**
+ * The GHWarmUpService class loads lessons into the lesson cache before the users request them.
+ * <p>
+ * Besides the lessons changed by a push, the lessons scheduled to start within the next hours are loaded
+ * periodically, so the requests at the start of a lesson are served from memory.
+ */
+@Service
+@Slf4j
+public class GHWarmUpService {
+
+    private final GHServiceImpl ghService;
+    private final GHNavigationIndexService ghNavigationIndexService;
+    private final GHRequestScheduler ghRequestScheduler;
+    private final ILessonService lessonService;
+    private final long hoursAhead;
+
+    public GHWarmUpService(GHServiceImpl ghService,
+                           GHNavigationIndexService ghNavigationIndexService,
+                           GHRequestScheduler ghRequestScheduler,
+                           ILessonService lessonService,
+                           @Value("${git.prewarm.hoursAhead:3}") long hoursAhead) {
+        this.ghService = ghService;
+        this.ghNavigationIndexService = ghNavigationIndexService;
+        this.ghRequestScheduler = ghRequestScheduler;
+        this.lessonService = lessonService;
+        this.hoursAhead = hoursAhead;
+    }
+
+    /**
+     * Loads the GitHub material of all lessons starting within the configured number of hours.
+     * Lessons which are cached for the current commit already are not requested from GitHub again.
+     */
+    @Scheduled(fixedDelayString = "${git.prewarm.refreshMillis:900000}",
+            initialDelayString = "${git.prewarm.refreshMillis:900000}")
+    public void warmUpUpcomingLessons() {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Lesson> lessons = lessonService.getLessonsStartingBetween(now, now.plusHours(hoursAhead));
+        final Map<String, Set<String>> lessonPathsByCohort = new LinkedHashMap<>();
+        for (Lesson lesson : lessons) {
+            final String lessonPath = getLessonPath(lesson);
+            if (lessonPath != null && lesson.getCohort().getGithubRepository() != null) {
+                lessonPathsByCohort.computeIfAbsent(lesson.getCohort().getGithubRepository(), cohort -> new LinkedHashSet<>())
+                        .add(lessonPath);
+            }
+        }
+        log.debug("Warming up {} upcoming lessons of {} cohorts", lessons.size(), lessonPathsByCohort.size());
+        lessonPathsByCohort.forEach(this::loadLessons);
+    }
+
+    /**
+     * Rebuilds the navigation index of a cohort repository asynchronously, if the index is in use.
+     *
+     * @param cohort the cohort repository
+     */
+    @Async
+    public void refreshNavigationIndex(String cohort) {
+        try {
+            ghRequestScheduler.runAs(GHRequestPriority.BACKGROUND, () -> {
+                ghNavigationIndexService.refreshIfPresent(cohort);
+                return null;
+            });
+        } catch (IOException e) {
+            log.warn("Failed to refresh the navigation index of {}: {}", cohort, e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the given lessons of a cohort repository asynchronously, as background requests.
+     *
+     * @param cohort      the cohort repository
+     * @param lessonPaths the paths to the lesson directories
+     */
+    @Async
+    public void warmUpLessons(String cohort, Collection<String> lessonPaths) {
+        loadLessons(cohort, lessonPaths);
+    }
+
+    /**
+     * Returns the path to the lesson directory in the cohort repository,
+     * e.g. {@code basic_programming/lesson_01} or {@code basic_programming/consultation/consultation_01}.
+     *
+     * @param lesson the lesson
+     * @return the path to the lesson directory or null if the lesson has no material in GitHub
+     */
+    static String getLessonPath(Lesson lesson) {
+        final GHLessonType ghLessonType = getGHLessonType(lesson.getLessonType());
+        if (ghLessonType == null || lesson.getLessonNr() == null
+                || lesson.getLessonModul() == null || lesson.getLessonModul() == LessonModul.UNDEFINED) {
+            return null;
+        }
+        final String lessonNr = String.format("%s%02d", ghLessonType.getPathsSuffix(), lesson.getLessonNr());
+        final String moduleName = lesson.getLessonModul().getLessonModulName();
+        return LESSON.equals(ghLessonType)
+                ? String.join(PATH_SEPARATOR, moduleName, lessonNr)
+                : String.join(PATH_SEPARATOR, moduleName, ghLessonType.getPath(), lessonNr);
+    }
+
+    private static GHLessonType getGHLessonType(LessonType lessonType) {
+        if (LESSON.getLessonType() == lessonType) {
+            return LESSON;
+        }
+        if (CONSULTATION.getLessonType() == lessonType) {
+            return CONSULTATION;
+        }
+        return null;
+    }
+
+    private void loadLessons(String cohort, Collection<String> lessonPaths) {
+        for (String lessonPath : lessonPaths) {
+            try {
+                ghRequestScheduler.runAs(GHRequestPriority.BACKGROUND, () -> {
+                    ghService.warmUpLesson(cohort, lessonPath);
+                    return null;
+                });
+                log.debug("Warmed up lesson {} of {}", lessonPath, cohort);
+            } catch (IOException e) {
+                log.warn("Failed to warm up lesson {} of {}: {}", lessonPath, cohort, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package de.aittr.lmsbe.github.service;
+
+import de.aittr.lmsbe.github.dto.GHPushEventDto;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static de.aittr.lmsbe.github.model.GHLessonType.CONSULTATION;
+import static de.aittr.lmsbe.github.model.GHLessonType.LESSON;
+import static de.aittr.lmsbe.github.uttils.GHHelper.PATH_SEPARATOR;
+
+/**
+ * The GHWebhookService class processes the push webhooks of the cohort repositories.
+ * <p>
+ * A push to the default branch updates the cached branch head, removes the lessons of the previous commits
+ * from the lesson cache and loads the changed lessons which were in use again in the background.
+ */
+@Service
+@Slf4j
+public class GHWebhookService {
+
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    private static final String BRANCH_REF_PREFIX = "refs/heads/";
+
+    private final GHHandleRegistry ghHandleRegistry;
+    private final GHLessonCacheService ghLessonCacheService;
+    private final GHWarmUpService ghWarmUpService;
+    private final String webhookSecret;
+
+    public GHWebhookService(GHHandleRegistry ghHandleRegistry,
+                            GHLessonCacheService ghLessonCacheService,
+                            GHWarmUpService ghWarmUpService,
+                            @Value("${github.webhookSecret:}") String webhookSecret) {
+        this.ghHandleRegistry = ghHandleRegistry;
+        this.ghLessonCacheService = ghLessonCacheService;
+        this.ghWarmUpService = ghWarmUpService;
+        this.webhookSecret = webhookSecret;
+    }
+
+    /**
+     * Checks the {@code X-Hub-Signature-256} header of a webhook request.
+     *
+     * @param body             the raw request body
+     * @param requestSignature the value of the signature header
+     * @return true if the body was signed with the configured webhook secret
+     */
+    public boolean isValidRequestSignature(String body, String requestSignature) {
+        if (StringUtils.isBlank(webhookSecret)) {
+            log.warn("GitHub webhook secret is not configured, the webhook request is rejected");
+            return false;
+        }
+        if (body == null || requestSignature == null) {
+            return false;
+        }
+        final String signature = SIGNATURE_PREFIX + new HmacUtils(HmacAlgorithms.HMAC_SHA_256, webhookSecret).hmacHex(body);
+        return MessageDigest.isEqual(signature.getBytes(StandardCharsets.UTF_8),
+                requestSignature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Refreshes the cached content of the pushed repository.
+     *
+     * @param pushEvent the push event
+     */
+    public void processPushEvent(GHPushEventDto pushEvent) {
+        final GHPushEventDto.Repository repository = pushEvent.getRepository();
+        if (repository == null || pushEvent.getAfter() == null
+                || !(BRANCH_REF_PREFIX + repository.getDefaultBranch()).equals(pushEvent.getRef())) {
+            log.debug("Ignoring push to {}", pushEvent.getRef());
+            return;
+        }
+        final String cohort = repository.getName();
+        final String headSHA1 = pushEvent.getAfter();
+        log.info("Push to the default branch of {}, new head: {}", repository.getFullName(), headSHA1);
+
+        ghHandleRegistry.updateHeadSHA1(repository.getFullName(), headSHA1);
+
+        final Set<String> cachedLessons = ghLessonCacheService.getCachedPaths(cohort);
+        ghLessonCacheService.invalidateOutdated(cohort, headSHA1);
+        ghWarmUpService.refreshNavigationIndex(cohort);
+
+        final Set<String> changedLessons = getChangedLessonPaths(pushEvent.getCommits());
+        changedLessons.retainAll(cachedLessons);
+        if (!changedLessons.isEmpty()) {
+            ghWarmUpService.warmUpLessons(cohort, changedLessons);
+        }
+    }
+
+    /**
+     * Maps the changed files of the commits to their lesson directories,
+     * e.g. {@code basic_programming/lesson_01} or {@code basic_programming/consultation/consultation_01}.
+     */
+    static Set<String> getChangedLessonPaths(List<GHPushEventDto.Commit> commits) {
+        return commits.stream()
+                .flatMap(commit -> Stream.of(commit.getAdded(), commit.getRemoved(), commit.getModified()))
+                .flatMap(List::stream)
+                .map(GHWebhookService::toLessonPath)
+                .filter(StringUtils::isNotEmpty)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static String toLessonPath(String filePath) {
+        final String[] parts = filePath.split(PATH_SEPARATOR);
+        if (parts.length > 2 && parts[1].startsWith(LESSON.getPathsSuffix())) {
+            return String.join(PATH_SEPARATOR, Arrays.copyOfRange(parts, 0, 2));
+        }
+        if (parts.length > 3 && CONSULTATION.getPath().equals(parts[1]) && parts[2].startsWith(CONSULTATION.getPathsSuffix())) {
+            return String.join(PATH_SEPARATOR, Arrays.copyOfRange(parts, 0, 3));
+        }
+        return null;
+    }
+}
@@ -1,24 +1,26 @@
 package de.aittr.lmsbe.github.service;
 
-import lombok.RequiredArgsConstructor;
-import org.kohsuke.github.GHContent;
+import de.aittr.lmsbe.github.model.GHLessonFile;
+import org.apache.commons.io.FilenameUtils;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import static de.aittr.lmsbe.github.uttils.GHHelper.PATH_SEPARATOR;
 
 /**
- * This class represents a service for zipping GHContent objects into a byte array.
+ * This class represents a service for zipping lesson files into an archive.
  */
 @Service
-@RequiredArgsConstructor
 public class GHZipService {
 
     /**
@@ -26,65 +28,66 @@ public class GHZipService {
      */
     public static final String BASE64_ENCODING = "base64";
 
-    private final GhDownloadService ghDownloadService;
+    private static final int STREAM_BUFFER_SIZE = 8192;
 
+    /**
+     * The extensions of the file formats which are compressed already. Deflating them again costs CPU time
+     * without making the archive smaller, so they are stored as they are.
+     */
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "png", "jpg", "jpeg", "gif", "webp", "ico",
+            "pdf", "docx", "xlsx", "pptx",
+            "zip", "jar", "war", "gz", "tgz", "7z", "rar",
+            "mp3", "mp4", "mov", "webm",
+            "woff", "woff2");
 
     /**
-     * Zips a list of GHContent objects into a byte array.
+     * Writes a list of already downloaded lesson files as zip archive to the given stream.
+     * <p>
+     * The archive is written entry by entry, so it is never held in memory as a whole.
+     * Files in a compressed format, like images and PDFs, are stored without compression.
+     * The given stream is closed afterwards.
      *
-     * @param fileList the list of GHContent objects to be zipped
-     * @return a ByteArrayOutputStream containing the zipped file
+     * @param fileList     the list of lesson files to be zipped
+     * @param outputStream the stream to write the archive to
      * @throws IOException if an I/O error occurs during the zip operation
      */
-    public ByteArrayOutputStream zipFilesToByteArray(List<GHContent> fileList) throws IOException {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             ZipOutputStream zipOut = new ZipOutputStream(baos)) {
-            for (GHContent fileContent : fileList) {
-                if (fileContent == null || fileContent.getPath() == null) {
+    public void zipLessonFiles(List<GHLessonFile> fileList, OutputStream outputStream) throws IOException {
+        try (ZipOutputStream zipOut = new ZipOutputStream(new BufferedOutputStream(outputStream, STREAM_BUFFER_SIZE))) {
+            for (GHLessonFile lessonFile : fileList) {
+                if (lessonFile == null || lessonFile.getPath() == null) {
                     continue;
                 }
-                createZipEntry(zipOut, fileContent);
+                zipOut.putNextEntry(createZipEntry(lessonFile));
+                zipOut.write(lessonFile.getContent());
+                zipOut.closeEntry();
             }
-            return baos;
         }
     }
 
     /**
-     * Creates a new entry in the ZipOutputStream for the given GHContent file.
+     * Creates the zip entry of a lesson file. Files in a compressed format get a STORED entry,
+     * which needs the size and the CRC of the content before the content is written.
      *
-     * @param zipOut      the ZipOutputStream to add the entry to
-     * @param fileContent the GHContent object representing the file to be added
-     * @throws IOException if an I/O error occurs while adding the entry to the ZipOutputStream
+     * @param lessonFile the lesson file
+     * @return the zip entry of the file
      */
-    private void createZipEntry(ZipOutputStream zipOut, GHContent fileContent) throws IOException {
-        String path = fileContent.getPath();
-        String modifiedPath = modifyZipDirPath(path);
-        zipOut.putNextEntry(new ZipEntry(modifiedPath));
-
-        processFileContent(zipOut, fileContent);
-        zipOut.closeEntry();
+    private ZipEntry createZipEntry(GHLessonFile lessonFile) {
+        final ZipEntry entry = new ZipEntry(modifyZipDirPath(lessonFile.getPath()));
+        if (isCompressed(lessonFile.getPath())) {
+            final byte[] content = lessonFile.getContent();
+            final CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCompressedSize(content.length);
+            entry.setCrc(crc.getValue());
+        }
+        return entry;
     }
 
-    /**
-     * Processes the content of a file and writes it to a ZipOutputStream.
-     *
-     * @param zipOut      the ZipOutputStream to write the file content to
-     * @param fileContent the GHContent object representing the file
-     * @throws IOException if an I/O error occurs during the file processing
-     */
-    private void processFileContent(ZipOutputStream zipOut, GHContent fileContent) throws IOException {
-        if (BASE64_ENCODING.equals(fileContent.getEncoding())) {
-            try (InputStream inputStream = fileContent.read()) {
-                byte[] bytes = new byte[512];
-                int length;
-                while ((length = inputStream.read(bytes)) >= 0) {
-                    zipOut.write(bytes, 0, length);
-                }
-            }
-        } else {
-            byte[] fileBytes = ghDownloadService.downloadFile(fileContent.getDownloadUrl());
-            zipOut.write(fileBytes);
-        }
+    static boolean isCompressed(String path) {
+        return COMPRESSED_EXTENSIONS.contains(FilenameUtils.getExtension(path).toLowerCase(Locale.ROOT));
     }
 
     /**
@@ -0,0 +1,67 @@
+package de.aittr.lmsbe.github.service.source;
+
+import de.aittr.lmsbe.github.model.GHLessonFile;
+import de.aittr.lmsbe.github.service.GHBlobService;
+import de.aittr.lmsbe.github.service.GHContentService;
+import de.aittr.lmsbe.github.service.GHFetchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.kohsuke.github.GHContent;
+import org.kohsuke.github.GHRepository;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static de.aittr.lmsbe.github.service.GHZipService.BASE64_ENCODING;
+
+/**
+ * Reads the files of a commit through the contents API.
+ * <p>
+ * Used when the recursive git tree of the commit is too large to be returned by GitHub in one response.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class GHContentFileSource implements GHLessonFileSource {
+
+    private final GHRepository repository;
+    private final String commitSHA1;
+    private final GHContentService ghContentService;
+    private final GHBlobService ghBlobService;
+    private final GHFetchService ghFetchService;
+
+    @Override
+    public GHLessonFile readFile(String path) throws IOException {
+        final GHContent ghContent = ghContentService.retrieveContent(repository, path, commitSHA1);
+        if (ghContent == null || !ghContent.isFile()) {
+            return null;
+        }
+        return readContent(ghContent);
+    }
+
+    @Override
+    public List<GHLessonFile> readFiles(String path, Instant deadline) throws IOException {
+        final List<GHContent> files = ghContentService.retrieveContentRecursive(repository, path, commitSHA1, deadline);
+        return ghFetchService.fetchAll(files, ghContent -> () -> readContent(ghContent), deadline);
+    }
+
+    private GHLessonFile readContent(GHContent ghContent) throws IOException {
+        final byte[] content = BASE64_ENCODING.equals(ghContent.getEncoding())
+                ? ghBlobService.getOrLoad(ghContent.getSha(), ghContent::read)
+                : ghBlobService.readBlob(repository, ghContent.getSha());
+        return new GHLessonFile(ghContent.getPath(),
+                ghContent.getName(),
+                ghContent.getSha(),
+                content,
+                getDownloadUrlSafely(ghContent));
+    }
+
+    private String getDownloadUrlSafely(GHContent ghContent) {
+        try {
+            return ghContent.getDownloadUrl();
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            return "";
+        }
+    }
+}
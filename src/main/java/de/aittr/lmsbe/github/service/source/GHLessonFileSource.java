@@ -0,0 +1,32 @@
+package de.aittr.lmsbe.github.service.source;
+
+import de.aittr.lmsbe.github.model.GHLessonFile;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reads the files of a single commit of a GitHub repository.
+ */
+public interface GHLessonFileSource {
+
+    /**
+     * Reads a single file.
+     *
+     * @param path the path to the file inside the repository
+     * @return the file, or null if the file does not exist
+     * @throws IOException if the file could not be read
+     */
+    GHLessonFile readFile(String path) throws IOException;
+
+    /**
+     * Reads all files below the given directory, in depth-first order.
+     *
+     * @param path     the path to the directory inside the repository
+     * @param deadline the deadline of the request
+     * @return the files below the directory, or an empty list if the directory does not exist
+     * @throws IOException if one of the files could not be read
+     */
+    List<GHLessonFile> readFiles(String path, Instant deadline) throws IOException;
+}
@@ -0,0 +1,72 @@
+package de.aittr.lmsbe.github.service.source;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.aittr.lmsbe.github.service.GHBlobService;
+import de.aittr.lmsbe.github.service.GHContentService;
+import de.aittr.lmsbe.github.service.GHFetchService;
+import de.aittr.lmsbe.github.uttils.GHCacheUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GHTree;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * The GHLessonFileSourceService class opens file sources for commits of the cohort repositories.
+ * <p>
+ * The recursive git tree of a commit never changes, so the sources are kept in memory by repository and commit SHA1.
+ */
+@Service
+@Slf4j
+public class GHLessonFileSourceService {
+
+    private final GHContentService ghContentService;
+    private final GHBlobService ghBlobService;
+    private final GHFetchService ghFetchService;
+
+    private final AsyncCache<String, GHLessonFileSource> sourceCache;
+
+    public GHLessonFileSourceService(GHContentService ghContentService,
+                                     GHBlobService ghBlobService,
+                                     GHFetchService ghFetchService,
+                                     @Value("${git.cache.tree.maxSize:200}") long maxSize,
+                                     @Value("${git.cache.tree.ttlMinutes:60}") long ttlMinutes) {
+        this.ghContentService = ghContentService;
+        this.ghBlobService = ghBlobService;
+        this.ghFetchService = ghFetchService;
+        this.sourceCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .buildAsync();
+    }
+
+    /**
+     * Opens the file source for the given commit.
+     * <p>
+     * The recursive git tree of the commit is used when GitHub returns it completely,
+     * otherwise the files are read through the contents API.
+     *
+     * @param repository the repository to read from
+     * @param commitSHA1 the SHA1 of the commit to read from
+     * @return the file source of the commit
+     * @throws IOException if the git tree of the commit could not be read
+     */
+    public GHLessonFileSource open(GHRepository repository, String commitSHA1) throws IOException {
+        return GHCacheUtils.getOrLoad(sourceCache, repository.getFullName() + "@" + commitSHA1,
+                () -> createSource(repository, commitSHA1));
+    }
+
+    private GHLessonFileSource createSource(GHRepository repository, String commitSHA1) throws IOException {
+        final GHTree tree = repository.getTreeRecursive(commitSHA1, 1);
+        if (tree.isTruncated()) {
+            log.warn("Git tree of {} at {} is truncated, falling back to the contents API",
+                    repository.getFullName(), commitSHA1);
+            return new GHContentFileSource(repository, commitSHA1, ghContentService, ghBlobService, ghFetchService);
+        }
+        return new GHTreeFileSource(repository, commitSHA1, tree, ghBlobService, ghFetchService);
+    }
+}
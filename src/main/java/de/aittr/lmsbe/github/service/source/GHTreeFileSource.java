@@ -0,0 +1,79 @@
+package de.aittr.lmsbe.github.service.source;
+
+import de.aittr.lmsbe.github.model.GHLessonFile;
+import de.aittr.lmsbe.github.service.GHBlobService;
+import de.aittr.lmsbe.github.service.GHFetchService;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GHTree;
+import org.kohsuke.github.GHTreeEntry;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static de.aittr.lmsbe.github.uttils.GHHelper.PATH_SEPARATOR;
+
+/**
+ * Reads the files of a commit from its recursive git tree.
+ * <p>
+ * The whole tree is listed with a single request, so only the blobs of the requested files are downloaded.
+ */
+public class GHTreeFileSource implements GHLessonFileSource {
+
+    private static final String BLOB_TYPE = "blob";
+    private static final String RAW_CONTENT_URL = "https://raw.githubusercontent.com/";
+
+    private final GHRepository repository;
+    private final String commitSHA1;
+    private final GHBlobService ghBlobService;
+    private final GHFetchService ghFetchService;
+
+    /**
+     * The blobs of the tree by their path, in the order of the tree.
+     */
+    private final Map<String, GHTreeEntry> blobs = new LinkedHashMap<>();
+
+    public GHTreeFileSource(GHRepository repository,
+                            String commitSHA1,
+                            GHTree tree,
+                            GHBlobService ghBlobService,
+                            GHFetchService ghFetchService) {
+        this.repository = repository;
+        this.commitSHA1 = commitSHA1;
+        this.ghBlobService = ghBlobService;
+        this.ghFetchService = ghFetchService;
+        for (GHTreeEntry entry : tree.getTree()) {
+            if (BLOB_TYPE.equals(entry.getType())) {
+                blobs.put(entry.getPath(), entry);
+            }
+        }
+    }
+
+    @Override
+    public GHLessonFile readFile(String path) throws IOException {
+        final GHTreeEntry entry = blobs.get(path);
+        return entry == null ? null : readEntry(entry);
+    }
+
+    @Override
+    public List<GHLessonFile> readFiles(String path, Instant deadline) throws IOException {
+        final String prefix = path + PATH_SEPARATOR;
+        final List<GHTreeEntry> entries = blobs.values().stream()
+                .filter(entry -> entry.getPath().startsWith(prefix))
+                .collect(Collectors.toList());
+        return ghFetchService.fetchAll(entries, entry -> () -> readEntry(entry), deadline);
+    }
+
+    private GHLessonFile readEntry(GHTreeEntry entry) throws IOException {
+        final String path = entry.getPath();
+        final byte[] content = ghBlobService.readBlob(repository, entry.getSha());
+        return new GHLessonFile(path,
+                path.substring(path.lastIndexOf(PATH_SEPARATOR) + 1),
+                entry.getSha(),
+                content,
+                RAW_CONTENT_URL + repository.getFullName() + PATH_SEPARATOR + commitSHA1 + PATH_SEPARATOR + path);
+    }
+}
@@ -32,6 +32,15 @@ public interface GHBranchHandlerService {
      */
     GHBranch getDefaultBranch(GHRepository repo) throws IOException;
 
+    /**
+     * Retrieves the SHA1 of the default branch head of a given repository.
+     *
+     * @param repo the GitHub repository to get the default branch head from
+     * @return the SHA1 of the default branch head, which may be cached for a short time
+     * @throws IOException if an I/O error occurs while retrieving the default branch
+     */
+    String getDefaultBranchSHA1(GHRepository repo) throws IOException;
+
     /**
      * Retrieves the specified branch from the given repository.
      *
@@ -46,6 +55,7 @@ public interface GHBranchHandlerService {
     /**
      * Adds the given list of files to a tree in the specified repository and branch.
      * The files are added to the specified path within the tree.
+     * The blobs of the files are created first, streaming every file from its upload.
      *
      * @param repo              The GHRepository object representing the repository.
      * @param currentUserBranch The GHBranch object representing the current branch.
@@ -62,12 +72,14 @@ public interface GHBranchHandlerService {
     /**
      * Adds a single file to a tree in the specified repository.
      *
+     * @param repo        The GHRepository object representing the repository.
      * @param treeBuilder The GHTreeBuilder object representing the tree to add the file to.
      * @param path        The path within the tree to add the file to.
      * @param ghFile      The GhUploadFile object representing the file to be added.
      * @throws IOException If an I/O error occurs while adding the file to the tree.
      */
-    void addSingleFileToTree(GHTreeBuilder treeBuilder,
+    void addSingleFileToTree(GHRepository repo,
+                             GHTreeBuilder treeBuilder,
                              String path,
                              GHUploadFile ghFile) throws IOException;
 
@@ -0,0 +1,65 @@
+package de.aittr.lmsbe.github.uttils;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Utility methods for the caches of GitHub content.
+ */
+public class GHCacheUtils {
+
+    private GHCacheUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Returns the cached value or loads it with the given loader.
+     * <p>
+     * Concurrent callers of the same key wait for a single load. The load runs in the calling thread,
+     * outside the cache lock. A failed load, including an error, is removed from the cache and fails
+     * the waiting callers as well as the loading one.
+     *
+     * @param cache  the cache to read from
+     * @param key    the key of the value
+     * @param loader the loader used when the value is not cached yet
+     * @param <K>    the type of the key
+     * @param <V>    the type of the value
+     * @return the cached or loaded value
+     * @throws IOException if the loader fails to read the value from GitHub
+     */
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, GHCall<V> loader) throws IOException {
+        final CompletableFuture<V> created = new CompletableFuture<>();
+        final CompletableFuture<V> cached = cache.get(key, (k, executor) -> created);
+        if (cached != created) {
+            return join(cached);
+        }
+        final V value;
+        try {
+            value = loader.call();
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+            cache.asMap().remove(key, created);
+            throw e;
+        }
+        created.complete(value);
+        return value;
+    }
+
+    private static <V> V join(CompletableFuture<V> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package de.aittr.lmsbe.github.uttils;
+
+import java.io.IOException;
+
+/**
+ * Represents a single call to the GitHub API which may fail with an {@link IOException}.
+ *
+ * @param <T> the type of the call result
+ */
+@FunctionalInterface
+public interface GHCall<T> {
+
+    /**
+     * Executes the call.
+     *
+     * @return the result of the call
+     * @throws IOException if an I/O error occurs while communicating with GitHub
+     */
+    T call() throws IOException;
+}
@@ -2,14 +2,13 @@ package de.aittr.lmsbe.github.uttils;
 
 import de.aittr.lmsbe.github.dto.LessonCode;
 import de.aittr.lmsbe.github.model.GHFileExtension;
+import de.aittr.lmsbe.github.model.GHLessonFile;
 import de.aittr.lmsbe.github.service.GHFileEncodeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.kohsuke.github.GHContent;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
 import java.util.Arrays;
 
 import static de.aittr.lmsbe.github.model.GHFileExtension.languageByExtension;
@@ -46,29 +45,27 @@ public class GHHelper {
     public static final String PATH_SEPARATOR = "/";
 
     /**
-     * Creates a LessonCode object based on the provided GHContent.
+     * Creates a LessonCode object based on the provided lesson file.
      *
-     * @param ghContent the GHContent object representing the lesson code
-     * @return a LessonCode object created from the provided GHContent
+     * @param lessonFile the file read from GitHub representing the lesson code
+     * @return a LessonCode object created from the provided file
      */
-    public LessonCode createLessonCode(GHContent ghContent) {
-        final String fileName = ghContent.getName();
-        final String repositoryUrl = ghContent.getPath();
+    public LessonCode createLessonCode(GHLessonFile lessonFile) {
+        final String fileName = lessonFile.getName();
         final GHFileExtension language = languageByExtension(fileName);
-        final String codeContent = ghFileEncodeService.readFileContentAsString(ghContent, language);
-        final String downloadUrl = getDownloadUrlSafely(ghContent);
+        final String codeContent = ghFileEncodeService.readFileContentAsString(lessonFile, language);
 
-        return new LessonCode(repositoryUrl,
+        return new LessonCode(lessonFile.getPath(),
                 fileName,
                 codeContent,
                 language.getLanguage(),
                 language.isReadable(),
-                downloadUrl);
+                lessonFile.getDownloadUrl());
     }
 
 
-    public LessonCode createLessonCode(GHContent ghContent, String pathToCode, String fileName) {
-        if (ghContent == null) {
+    public LessonCode createLessonCode(GHLessonFile lessonFile, String pathToCode, String fileName) {
+        if (lessonFile == null) {
             final GHFileExtension language = languageByExtension(fileName);
             return new LessonCode(
                     pathToCode,
@@ -78,23 +75,7 @@ public class GHHelper {
                     language.isReadable(),
                     "");
         } else {
-            return createLessonCode(ghContent);
-        }
-    }
-
-    /**
-     * Safely retrieves the download URL of a GHContent object.
-     * If an IOException occurs while getting the download URL, an empty string will be returned.
-     *
-     * @param ghContent the GHContent object from which to retrieve the download URL
-     * @return the download URL as a string, or an empty string if an IOException occurs
-     */
-    private String getDownloadUrlSafely(GHContent ghContent) {
-        try {
-            return ghContent.getDownloadUrl();
-        } catch (IOException e) {
-            log.error(e.getMessage(), e);
-            return "";
+            return createLessonCode(lessonFile);
         }
     }
 
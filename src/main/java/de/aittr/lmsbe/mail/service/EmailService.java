@@ -15,6 +15,8 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
+import static de.aittr.lmsbe.configuration.ExecutorConfiguration.MAIL_EXECUTOR;
+
 /**
  * 10/9/2023
  * lms-be
@@ -33,7 +35,7 @@ public class EmailService {
     int confirmLinkExpiredDays;
 
 
-    @Async
+    @Async(MAIL_EXECUTOR)
     public void sendRegistrationEmail(UserConfirmationCode userConfirmationCode) throws EmailSendingException {
         try {
             ZonedDateTime expiryDate = calculateExpiryDate(confirmLinkExpiredDays);
@@ -58,7 +60,7 @@ public class EmailService {
         return expiryDate.atZone(ZoneId.systemDefault());
     }
 
-    @Async
+    @Async(MAIL_EXECUTOR)
     public void sendPasswordResetEmail(UserConfirmationCode userConfirmationCode) throws EmailSendingException {
         UserData dataForPasswordReset = UserData.builder()
                 .email(userConfirmationCode.getUser().getEmail())
@@ -68,7 +70,7 @@ public class EmailService {
         lmsMailSender.sendMailForPasswordReset(dataForPasswordReset);
     }
 
-    @Async
+    @Async(MAIL_EXECUTOR)
     public void sendChangePasswordNotification(String email) {
         lmsMailSender.sendPasswordChangeNotification(email);
     }
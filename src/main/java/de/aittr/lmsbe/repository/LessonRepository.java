@@ -46,4 +46,9 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
 
     @Query("select l from Lesson l where l.zoomMeeting = ?1")
     List<Lesson> findByMeeting(ZoomMeeting zoomMeeting);
+
+    @Query("select l from Lesson l join fetch l.cohort " +
+            "where l.lessonTime between ?1 and ?2 " +
+            "order by l.lessonTime")
+    List<Lesson> findAllStartingBetween(LocalDateTime from, LocalDateTime to);
 }
@@ -2,6 +2,8 @@ package de.aittr.lmsbe.service;
 
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.*;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import de.aittr.lmsbe.exception.BadRequestException;
 import de.aittr.lmsbe.exception.RestException;
 import de.aittr.lmsbe.github.model.GHLessonType;
@@ -12,21 +14,24 @@ import de.aittr.lmsbe.service.file_rules.HighLevelRoleRule;
 import de.aittr.lmsbe.service.file_rules.StudentRoleRule;
 import de.aittr.lmsbe.service.interfaces.IFileService;
 import de.aittr.lmsbe.utils.FileValidateResult;
+import de.aittr.lmsbe.zoom.model.VideoAliasMode;
+import de.aittr.lmsbe.zoom.model.VideoTransferCompletedEvent;
+import de.aittr.lmsbe.zoom.service.VideoAliasService;
+import de.aittr.lmsbe.zoom.service.VideoTransferJobService;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.logging.log4j.util.Strings;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 
 import static de.aittr.lmsbe.github.model.GHLessonType.LESSON;
@@ -44,8 +49,16 @@ public class FileService implements IFileService {
     private static final int READ_TIMEOUT = 50_000;
     private static final long ONE_MINUTE_IN_MILLIS = 60000;
 
+    /**
+     * The maximal size of an object copied by a single copy request, larger objects need a multipart copy.
+     */
+    private static final long MAX_COPY_OBJECT_SIZE = 5L * 1024 * 1024 * 1024;
+
     private final AmazonS3 s3Service;
     private final CohortService cohortService;
+    private final VideoIndexService videoIndexService;
+    private final VideoAliasService videoAliasService;
+    private final VideoTransferJobService videoTransferJobService;
 
     @Value("${video-expiration-minutes}")
     private int videoExpirationMinutes;
@@ -56,22 +69,64 @@ public class FileService implements IFileService {
     private String defaultVideoType;
     @Value("${default-video-cohort-prefix}")
     private String defaultVideoCohortPrefix;
+    @Value("${video-link-reuse-margin-minutes:60}")
+    private int videoLinkReuseMarginMinutes;
+    @Value("${video-link-cache-max-size:10000}")
+    private long videoLinkCacheMaxSize;
+    @Value("${video-alias.mode:COPY}")
+    private VideoAliasMode videoAliasMode;
+
+    /**
+     * The keys of the original objects by the bucket and key of an object, which is either an alias or the original.
+     */
+    private Cache<String, String> resolvedKeys;
+
+    /**
+     * The presigned links by the bucket and key of an original object. A link is handed out again until
+     * the reuse margin before its expiration is reached, so every client gets a link valid for at least the margin.
+     */
+    private Cache<String, String> presignedLinks;
+
+    @PostConstruct
+    public void initLinkCaches() {
+        resolvedKeys = Caffeine.newBuilder()
+                .maximumSize(videoLinkCacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(videoExpirationMinutes))
+                .build();
+        presignedLinks = Caffeine.newBuilder()
+                .maximumSize(videoLinkCacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(Math.max(0, videoExpirationMinutes - videoLinkReuseMarginMinutes)))
+                .build();
+    }
 
-    @SneakyThrows
-    @Async
     @Override
     public void uploadToS3(String link, String downloadToken, String bucket, String fileName, ObjectMetadata objectMetadata) {
-        String temporaryFileName = UUID.randomUUID().toString();
-        log.info("Downloading file from url:" + link);
-        downloadFile(link, downloadToken, temporaryFileName);
-        log.info("Downloaded file from url:" + link);
-        File file = new File(temporaryFileName);
-        log.info("Uploading file: " + fileName + " to the bucket: " + bucket);
-        PutObjectRequest putObjectRequest = new PutObjectRequest(bucket, fileName, file);
-        putObjectRequest.setMetadata(objectMetadata);
-        PutObjectResult result = s3Service.putObject(putObjectRequest);
-        log.info("Result of uploading file " + fileName + ": " + result.getContentMd5());
-        Files.delete(Path.of(file.getPath()));
+        log.info("Queueing the transfer of file from url: " + link + " to the bucket: " + bucket + " as: " + fileName);
+        videoTransferJobService.submit(null, link, downloadToken, bucket, fileName, objectMetadata, List.of());
+    }
+
+    @Override
+    public void uploadRecordingToS3(String meetingUuid, String link, String downloadToken, String bucket, String fileName,
+                                    ObjectMetadata objectMetadata, List<String> aliasKeys) {
+        log.info("Queueing the transfer of file from url: " + link + " to the bucket: " + bucket + " as: " + fileName
+                + " with aliases: " + aliasKeys);
+        videoTransferJobService.submit(meetingUuid, link, downloadToken, bucket, fileName, objectMetadata, aliasKeys);
+    }
+
+    /**
+     * Creates the aliases of a stored recording.
+     *
+     * @param event the completed transfer of the recording
+     */
+    @EventListener
+    public void onVideoTransferCompleted(VideoTransferCompletedEvent event) {
+        for (String aliasKey : event.getAliasKeys()) {
+            try {
+                createAlias(event.getBucket(), event.getKey(), aliasKey);
+            } catch (RuntimeException e) {
+                log.error("Failed to create the alias {} of {}: {}", aliasKey, event.getKey(), e.getMessage(), e);
+            }
+        }
     }
 
 
@@ -123,6 +178,34 @@ public class FileService implements IFileService {
 
     @Override
     public void createAlias(String bucketName, String sourceKey, String aliasKey) {
+        switch (videoAliasMode) {
+            case COPY:
+                copyToAlias(bucketName, sourceKey, aliasKey);
+                break;
+            case OBJECT:
+                createAliasObject(bucketName, sourceKey, aliasKey);
+                break;
+            default:
+                videoAliasService.register(bucketName, aliasKey, sourceKey);
+        }
+    }
+
+    /**
+     * Copies the original object to the alias key on the S3 server. An object too large for a single copy request
+     * is stored as a pointer instead.
+     */
+    private void copyToAlias(String bucketName, String sourceKey, String aliasKey) {
+        final long size = s3Service.getObjectMetadata(bucketName, sourceKey).getContentLength();
+        if (size > MAX_COPY_OBJECT_SIZE) {
+            log.info("Object {} is too large to be copied, the alias {} is stored as a pointer", sourceKey, aliasKey);
+            videoAliasService.register(bucketName, aliasKey, sourceKey);
+            return;
+        }
+        s3Service.copyObject(bucketName, sourceKey, bucketName, aliasKey);
+        videoIndexService.addKey(bucketName, aliasKey);
+    }
+
+    private void createAliasObject(String bucketName, String sourceKey, String aliasKey) {
         // Create an empty metadata file for the alias
         ObjectMetadata aliasMetadata = new ObjectMetadata();
 
@@ -137,6 +220,8 @@ public class FileService implements IFileService {
                 aliasMetadata
         );
         s3Service.putObject(putObjectRequest);
+        videoAliasService.register(bucketName, aliasKey, sourceKey);
+        videoIndexService.addKey(bucketName, aliasKey);
     }
 
 
@@ -153,7 +238,7 @@ public class FileService implements IFileService {
         for (S3ObjectSummary objectSummary : response.getObjectSummaries()) {
             keys.add(objectSummary.getKey());
         }
-        return keys;
+        return withAliasKeys(bucketName, prefix, keys);
     }
 
 
@@ -203,6 +288,12 @@ public class FileService implements IFileService {
     @Override
     public boolean isFileExists( String pathToFile) {
         log.debug("Checking existence of a file at location: {}", pathToFile);
+        if (videoAliasService.containsPrefix(lessonVideoBucketName, pathToFile)) {
+            return true;
+        }
+        if (videoIndexService.isReady()) {
+            return videoIndexService.containsPrefix(pathToFile);
+        }
         ListObjectsV2Request request = new ListObjectsV2Request()
                 .withBucketName(lessonVideoBucketName)
                 .withPrefix(pathToFile)
@@ -257,61 +348,103 @@ public class FileService implements IFileService {
 
     @Override
     public List<String> getPresignedLinksByPrefix(String bucketName, String prefix) {
-        ListObjectsV2Request listObjectsRequest = new ListObjectsV2Request()
-                .withBucketName(bucketName)
-                .withPrefix(prefix);
-
-        ListObjectsV2Result response = s3Service.listObjectsV2(listObjectsRequest);
-
         List<String> sharedLinks = new ArrayList<>();
 
-        for (S3ObjectSummary objectSummary : response.getObjectSummaries()) {
-            String objectKey = objectSummary.getKey();
+        for (String objectKey : listKeysByPrefix(bucketName, prefix)) {
             if (objectKey.endsWith("/")) {
                 continue;
             }
-            if (isAliasObject(bucketName, objectKey)) {
-                String originalFileLink = getPresignedLinkByKey(bucketName, objectKey);
-                sharedLinks.add(originalFileLink);
-            } else {
-                GeneratePresignedUrlRequest presignedUrlRequest =
-                        new GeneratePresignedUrlRequest(bucketName, objectKey);
-                presignedUrlRequest.setExpiration(addMinutesToDate(videoExpirationMinutes, new Date()));
-                URL presignedUrl = s3Service.generatePresignedUrl(presignedUrlRequest);
-                sharedLinks.add(presignedUrl.toString());
-            }
+            sharedLinks.add(getPresignedLink(bucketName, resolveKey(bucketName, objectKey)));
         }
         return sharedLinks;
     }
 
     /**
-     * Checks if the specified object in the given S3 bucket is an alias.
+     * Lists the keys with the given prefix, from the video index if it is built, otherwise from S3,
+     * together with the keys of the aliases stored as a pointer.
+     *
+     * @param bucketName The name of the S3 bucket.
+     * @param prefix     The prefix of the keys.
+     * @return The keys with the prefix.
+     */
+    private List<String> listKeysByPrefix(String bucketName, String prefix) {
+        if (lessonVideoBucketName.equals(bucketName) && videoIndexService.isReady()) {
+            return withAliasKeys(bucketName, prefix, videoIndexService.getKeysByPrefix(prefix));
+        }
+        return getKeysByPrefix(bucketName, prefix);
+    }
+
+    /**
+     * Adds the keys of the aliases stored as a pointer to the listed object keys.
+     * These aliases have no object, so they are listed from memory.
      *
      * @param bucketName The name of the S3 bucket.
-     * @param objectKey  The key of the object to check.
-     * @return {@code true} if the object is an alias, {@code false} otherwise.
-     * @throws NullPointerException if {@code bucketName} or {@code objectKey} is {@code null}.
-     * @throws AmazonS3Exception    if an error occurs while interacting with Amazon S3.
+     * @param prefix     The prefix of the keys.
+     * @param objectKeys The keys of the objects with the prefix.
+     * @return The object and alias keys in lexicographic order.
      */
-    private boolean isAliasObject(String bucketName, String objectKey) {
+    private List<String> withAliasKeys(String bucketName, String prefix, List<String> objectKeys) {
+        final List<String> aliasKeys = videoAliasService.getAliasKeysByPrefix(bucketName, prefix);
+        if (aliasKeys.isEmpty()) {
+            return objectKeys;
+        }
+        final SortedSet<String> keys = new TreeSet<>(objectKeys);
+        keys.addAll(aliasKeys);
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * Resolves the key of the original object if the specified object is an alias.
+     * A known alias is resolved from memory. Any other key is an original once all aliases are known,
+     * otherwise it is resolved from the object metadata.
+     *
+     * @param bucketName The name of the S3 bucket.
+     * @param objectKey  The key of the object to resolve.
+     * @return The key of the original object, or the given key if the object is not an alias.
+     */
+    private String resolveKey(String bucketName, String objectKey) {
+        final Optional<String> targetKey = videoAliasService.findTarget(bucketName, objectKey);
+        if (targetKey.isPresent() || videoAliasService.isComplete(bucketName)) {
+            return targetKey.orElse(objectKey);
+        }
+        final String cacheKey = bucketName + "/" + objectKey;
+        final String cachedKey = resolvedKeys.getIfPresent(cacheKey);
+        if (cachedKey != null) {
+            return cachedKey;
+        }
+        final ObjectMetadata objectMetadata;
         try {
-            ObjectMetadata objectMetadata = s3Service.getObjectMetadata(bucketName, objectKey);
-            return objectMetadata.getUserMetadata().containsKey(USER_METADATA_ALIAS_FOR);
+            objectMetadata = s3Service.getObjectMetadata(bucketName, objectKey);
         } catch (AmazonS3Exception e) {
-            return false;
+            return objectKey;
         }
+        final String resolvedKey = objectMetadata.getUserMetadata().containsKey(USER_METADATA_ALIAS_FOR)
+                ? objectMetadata.getUserMetaDataOf(USER_METADATA_ALIAS_FOR)
+                : objectKey;
+        resolvedKeys.put(cacheKey, resolvedKey);
+        return resolvedKey;
+    }
+
+    /**
+     * Returns a presigned link of the specified original object, reusing a link signed before if it is still
+     * valid for longer than the reuse margin.
+     *
+     * @param bucketName The name of the S3 bucket.
+     * @param key        The key of the original object.
+     * @return The presigned link.
+     */
+    private String getPresignedLink(String bucketName, String key) {
+        return presignedLinks.get(bucketName + "/" + key, cacheKey -> {
+            GeneratePresignedUrlRequest presignedUrlRequest = new GeneratePresignedUrlRequest(bucketName, key);
+            presignedUrlRequest.setExpiration(addMinutesToDate(videoExpirationMinutes, new Date()));
+            return s3Service.generatePresignedUrl(presignedUrlRequest).toString();
+        });
     }
 
 
     @Override
     public String getPresignedLinkByKey(String bucketName, String key) {
-        ObjectMetadata objectMetadata = s3Service.getObjectMetadata(bucketName, key);
-        if (objectMetadata.getUserMetadata().containsKey(USER_METADATA_ALIAS_FOR)) {
-            key = objectMetadata.getUserMetaDataOf(USER_METADATA_ALIAS_FOR);
-        }
-        GeneratePresignedUrlRequest presignedUrlRequest = new GeneratePresignedUrlRequest(bucketName, key);
-        presignedUrlRequest.setExpiration(addMinutesToDate(videoExpirationMinutes, new Date()));
-        return s3Service.generatePresignedUrl(presignedUrlRequest).toString();
+        return getPresignedLink(bucketName, resolveKey(bucketName, key));
     }
 
     /**
@@ -177,6 +177,11 @@ public class LessonService implements ILessonService {
         return lessonRepository.findByMeeting(zoomMeeting);
     }
 
+    @Override
+    public List<Lesson> getLessonsStartingBetween(LocalDateTime from, LocalDateTime to) {
+        return lessonRepository.findAllStartingBetween(from, to);
+    }
+
     @Override
     public Lesson save(Lesson lesson) {
         log.debug("Saving lesson: {}", lesson);
@@ -0,0 +1,133 @@
+package de.aittr.lmsbe.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The VideoIndexService class keeps the object keys of the lesson video bucket in memory,
+ * so the existence of a lesson video is checked without a request to S3.
+ * <p>
+ * The index is built by a paginated scan of the bucket, which is repeated periodically to pick up changes made
+ * outside of the application. Videos uploaded by the application are added as soon as the upload completes.
+ */
+@Profile("!dev")
+@Service
+@Slf4j
+public class VideoIndexService {
+
+    private static final int SCAN_PAGE_SIZE = 1000;
+
+    private final AmazonS3 s3Service;
+    private final String lessonVideoBucketName;
+
+    private volatile NavigableSet<String> keys = new ConcurrentSkipListSet<>();
+    private volatile boolean ready;
+
+    /**
+     * The keys added while a scan is running, so they are not lost when the result of the scan replaces the index.
+     */
+    private Set<String> keysAddedDuringScan;
+
+    public VideoIndexService(AmazonS3 s3Service,
+                             @Value("${lesson-video-bucket-name}") String lessonVideoBucketName) {
+        this.s3Service = s3Service;
+        this.lessonVideoBucketName = lessonVideoBucketName;
+    }
+
+    /**
+     * Checks if the index is built, i.e. the first scan of the bucket is completed.
+     *
+     * @return true if the index can answer existence checks
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Checks if the bucket contains an object whose key starts with the given prefix.
+     *
+     * @param prefix the prefix, e.g. the lesson folder built by {@code FileService.buildS3FileName}
+     * @return true if an object with the prefix exists
+     */
+    public boolean containsPrefix(String prefix) {
+        final String key = keys.ceiling(prefix);
+        return key != null && key.startsWith(prefix);
+    }
+
+    /**
+     * Returns the keys of the objects whose key starts with the given prefix, in lexicographic order.
+     *
+     * @param prefix the prefix of the keys
+     * @return the keys with the prefix
+     */
+    public List<String> getKeysByPrefix(String prefix) {
+        return new ArrayList<>(keys.subSet(prefix, true, prefix + Character.MAX_VALUE, false));
+    }
+
+    /**
+     * Adds an object which was uploaded to the lesson video bucket.
+     *
+     * @param bucketName the bucket the object was uploaded to
+     * @param key        the key of the object
+     */
+    public synchronized void addKey(String bucketName, String key) {
+        if (!lessonVideoBucketName.equals(bucketName)) {
+            return;
+        }
+        keys.add(key);
+        if (keysAddedDuringScan != null) {
+            keysAddedDuringScan.add(key);
+        }
+    }
+
+    /**
+     * Rebuilds the index from a full scan of the bucket.
+     */
+    @Scheduled(fixedDelayString = "${video-index-refresh-millis:600000}")
+    public void rebuild() {
+        synchronized (this) {
+            keysAddedDuringScan = new HashSet<>();
+        }
+        final NavigableSet<String> scannedKeys = new ConcurrentSkipListSet<>();
+        try {
+            ListObjectsV2Request request = new ListObjectsV2Request()
+                    .withBucketName(lessonVideoBucketName)
+                    .withMaxKeys(SCAN_PAGE_SIZE);
+            ListObjectsV2Result result;
+            do {
+                result = s3Service.listObjectsV2(request);
+                for (S3ObjectSummary objectSummary : result.getObjectSummaries()) {
+                    scannedKeys.add(objectSummary.getKey());
+                }
+                request.setContinuationToken(result.getNextContinuationToken());
+            } while (result.isTruncated());
+        } catch (RuntimeException e) {
+            log.warn("Failed to scan the bucket {}: {}", lessonVideoBucketName, e.getMessage());
+            synchronized (this) {
+                keysAddedDuringScan = null;
+            }
+            return;
+        }
+        synchronized (this) {
+            scannedKeys.addAll(keysAddedDuringScan);
+            keysAddedDuringScan = null;
+            keys = scannedKeys;
+            ready = true;
+        }
+        log.debug("Video index of bucket {} rebuilt with {} objects", lessonVideoBucketName, scannedKeys.size());
+    }
+}
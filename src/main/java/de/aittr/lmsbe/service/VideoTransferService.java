@@ -0,0 +1,332 @@
+package de.aittr.lmsbe.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.*;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.aittr.lmsbe.configuration.ExecutorConfiguration.VIDEO_PART_UPLOAD_EXECUTOR;
+
+/**
+ * The VideoTransferService class copies a recording from a download link to S3 without writing it to disk.
+ * <p>
+ * The response body is read part by part into buffers taken from a bounded pool, and every filled buffer is uploaded
+ * as a part of an S3 multipart upload while the next part is downloaded. The buffers are shared by all transfers,
+ * so the memory used is bounded by the pool size, and a transfer waits for a free buffer when the uploads
+ * fall behind the download. An interrupted transfer can be resumed, see {@link #resume}.
+ */
+@Profile("!dev")
+@Service
+@Slf4j
+public class VideoTransferService {
+
+    private static final int BYTES_IN_MB = 1024 * 1024;
+
+    /**
+     * The minimal size of a part of a multipart upload, except the last one, accepted by S3.
+     */
+    private static final int MIN_PART_SIZE_MB = 5;
+
+    /**
+     * The response code of a range request which starts at the end of the file.
+     */
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    private static final int CONNECT_TIMEOUT = 50_000;
+    private static final int READ_TIMEOUT = 50_000;
+
+    private final AmazonS3 s3Service;
+    private final int partSize;
+    private final int maxBuffers;
+
+    private final BlockingQueue<byte[]> freeBuffers;
+    private final AtomicInteger allocatedBuffers = new AtomicInteger();
+
+    private final ExecutorService partUploadExecutor;
+
+    public VideoTransferService(AmazonS3 s3Service,
+                                @Qualifier(VIDEO_PART_UPLOAD_EXECUTOR) ExecutorService partUploadExecutor,
+                                @Value("${video-transfer.partSizeMb:16}") int partSizeMb,
+                                @Value("${video-transfer.buffers:8}") int buffers) {
+        this.s3Service = s3Service;
+        this.partSize = Math.max(MIN_PART_SIZE_MB, partSizeMb) * BYTES_IN_MB;
+        this.maxBuffers = Math.max(2, buffers);
+        this.freeBuffers = new ArrayBlockingQueue<>(this.maxBuffers);
+        this.partUploadExecutor = partUploadExecutor;
+    }
+
+    /**
+     * Starts a multipart upload.
+     *
+     * @param bucket         the name of the S3 bucket
+     * @param key            the key of the object in the bucket
+     * @param objectMetadata the metadata of the object
+     * @return the id of the multipart upload
+     */
+    public String initiate(String bucket, String key, ObjectMetadata objectMetadata) {
+        return s3Service.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key, objectMetadata))
+                .getUploadId();
+    }
+
+    /**
+     * Downloads the file from the given link and uploads it to S3 at the same time, continuing the given
+     * multipart upload.
+     * <p>
+     * The parts already uploaded are listed first, and the download starts with an HTTP range request right after
+     * the last of the leading parts of the configured part size, so an interrupted transfer does not start
+     * from the first byte again. If the uploaded parts already cover the whole file, the server rejects the range
+     * and the multipart upload is completed right away. The multipart upload is not aborted when the transfer fails,
+     * so it can be resumed.
+     *
+     * @param link          the link to the file
+     * @param downloadToken the bearer token authorizing the download
+     * @param bucket        the name of the S3 bucket
+     * @param key           the key of the object in the bucket
+     * @param uploadId      the id of the multipart upload
+     * @return the size of the object in bytes
+     * @throws IOException if the download fails or a part cannot be uploaded
+     */
+    public long resume(String link, String downloadToken, String bucket, String key,
+                       String uploadId) throws IOException {
+        final List<PartETag> uploadedParts = getLeadingFullParts(listParts(bucket, key, uploadId));
+        final long offset = (long) uploadedParts.size() * partSize;
+        final HttpURLConnection conn = (HttpURLConnection) new URL(link).openConnection();
+        conn.setConnectTimeout(CONNECT_TIMEOUT);
+        conn.setReadTimeout(READ_TIMEOUT);
+        conn.setRequestProperty("Authorization", "Bearer " + downloadToken);
+        if (offset > 0) {
+            conn.setRequestProperty("Range", "bytes=" + offset + "-");
+        }
+        try {
+            conn.connect();
+            final int responseCode = conn.getResponseCode();
+            if (offset > 0 && responseCode == HTTP_RANGE_NOT_SATISFIABLE) {
+                log.info("All parts of {}/{} were uploaded before, completing the upload", bucket, key);
+                complete(bucket, key, uploadId, uploadedParts);
+                return offset;
+            }
+            if (responseCode != HttpURLConnection.HTTP_OK && responseCode != HttpURLConnection.HTTP_PARTIAL) {
+                throw new IOException("Failed to download file " + link + " Response code: " + responseCode);
+            }
+            try (InputStream inputStream = conn.getInputStream()) {
+                if (offset > 0 && responseCode == HttpURLConnection.HTTP_OK) {
+                    // the server ignored the range, so the uploaded bytes are downloaded again and skipped
+                    IOUtils.skipFully(inputStream, offset);
+                }
+                if (offset > 0) {
+                    log.info("Resuming the transfer of {}/{} at byte {}", bucket, key, offset);
+                }
+                return offset + uploadParts(inputStream, bucket, key, uploadId, uploadedParts);
+            }
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    /**
+     * Aborts a multipart upload and releases its uploaded parts.
+     *
+     * @param bucket   the name of the S3 bucket
+     * @param key      the key of the object in the bucket
+     * @param uploadId the id of the multipart upload
+     */
+    public void abort(String bucket, String key, String uploadId) {
+        try {
+            s3Service.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to abort the multipart upload {} of {}/{}: {}", uploadId, bucket, key, e.getMessage());
+        }
+    }
+
+    /**
+     * Uploads the stream as the parts following the given uploaded parts and completes the multipart upload.
+     * <p>
+     * When the transfer fails, the parts which are not started yet are skipped, and the transfer waits for all
+     * its parts, so every buffer is returned to the pool by its part. A part is not cancelled, since a cancelled
+     * part which was not started would never return its buffer.
+     *
+     * @return the number of bytes read from the stream
+     */
+    private long uploadParts(InputStream inputStream, String bucket, String key, String uploadId,
+                             List<PartETag> uploadedParts) throws IOException {
+        final List<Future<PartETag>> parts = new ArrayList<>();
+        final AtomicBoolean failed = new AtomicBoolean();
+        long size = 0;
+        try {
+            int partNumber = uploadedParts.size() + 1;
+            while (true) {
+                final byte[] buffer = takeBuffer();
+                final int length;
+                try {
+                    length = readFully(inputStream, buffer);
+                } catch (IOException | RuntimeException e) {
+                    freeBuffers.offer(buffer);
+                    throw e;
+                }
+                // S3 requires at least one part, so an empty stream is uploaded as a single empty part
+                if (length == 0 && partNumber > 1) {
+                    freeBuffers.offer(buffer);
+                    break;
+                }
+                parts.add(uploadPart(bucket, key, uploadId, partNumber++, buffer, length, failed));
+                size += length;
+                if (length < buffer.length) {
+                    break;
+                }
+            }
+            final List<PartETag> partETags = new ArrayList<>(uploadedParts);
+            for (Future<PartETag> part : parts) {
+                partETags.add(await(part));
+            }
+            complete(bucket, key, uploadId, partETags);
+            log.debug("Uploaded {} bytes in {} parts to {}/{}", size, parts.size(), bucket, key);
+            return size;
+        } catch (IOException | RuntimeException e) {
+            failed.set(true);
+            awaitQuietly(parts);
+            throw e;
+        }
+    }
+
+    private void complete(String bucket, String key, String uploadId, List<PartETag> partETags) {
+        s3Service.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, partETags));
+    }
+
+    private List<PartSummary> listParts(String bucket, String key, String uploadId) {
+        final List<PartSummary> parts = new ArrayList<>();
+        final ListPartsRequest request = new ListPartsRequest(bucket, key, uploadId);
+        PartListing listing;
+        do {
+            listing = s3Service.listParts(request);
+            parts.addAll(listing.getParts());
+            request.setPartNumberMarker(listing.getNextPartNumberMarker());
+        } while (listing.isTruncated());
+        return parts;
+    }
+
+    /**
+     * Returns the uploaded parts which can be kept: the parts numbered without a gap from the first one,
+     * which have the configured part size.
+     */
+    private List<PartETag> getLeadingFullParts(List<PartSummary> parts) {
+        final List<PartSummary> sortedParts = new ArrayList<>(parts);
+        sortedParts.sort(Comparator.comparingInt(PartSummary::getPartNumber));
+        final List<PartETag> fullParts = new ArrayList<>();
+        for (PartSummary part : sortedParts) {
+            if (part.getPartNumber() != fullParts.size() + 1 || part.getSize() != partSize) {
+                break;
+            }
+            fullParts.add(new PartETag(part.getPartNumber(), part.getETag()));
+        }
+        return fullParts;
+    }
+
+    private Future<PartETag> uploadPart(String bucket, String key, String uploadId,
+                                        int partNumber, byte[] buffer, int length, AtomicBoolean failed) {
+        try {
+            return partUploadExecutor.submit(() -> {
+                try {
+                    if (failed.get()) {
+                        throw new CancellationException("The transfer of " + bucket + "/" + key + " failed");
+                    }
+                    final UploadPartRequest request = new UploadPartRequest()
+                            .withBucketName(bucket)
+                            .withKey(key)
+                            .withUploadId(uploadId)
+                            .withPartNumber(partNumber)
+                            .withPartSize(length)
+                            .withInputStream(new ByteArrayInputStream(buffer, 0, length));
+                    return s3Service.uploadPart(request).getPartETag();
+                } finally {
+                    freeBuffers.offer(buffer);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            freeBuffers.offer(buffer);
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a free buffer, allocating a new one while the pool is not exhausted, otherwise waits for an upload
+     * to return its buffer.
+     */
+    private byte[] takeBuffer() throws IOException {
+        final byte[] buffer = freeBuffers.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        if (allocatedBuffers.getAndUpdate(count -> count < maxBuffers ? count + 1 : count) < maxBuffers) {
+            return new byte[partSize];
+        }
+        try {
+            return freeBuffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Video transfer was interrupted", e);
+        }
+    }
+
+    /**
+     * Waits for the parts of a failed transfer, ignoring their results.
+     */
+    private static void awaitQuietly(List<Future<PartETag>> parts) {
+        for (Future<PartETag> part : parts) {
+            try {
+                part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | CancellationException e) {
+                // the failure of the transfer is reported instead
+            }
+        }
+    }
+
+    private static PartETag await(Future<PartETag> part) throws IOException {
+        try {
+            return part.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Video transfer was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Failed to upload a part of the video", e.getCause());
+        }
+    }
+
+    /**
+     * Reads from the stream until the buffer is full or the stream ends.
+     *
+     * @return the number of bytes read
+     */
+    static int readFully(InputStream inputStream, byte[] buffer) throws IOException {
+        int length = 0;
+        while (length < buffer.length) {
+            final int read = inputStream.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                break;
+            }
+            length += read;
+        }
+        return length;
+    }
+}
@@ -15,6 +15,7 @@ public interface IFileService {
 
     /**
      * Uploads a file to Amazon S3.
+     * The transfer is stored and runs in the background, so it is resumed if it is interrupted.
      *
      * @param link           the link to the file to be uploaded
      * @param downloadToken  the download token for the file
@@ -24,6 +25,21 @@ public interface IFileService {
      */
     void uploadToS3(String link, String downloadToken, String bucket, String fileName, ObjectMetadata objectMetadata);
 
+    /**
+     * Uploads a part of a meeting recording to Amazon S3 and creates its aliases once it is stored.
+     * The parts of a meeting are transferred concurrently, up to the configured number per meeting.
+     *
+     * @param meetingUuid    the UUID of the recorded meeting
+     * @param link           the link to the file to be uploaded
+     * @param downloadToken  the download token for the file
+     * @param bucket         the S3 bucket name
+     * @param fileName       the name of the file in the S3 bucket
+     * @param objectMetadata metadata for the file
+     * @param aliasKeys      the keys of the aliases of the file, e.g. for the other cohorts of the lesson
+     */
+    void uploadRecordingToS3(String meetingUuid, String link, String downloadToken, String bucket, String fileName,
+                             ObjectMetadata objectMetadata, List<String> aliasKeys);
+
     /**
      * Downloads a file from a given URL.
      *
@@ -35,7 +51,8 @@ public interface IFileService {
     void downloadFile(String fileUrl, String accessToken, String filePath);
 
     /**
-     * Creates an alias for an existing S3 object.
+     * Creates an alias for an existing S3 object, stored as configured by {@code video-alias.mode}:
+     * a database pointer, a server-side copy or an empty object referring to the source.
      *
      * @param bucketName the name of the S3 bucket
      * @param sourceKey  the key of the source object
@@ -44,7 +61,8 @@ public interface IFileService {
     void createAlias(String bucketName, String sourceKey, String aliasKey);
 
     /**
-     * Retrieves a list of keys from an S3 bucket that match a given prefix.
+     * Retrieves a list of keys from an S3 bucket that match a given prefix,
+     * including the keys of the aliases stored as a pointer.
      *
      * @param bucketName the name of the S3 bucket
      * @param prefix     the prefix to match
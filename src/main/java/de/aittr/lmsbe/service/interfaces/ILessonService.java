@@ -169,6 +169,15 @@ public interface ILessonService {
      */
     List<Lesson> getByMeetingUUID(ZoomMeeting zoomMeeting);
 
+    /**
+     * Finds the lessons starting within the given time range, ordered by their start time.
+     *
+     * @param from The start of the time range.
+     * @param to   The end of the time range.
+     * @return The list of lessons with their cohorts.
+     */
+    List<Lesson> getLessonsStartingBetween(LocalDateTime from, LocalDateTime to);
+
     /**
      * Saves a lesson to the repository.
      *
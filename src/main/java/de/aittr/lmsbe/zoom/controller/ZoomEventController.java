@@ -1,9 +1,9 @@
 package de.aittr.lmsbe.zoom.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import de.aittr.lmsbe.zoom.dto.RecordingCompletedDto;
 import de.aittr.lmsbe.zoom.model.verify.ZoomVerifyRequestDto;
-import de.aittr.lmsbe.zoom.service.ZoomEventProcessingService;
+import de.aittr.lmsbe.zoom.service.ZoomEventInboxService;
 import de.aittr.lmsbe.zoom.service.ZoomService;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -23,7 +23,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class ZoomEventController {
 
     private final ObjectMapper objectMapper;
-    private final ZoomEventProcessingService zoomEventProcessingService;
+    private final ZoomEventInboxService zoomEventInboxService;
     private final ZoomService zoomService;
     private static final String RECORDING_COMPLETE_EVENT_NAME = "recording.completed";
 
@@ -42,22 +42,21 @@ public class ZoomEventController {
             return ResponseEntity.badRequest().build();
         }
 
-        ZoomVerifyRequestDto verifyDto = objectMapper.readValue(body, ZoomVerifyRequestDto.class);
-        if (verifyDto.getEvent().equals("endpoint.url_validation")) {
+        JsonNode event = objectMapper.readTree(body);
+        String eventName = event.path("event").asText();
+        if (eventName.equals("endpoint.url_validation")) {
+            ZoomVerifyRequestDto verifyDto = objectMapper.treeToValue(event, ZoomVerifyRequestDto.class);
             return ResponseEntity.ok(zoomService.processVerifyRequest(verifyDto));
         }
 
-        RecordingCompletedDto recordingCompletedDto = objectMapper.readValue(body, RecordingCompletedDto.class);
-        if (RECORDING_COMPLETE_EVENT_NAME.equals(recordingCompletedDto.getEvent())) {
-            log.debug("Receive recordingCompletedDto...");
-            log.debug("ZoomObjectData '{}'", recordingCompletedDto.getPayload().getZoomObjectData());
-            log.debug("Event '{}', EventTs '{}'", recordingCompletedDto.getEvent(), recordingCompletedDto.getEventTs());
-            log.debug("'{}'", recordingCompletedDto.getEventTs());
-            zoomEventProcessingService.processRecordingCompleteEvent(recordingCompletedDto);
+        if (RECORDING_COMPLETE_EVENT_NAME.equals(eventName)) {
+            log.debug("Event '{}', EventTs '{}'", eventName, event.path("event_ts").asLong());
+            // the event is processed in the background, so Zoom gets the answer before it sends the event again
+            zoomEventInboxService.append(event, body);
             return ResponseEntity.ok().build();
         }
 
-        log.warn("Not expected event name: {}, expected: {}", recordingCompletedDto.getEvent(), RECORDING_COMPLETE_EVENT_NAME);
+        log.warn("Not expected event name: {}, expected: {}", eventName, RECORDING_COMPLETE_EVENT_NAME);
         return ResponseEntity.badRequest().build();
     }
 }
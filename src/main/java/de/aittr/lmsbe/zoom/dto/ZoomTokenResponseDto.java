@@ -0,0 +1,19 @@
+package de.aittr.lmsbe.zoom.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.Data;
+
+/**
+ * The response of the Zoom OAuth token endpoint for the account credentials grant.
+ */
+@Data
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class ZoomTokenResponseDto {
+    private String accessToken;
+    private String tokenType;
+    /**
+     * The lifetime of the access token in seconds.
+     */
+    private Long expiresIn;
+}
@@ -0,0 +1,74 @@
+package de.aittr.lmsbe.zoom.entity;
+
+import lombok.*;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hibernate.annotations.CreationTimestamp;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+
+/**
+ * An S3 object which is an alias of another object, e.g. the video of a lesson shared by several cohorts.
+ * The alias object itself is empty and points to the original object by its {@code alias-for} user metadata.
+ * <p>
+ * An alias is unique by its bucket and the SHA-256 of its key, since the key itself is too long for an index.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@Table(name = "video_alias", uniqueConstraints = {
+        @UniqueConstraint(name = "unique_combination_bucket_alias_key_hash", columnNames = {"s3_bucket", "alias_key_hash"})
+})
+public class VideoAlias {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Setter(AccessLevel.NONE)
+    private Long id;
+
+    @NotNull
+    @Column(name = "s3_bucket", nullable = false)
+    private String s3Bucket;
+
+    @NotNull
+    @Column(name = "alias_key", nullable = false, length = 1024)
+    private String aliasKey;
+
+    /**
+     * The SHA-256 of the alias key as hex, set when the alias is saved.
+     */
+    @Column(name = "alias_key_hash", nullable = false, length = 64)
+    @Setter(AccessLevel.NONE)
+    private String aliasKeyHash;
+
+    @NotNull
+    @Column(name = "target_key", nullable = false, length = 1024)
+    private String targetKey;
+
+    @CreationTimestamp
+    private Instant createdOn;
+
+    @PrePersist
+    @PreUpdate
+    public void updateAliasKeyHash() {
+        aliasKeyHash = hashAliasKey(aliasKey);
+    }
+
+    public static String hashAliasKey(String aliasKey) {
+        return DigestUtils.sha256Hex(aliasKey);
+    }
+
+    @Override
+    public String toString() {
+        return "VideoAlias{" +
+                "id=" + id +
+                ", s3Bucket='" + s3Bucket + '\'' +
+                ", aliasKey='" + aliasKey + '\'' +
+                ", targetKey='" + targetKey + '\'' +
+                '}';
+    }
+}
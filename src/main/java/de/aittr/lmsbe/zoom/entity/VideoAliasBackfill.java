@@ -0,0 +1,29 @@
+package de.aittr.lmsbe.zoom.entity;
+
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Marks a bucket whose legacy alias objects were imported into the alias table, so the aliases of the bucket
+ * are resolved from the table only.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@Table(name = "video_alias_backfill")
+public class VideoAliasBackfill {
+
+    @Id
+    @Column(name = "s3_bucket")
+    private String s3Bucket;
+
+    @CreationTimestamp
+    private Instant completedOn;
+}
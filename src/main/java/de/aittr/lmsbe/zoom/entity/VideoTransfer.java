@@ -0,0 +1,100 @@
+package de.aittr.lmsbe.zoom.entity;
+
+import de.aittr.lmsbe.zoom.model.VideoTransferStatus;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+
+/**
+ * A transfer of a recording from Zoom to S3, which is resumed after a restart until it is completed.
+ * <p>
+ * The progress of the transfer is kept in the S3 multipart upload, whose id is stored as soon as it is started.
+ * The download token of the webhook is short-lived and a credential, so it is not stored; a resumed transfer
+ * is authorized with the access token of the Zoom account.
+ * The long values are stored as text, so the row stays within the row size limit of InnoDB.
+ */
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Table(name = "video_transfer", indexes = {
+        @Index(name = "idx_video_transfer_status", columnList = "status"),
+        @Index(name = "idx_video_transfer_meeting_uuid", columnList = "meeting_uuid")
+})
+public class VideoTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Setter(AccessLevel.NONE)
+    private Long id;
+
+    /**
+     * The UUID of the meeting the recording belongs to, used to limit the concurrent transfers per meeting.
+     */
+    @Column(name = "meeting_uuid")
+    private String meetingUuid;
+
+    @NotNull
+    @Column(nullable = false, length = 2048)
+    private String downloadUrl;
+
+    @NotNull
+    @Column(name = "s3_bucket", nullable = false)
+    private String s3Bucket;
+
+    @NotNull
+    @Column(name = "s3_key", nullable = false, length = 1024)
+    private String s3Key;
+
+    /**
+     * The user metadata of the S3 object as JSON.
+     */
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String userMetadata;
+
+    /**
+     * The keys of the aliases to create once the recording is stored, as JSON.
+     */
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String aliasKeys;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private VideoTransferStatus status;
+
+    private String uploadId;
+
+    private int attempts;
+
+    private Long size;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @CreationTimestamp
+    private Instant createdOn;
+
+    @UpdateTimestamp
+    private Instant updatedOn;
+
+    @Override
+    public String toString() {
+        return "VideoTransfer{" +
+                "id=" + id +
+                ", meetingUuid='" + meetingUuid + '\'' +
+                ", s3Bucket='" + s3Bucket + '\'' +
+                ", s3Key='" + s3Key + '\'' +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package de.aittr.lmsbe.zoom.entity;
+
+import de.aittr.lmsbe.zoom.model.ZoomEventStatus;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+
+/**
+ * A webhook event received from Zoom, stored with its raw body before it is processed.
+ * <p>
+ * Zoom sends an event again when the webhook does not answer in time, so an event is stored only once
+ * per meeting instance and event timestamp.
+ */
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Table(name = "zoom_event",
+        uniqueConstraints = @UniqueConstraint(name = "unique_combination_meeting_uuid_event_ts",
+                columnNames = {"meeting_uuid", "event_ts"}),
+        indexes = @Index(name = "idx_zoom_event_status", columnList = "status"))
+public class ZoomEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Setter(AccessLevel.NONE)
+    private Long id;
+
+    @NotNull
+    @Column(nullable = false)
+    private String event;
+
+    @NotNull
+    @Column(name = "meeting_uuid", nullable = false)
+    private String meetingUuid;
+
+    @NotNull
+    @Column(name = "event_ts", nullable = false)
+    private Long eventTs;
+
+    @NotNull
+    @Lob
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String body;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ZoomEventStatus status;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    private int attempts;
+
+    @CreationTimestamp
+    private Instant createdOn;
+
+    @UpdateTimestamp
+    private Instant updatedOn;
+
+    @Override
+    public String toString() {
+        return "ZoomEvent{" +
+                "id=" + id +
+                ", event='" + event + '\'' +
+                ", meetingUuid='" + meetingUuid + '\'' +
+                ", eventTs=" + eventTs +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
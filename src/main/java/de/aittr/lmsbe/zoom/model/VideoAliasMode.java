@@ -0,0 +1,20 @@
+package de.aittr.lmsbe.zoom.model;
+
+/**
+ * Represents the way an alias of a lesson video is stored, i.e. a video of one cohort shown to another cohort.
+ */
+public enum VideoAliasMode {
+    /**
+     * The alias is stored in the database only. No object is created in S3, the alias key is listed
+     * and resolved from memory.
+     */
+    POINTER,
+    /**
+     * The original object is copied to the alias key on the S3 server, so the alias is a regular object.
+     */
+    COPY,
+    /**
+     * An empty object with the key of the original in its metadata is created in S3, as well as the database entry.
+     */
+    OBJECT
+}
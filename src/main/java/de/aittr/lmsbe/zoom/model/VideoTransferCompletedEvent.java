@@ -0,0 +1,27 @@
+package de.aittr.lmsbe.zoom.model;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published when a recording is stored in S3.
+ */
+@Value
+public class VideoTransferCompletedEvent {
+
+    /**
+     * The name of the S3 bucket.
+     */
+    String bucket;
+
+    /**
+     * The key of the stored recording.
+     */
+    String key;
+
+    /**
+     * The keys of the aliases of the recording, e.g. the recordings of the other cohorts of the lesson.
+     */
+    List<String> aliasKeys;
+}
@@ -0,0 +1,24 @@
+package de.aittr.lmsbe.zoom.model;
+
+/**
+ * Represents the state of the transfer of a recording from Zoom to S3.
+ */
+public enum VideoTransferStatus {
+    /**
+     * The transfer is stored and waits for a worker.
+     */
+    PENDING,
+    /**
+     * The recording is being downloaded and uploaded in parts. An interrupted transfer stays in this state
+     * and is resumed after the parts already uploaded.
+     */
+    DOWNLOADING,
+    /**
+     * The recording is stored in S3.
+     */
+    COMPLETED,
+    /**
+     * The transfer failed too often, see the error message of the transfer.
+     */
+    FAILED
+}
@@ -0,0 +1,25 @@
+package de.aittr.lmsbe.zoom.model;
+
+/**
+ * Represents the processing state of a Zoom event stored in the inbox.
+ */
+public enum ZoomEventStatus {
+    /**
+     * The event is stored and waits for a worker.
+     */
+    RECEIVED,
+    /**
+     * The event is being processed. An event left in this state for longer than the processing timeout,
+     * e.g. by a restart, is processed again; its recordings are transferred to the same keys again.
+     */
+    PROCESSING,
+    /**
+     * The event was processed.
+     */
+    PROCESSED,
+    /**
+     * The event could not be processed, see the error message of the event. It is retried until the maximum number
+     * of attempts is reached.
+     */
+    FAILED
+}
@@ -0,0 +1,7 @@
+package de.aittr.lmsbe.zoom.repository;
+
+import de.aittr.lmsbe.zoom.entity.VideoAliasBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface VideoAliasBackfillRepository extends JpaRepository<VideoAliasBackfill, String> {
+}
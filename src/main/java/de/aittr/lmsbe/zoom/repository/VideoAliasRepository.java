@@ -0,0 +1,11 @@
+package de.aittr.lmsbe.zoom.repository;
+
+import de.aittr.lmsbe.zoom.entity.VideoAlias;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface VideoAliasRepository extends JpaRepository<VideoAlias, Long> {
+
+    Optional<VideoAlias> findByS3BucketAndAliasKeyHash(String s3Bucket, String aliasKeyHash);
+}
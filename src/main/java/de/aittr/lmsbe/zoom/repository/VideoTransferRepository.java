@@ -0,0 +1,16 @@
+package de.aittr.lmsbe.zoom.repository;
+
+import de.aittr.lmsbe.zoom.entity.VideoTransfer;
+import de.aittr.lmsbe.zoom.model.VideoTransferStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface VideoTransferRepository extends JpaRepository<VideoTransfer, Long> {
+
+    List<VideoTransfer> findAllByStatusInOrderByIdAsc(Collection<VideoTransferStatus> statuses);
+
+    List<VideoTransfer> findAllByMeetingUuidAndStatusInOrderByIdAsc(String meetingUuid,
+                                                                    Collection<VideoTransferStatus> statuses);
+}
@@ -0,0 +1,19 @@
+package de.aittr.lmsbe.zoom.repository;
+
+import de.aittr.lmsbe.zoom.entity.ZoomEvent;
+import de.aittr.lmsbe.zoom.model.ZoomEventStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ZoomEventRepository extends JpaRepository<ZoomEvent, Long> {
+
+    boolean existsByMeetingUuidAndEventTs(String meetingUuid, Long eventTs);
+
+    List<ZoomEvent> findAllByStatusOrderByIdAsc(ZoomEventStatus status);
+
+    List<ZoomEvent> findAllByStatusAndAttemptsLessThanOrderByIdAsc(ZoomEventStatus status, int attempts);
+
+    List<ZoomEvent> findAllByStatusAndUpdatedOnBeforeOrderByIdAsc(ZoomEventStatus status, Instant updatedOn);
+}
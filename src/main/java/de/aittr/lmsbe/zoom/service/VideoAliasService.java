@@ -0,0 +1,209 @@
+package de.aittr.lmsbe.zoom.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import de.aittr.lmsbe.zoom.entity.VideoAlias;
+import de.aittr.lmsbe.zoom.entity.VideoAliasBackfill;
+import de.aittr.lmsbe.zoom.repository.VideoAliasBackfillRepository;
+import de.aittr.lmsbe.zoom.repository.VideoAliasRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static de.aittr.lmsbe.service.FileService.USER_METADATA_ALIAS_FOR;
+
+/**
+ * The VideoAliasService class resolves alias objects of the lesson video bucket from memory.
+ * <p>
+ * The aliases are stored in the database when they are created and loaded into a map on startup.
+ * Aliases created before the table existed are imported once by scanning the empty objects of the bucket.
+ * The completed import is recorded per bucket. Until then, the table is not complete and the aliases
+ * must be resolved from S3.
+ * <p>
+ * The aliases are kept in key order, so the aliases of a lesson folder are listed without an S3 request.
+ * This is required for aliases stored as a pointer, which have no object in S3.
+ */
+@Profile("!dev")
+@Service
+@Slf4j
+public class VideoAliasService {
+
+    private static final int SCAN_PAGE_SIZE = 1000;
+
+    private final VideoAliasRepository videoAliasRepository;
+    private final VideoAliasBackfillRepository videoAliasBackfillRepository;
+    private final AmazonS3 s3Service;
+    private final String lessonVideoBucketName;
+
+    /**
+     * The keys of the original objects by the bucket and key of their alias.
+     */
+    private final NavigableMap<String, String> aliases = new ConcurrentSkipListMap<>();
+
+    private volatile boolean complete;
+
+    public VideoAliasService(VideoAliasRepository videoAliasRepository,
+                             VideoAliasBackfillRepository videoAliasBackfillRepository,
+                             AmazonS3 s3Service,
+                             @Value("${lesson-video-bucket-name}") String lessonVideoBucketName) {
+        this.videoAliasRepository = videoAliasRepository;
+        this.videoAliasBackfillRepository = videoAliasBackfillRepository;
+        this.s3Service = s3Service;
+        this.lessonVideoBucketName = lessonVideoBucketName;
+    }
+
+    @PostConstruct
+    public void loadAliases() {
+        for (VideoAlias alias : videoAliasRepository.findAll()) {
+            aliases.put(mapKey(alias.getS3Bucket(), alias.getAliasKey()), alias.getTargetKey());
+        }
+        complete = videoAliasBackfillRepository.existsById(lessonVideoBucketName);
+        log.debug("Loaded {} video aliases", aliases.size());
+    }
+
+    /**
+     * Checks if all aliases of the lesson video bucket are known, so a key without an alias entry is an original.
+     *
+     * @param bucketName the name of the bucket
+     * @return true if the aliases of the bucket can be resolved from memory
+     */
+    public boolean isComplete(String bucketName) {
+        return complete && lessonVideoBucketName.equals(bucketName);
+    }
+
+    /**
+     * Resolves the key of the original object.
+     *
+     * @param bucketName the name of the bucket
+     * @param key        the key of an alias or original object
+     * @return the key of the original object, or the given key if the object is not an alias
+     */
+    public String resolve(String bucketName, String key) {
+        return aliases.getOrDefault(mapKey(bucketName, key), key);
+    }
+
+    /**
+     * Finds the key of the original object of a known alias.
+     *
+     * @param bucketName the name of the bucket
+     * @param key        the key of an alias or original object
+     * @return the key of the original object, or empty if the key is not a known alias
+     */
+    public Optional<String> findTarget(String bucketName, String key) {
+        return Optional.ofNullable(aliases.get(mapKey(bucketName, key)));
+    }
+
+    /**
+     * Returns the keys of the known aliases whose key starts with the given prefix, in lexicographic order.
+     *
+     * @param bucketName the name of the bucket
+     * @param prefix     the prefix of the keys, e.g. the lesson folder built by {@code FileService.buildS3FileName}
+     * @return the alias keys with the prefix
+     */
+    public List<String> getAliasKeysByPrefix(String bucketName, String prefix) {
+        final String bucketPrefix = mapKey(bucketName, "");
+        final List<String> keys = new ArrayList<>();
+        for (String aliasMapKey : prefixMap(bucketName, prefix).keySet()) {
+            keys.add(aliasMapKey.substring(bucketPrefix.length()));
+        }
+        return keys;
+    }
+
+    /**
+     * Checks if a known alias has a key starting with the given prefix.
+     *
+     * @param bucketName the name of the bucket
+     * @param prefix     the prefix of the keys
+     * @return true if an alias with the prefix exists
+     */
+    public boolean containsPrefix(String bucketName, String prefix) {
+        return !prefixMap(bucketName, prefix).isEmpty();
+    }
+
+    /**
+     * Stores a new alias.
+     *
+     * @param bucketName the name of the bucket
+     * @param aliasKey   the key of the alias object
+     * @param targetKey  the key of the original object
+     */
+    public void register(String bucketName, String aliasKey, String targetKey) {
+        final VideoAlias alias = videoAliasRepository
+                .findByS3BucketAndAliasKeyHash(bucketName, VideoAlias.hashAliasKey(aliasKey))
+                .orElseGet(() -> VideoAlias.builder().s3Bucket(bucketName).aliasKey(aliasKey).build());
+        alias.setTargetKey(targetKey);
+        videoAliasRepository.save(alias);
+        aliases.put(mapKey(bucketName, aliasKey), targetKey);
+    }
+
+    /**
+     * Imports the aliases of the lesson video bucket once, unless the import was completed before.
+     * Only the empty objects of the bucket are candidates, so the metadata of the videos themselves is not requested.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (complete) {
+            return;
+        }
+        log.info("Importing the video aliases of bucket {}", lessonVideoBucketName);
+        final List<VideoAlias> found = new ArrayList<>();
+        try {
+            final ListObjectsV2Request request = new ListObjectsV2Request()
+                    .withBucketName(lessonVideoBucketName)
+                    .withMaxKeys(SCAN_PAGE_SIZE);
+            ListObjectsV2Result result;
+            do {
+                result = s3Service.listObjectsV2(request);
+                for (S3ObjectSummary objectSummary : result.getObjectSummaries()) {
+                    if (objectSummary.getSize() == 0 && !objectSummary.getKey().endsWith("/")) {
+                        final ObjectMetadata metadata = s3Service.getObjectMetadata(lessonVideoBucketName, objectSummary.getKey());
+                        final String targetKey = metadata.getUserMetaDataOf(USER_METADATA_ALIAS_FOR);
+                        if (targetKey != null) {
+                            found.add(VideoAlias.builder()
+                                    .s3Bucket(lessonVideoBucketName)
+                                    .aliasKey(objectSummary.getKey())
+                                    .targetKey(targetKey)
+                                    .build());
+                        }
+                    }
+                }
+                request.setContinuationToken(result.getNextContinuationToken());
+            } while (result.isTruncated());
+        } catch (RuntimeException e) {
+            log.warn("Failed to import the video aliases of bucket {}: {}", lessonVideoBucketName, e.getMessage());
+            return;
+        }
+        for (VideoAlias alias : found) {
+            if (!aliases.containsKey(mapKey(alias.getS3Bucket(), alias.getAliasKey()))) {
+                register(alias.getS3Bucket(), alias.getAliasKey(), alias.getTargetKey());
+            }
+        }
+        videoAliasBackfillRepository.save(VideoAliasBackfill.builder().s3Bucket(lessonVideoBucketName).build());
+        complete = true;
+        log.info("Imported {} video aliases of bucket {}", found.size(), lessonVideoBucketName);
+    }
+
+    private NavigableMap<String, String> prefixMap(String bucketName, String prefix) {
+        final String mapPrefix = mapKey(bucketName, prefix);
+        return aliases.subMap(mapPrefix, true, mapPrefix + Character.MAX_VALUE, false);
+    }
+
+    private static String mapKey(String bucketName, String key) {
+        return bucketName + "/" + key;
+    }
+}
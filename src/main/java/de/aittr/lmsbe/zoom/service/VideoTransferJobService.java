@@ -0,0 +1,278 @@
+package de.aittr.lmsbe.zoom.service;
+
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.aittr.lmsbe.service.VideoIndexService;
+import de.aittr.lmsbe.service.VideoTransferService;
+import de.aittr.lmsbe.zoom.entity.VideoTransfer;
+import de.aittr.lmsbe.zoom.model.VideoTransferCompletedEvent;
+import de.aittr.lmsbe.zoom.model.VideoTransferStatus;
+import de.aittr.lmsbe.zoom.repository.VideoTransferRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static de.aittr.lmsbe.configuration.ExecutorConfiguration.VIDEO_TRANSFER_EXECUTOR;
+
+/**
+ * The VideoTransferJobService class runs the transfers of recordings from Zoom to S3 as persistent jobs.
+ * <p>
+ * A transfer is stored in the database before it is started, together with the id of its S3 multipart upload,
+ * so a transfer interrupted by a restart or a failure is resumed after the parts already uploaded.
+ * A transfer is given up after the configured number of attempts, and its multipart upload is aborted.
+ * <p>
+ * The download token of the webhook is kept in memory for the first attempt only. Every other attempt, e.g. after
+ * a restart, is authorized with the access token of the Zoom account, since the download token expires.
+ * <p>
+ * The parts of a recording are transferred concurrently, but only up to the configured number per meeting,
+ * so a meeting with many parts does not occupy all workers. A {@link VideoTransferCompletedEvent} is published
+ * when a transfer is completed, so the aliases of the recording are created only after their original exists.
+ */
+@Profile("!dev")
+@Service
+@Slf4j
+public class VideoTransferJobService {
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+    private static final List<VideoTransferStatus> PENDING_STATUSES =
+            List.of(VideoTransferStatus.PENDING, VideoTransferStatus.DOWNLOADING);
+
+    private final VideoTransferRepository videoTransferRepository;
+    private final VideoTransferService videoTransferService;
+    private final VideoIndexService videoIndexService;
+    private final ZoomService zoomService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService transferExecutor;
+    private final int maxAttempts;
+    private final int maxTransfersPerMeeting;
+
+    /**
+     * The ids of the transfers which are scheduled or running, so the retry does not schedule them twice.
+     */
+    private final Set<Long> scheduledTransfers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The number of scheduled or running transfers of every meeting.
+     */
+    private final Map<String, Integer> meetingTransfers = new ConcurrentHashMap<>();
+
+    /**
+     * The download tokens of the webhooks by transfer id, until the first attempt of the transfer.
+     */
+    private final Map<Long, String> downloadTokens = new ConcurrentHashMap<>();
+
+    public VideoTransferJobService(VideoTransferRepository videoTransferRepository,
+                                   VideoTransferService videoTransferService,
+                                   VideoIndexService videoIndexService,
+                                   ZoomService zoomService,
+                                   ApplicationEventPublisher eventPublisher,
+                                   ObjectMapper objectMapper,
+                                   @Qualifier(VIDEO_TRANSFER_EXECUTOR) ExecutorService transferExecutor,
+                                   @Value("${video-transfer.maxAttempts:5}") int maxAttempts,
+                                   @Value("${video-transfer.maxPartsPerMeeting:3}") int maxTransfersPerMeeting) {
+        this.videoTransferRepository = videoTransferRepository;
+        this.videoTransferService = videoTransferService;
+        this.videoIndexService = videoIndexService;
+        this.zoomService = zoomService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transferExecutor = transferExecutor;
+        this.maxAttempts = maxAttempts;
+        this.maxTransfersPerMeeting = maxTransfersPerMeeting;
+    }
+
+    /**
+     * Stores a transfer and schedules it.
+     *
+     * @param meetingUuid    the UUID of the meeting the recording belongs to, or null if it is not limited per meeting
+     * @param downloadUrl    the link to the recording
+     * @param downloadToken  the bearer token of the webhook authorizing the download, used for the first attempt
+     * @param bucket         the name of the S3 bucket
+     * @param key            the key of the object in the bucket
+     * @param objectMetadata the metadata of the object
+     * @param aliasKeys      the keys of the aliases to create once the object is stored
+     * @return the stored transfer
+     */
+    public VideoTransfer submit(String meetingUuid, String downloadUrl, String downloadToken, String bucket, String key,
+                                ObjectMetadata objectMetadata, List<String> aliasKeys) {
+        final VideoTransfer transfer = videoTransferRepository.save(VideoTransfer.builder()
+                .meetingUuid(meetingUuid)
+                .downloadUrl(downloadUrl)
+                .s3Bucket(bucket)
+                .s3Key(key)
+                .userMetadata(writeUserMetadata(objectMetadata))
+                .aliasKeys(aliasKeys.isEmpty() ? null : writeJson(aliasKeys))
+                .status(VideoTransferStatus.PENDING)
+                .build());
+        log.debug("Video transfer queued: {}", transfer);
+        if (downloadToken != null) {
+            downloadTokens.put(transfer.getId(), downloadToken);
+        }
+        schedule(transfer);
+        return transfer;
+    }
+
+    /**
+     * Schedules the pending transfers which are not scheduled yet: transfers interrupted by a restart
+     * and transfers which failed and are retried.
+     */
+    @Scheduled(fixedDelayString = "${video-transfer.retryMillis:60000}",
+            initialDelayString = "${video-transfer.initialDelayMillis:10000}")
+    public void schedulePending() {
+        for (VideoTransfer transfer : videoTransferRepository.findAllByStatusInOrderByIdAsc(PENDING_STATUSES)) {
+            schedule(transfer);
+        }
+    }
+
+    private void schedule(VideoTransfer transfer) {
+        final Long transferId = transfer.getId();
+        final String meetingUuid = transfer.getMeetingUuid();
+        if (!scheduledTransfers.add(transferId)) {
+            return;
+        }
+        if (!acquireMeetingSlot(meetingUuid)) {
+            // the transfer is scheduled when another transfer of the meeting is finished
+            scheduledTransfers.remove(transferId);
+            return;
+        }
+        try {
+            transferExecutor.execute(() -> process(transferId, meetingUuid));
+        } catch (RejectedExecutionException e) {
+            // the transfer stays pending and is scheduled again by the retry
+            releaseMeetingSlot(meetingUuid);
+            scheduledTransfers.remove(transferId);
+            log.warn("Video transfer {} postponed, the transfer queue is full", transferId);
+        }
+    }
+
+    private void process(Long transferId, String meetingUuid) {
+        try {
+            process(transferId);
+        } finally {
+            releaseMeetingSlot(meetingUuid);
+        }
+        if (meetingUuid != null) {
+            try {
+                videoTransferRepository.findAllByMeetingUuidAndStatusInOrderByIdAsc(meetingUuid, PENDING_STATUSES)
+                        .forEach(this::schedule);
+            } catch (RuntimeException e) {
+                log.warn("Failed to schedule the next transfers of meeting '{}': {}", meetingUuid, e.getMessage());
+            }
+        }
+    }
+
+    void process(Long transferId) {
+        try {
+            final VideoTransfer transfer = videoTransferRepository.findById(transferId).orElse(null);
+            if (transfer == null || !PENDING_STATUSES.contains(transfer.getStatus())) {
+                return;
+            }
+            transfer.setStatus(VideoTransferStatus.DOWNLOADING);
+            transfer.setAttempts(transfer.getAttempts() + 1);
+            final String webhookToken = downloadTokens.remove(transferId);
+            try {
+                if (transfer.getUploadId() == null) {
+                    transfer.setUploadId(videoTransferService.initiate(transfer.getS3Bucket(), transfer.getS3Key(),
+                            readObjectMetadata(transfer.getUserMetadata())));
+                }
+                videoTransferRepository.save(transfer);
+
+                final String downloadToken = webhookToken != null ? webhookToken : zoomService.getZoomAccessToken();
+                transfer.setSize(videoTransferService.resume(transfer.getDownloadUrl(), downloadToken,
+                        transfer.getS3Bucket(), transfer.getS3Key(), transfer.getUploadId()));
+                transfer.setStatus(VideoTransferStatus.COMPLETED);
+                transfer.setErrorMessage(null);
+                videoIndexService.addKey(transfer.getS3Bucket(), transfer.getS3Key());
+                log.info("Video transfer completed: {}", transfer);
+            } catch (IOException | RuntimeException e) {
+                transfer.setErrorMessage(StringUtils.abbreviate(e.getMessage(), MAX_ERROR_MESSAGE_LENGTH));
+                if (transfer.getAttempts() >= maxAttempts) {
+                    transfer.setStatus(VideoTransferStatus.FAILED);
+                    if (transfer.getUploadId() != null) {
+                        videoTransferService.abort(transfer.getS3Bucket(), transfer.getS3Key(), transfer.getUploadId());
+                    }
+                    log.error("Video transfer {} failed: {}", transferId, e.getMessage(), e);
+                } else {
+                    log.warn("Video transfer {} interrupted, it will be resumed: {}", transferId, e.getMessage());
+                }
+            }
+            videoTransferRepository.save(transfer);
+            if (transfer.getStatus() == VideoTransferStatus.COMPLETED) {
+                eventPublisher.publishEvent(new VideoTransferCompletedEvent(transfer.getS3Bucket(), transfer.getS3Key(),
+                        readAliasKeys(transfer.getAliasKeys())));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to process video transfer {}: {}", transferId, e.getMessage(), e);
+        } finally {
+            scheduledTransfers.remove(transferId);
+        }
+    }
+
+    private boolean acquireMeetingSlot(String meetingUuid) {
+        if (meetingUuid == null) {
+            return true;
+        }
+        final boolean[] acquired = new boolean[1];
+        meetingTransfers.compute(meetingUuid, (key, count) -> {
+            final int current = count == null ? 0 : count;
+            acquired[0] = current < maxTransfersPerMeeting;
+            return acquired[0] ? current + 1 : count;
+        });
+        return acquired[0];
+    }
+
+    private void releaseMeetingSlot(String meetingUuid) {
+        if (meetingUuid != null) {
+            meetingTransfers.computeIfPresent(meetingUuid, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private String writeUserMetadata(ObjectMetadata objectMetadata) {
+        if (objectMetadata == null || objectMetadata.getUserMetadata().isEmpty()) {
+            return null;
+        }
+        return writeJson(objectMetadata.getUserMetadata());
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ObjectMetadata readObjectMetadata(String userMetadata) throws IOException {
+        final ObjectMetadata objectMetadata = new ObjectMetadata();
+        if (userMetadata != null) {
+            objectMetadata.setUserMetadata(objectMapper.readValue(userMetadata, new TypeReference<Map<String, String>>() {
+            }));
+        }
+        return objectMetadata;
+    }
+
+    private List<String> readAliasKeys(String aliasKeys) throws IOException {
+        if (aliasKeys == null) {
+            return List.of();
+        }
+        return objectMapper.readValue(aliasKeys, new TypeReference<List<String>>() {
+        });
+    }
+}
@@ -0,0 +1,216 @@
+package de.aittr.lmsbe.zoom.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.aittr.lmsbe.zoom.dto.RecordingCompletedDto;
+import de.aittr.lmsbe.zoom.entity.ZoomEvent;
+import de.aittr.lmsbe.zoom.model.ZoomEventStatus;
+import de.aittr.lmsbe.zoom.repository.ZoomEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static de.aittr.lmsbe.configuration.ExecutorConfiguration.ZOOM_EVENT_EXECUTOR;
+
+/**
+ * The ZoomEventInboxService class stores the webhook events of Zoom and processes them in the background.
+ * <p>
+ * The webhook only stores the raw event, so it answers before Zoom sends the event again. An event sent again
+ * has the same meeting instance and timestamp and is ignored, so every recording is processed once.
+ * <p>
+ * A failed event is retried until the configured number of attempts is reached. An event left in processing
+ * for longer than the processing timeout, e.g. by a restart, is processed again.
+ * <p>
+ * The download token of the event is a short-lived credential, so it is removed from the stored body and kept
+ * in memory for the first attempt only. The recordings of a retried event are downloaded with the access token
+ * of the Zoom account.
+ */
+@Profile("!dev")
+@Service
+@Slf4j
+public class ZoomEventInboxService {
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+    private static final String DOWNLOAD_TOKEN = "download_token";
+
+    private final ZoomEventRepository zoomEventRepository;
+    private final ZoomEventProcessingService zoomEventProcessingService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService zoomEventExecutor;
+    private final int maxAttempts;
+    private final Duration processingTimeout;
+
+    /**
+     * The ids of the events which are scheduled or running, so the retry does not schedule them twice.
+     */
+    private final Set<Long> scheduledEvents = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The download tokens of the events by event id, until the first attempt of the event.
+     */
+    private final Map<Long, String> downloadTokens = new ConcurrentHashMap<>();
+
+    public ZoomEventInboxService(ZoomEventRepository zoomEventRepository,
+                                 ZoomEventProcessingService zoomEventProcessingService,
+                                 ObjectMapper objectMapper,
+                                 @Qualifier(ZOOM_EVENT_EXECUTOR) ExecutorService zoomEventExecutor,
+                                 @Value("${zoom-inbox.maxAttempts:5}") int maxAttempts,
+                                 @Value("${zoom-inbox.processingTimeoutMinutes:10}") long processingTimeoutMinutes) {
+        this.zoomEventRepository = zoomEventRepository;
+        this.zoomEventProcessingService = zoomEventProcessingService;
+        this.objectMapper = objectMapper;
+        this.zoomEventExecutor = zoomEventExecutor;
+        this.maxAttempts = maxAttempts;
+        this.processingTimeout = Duration.ofMinutes(processingTimeoutMinutes);
+    }
+
+    /**
+     * Stores a recording event and schedules it for processing, unless the same event was received before.
+     *
+     * @param event the parsed body of the webhook request
+     * @param body  the raw body of the webhook request
+     * @return true if the event is new, false if it was received before
+     */
+    public boolean append(JsonNode event, String body) {
+        final String meetingUuid = event.path("payload").path("object").path("uuid").asText();
+        final long eventTs = event.path("event_ts").asLong();
+        if (zoomEventRepository.existsByMeetingUuidAndEventTs(meetingUuid, eventTs)) {
+            log.info("Zoom event of meeting '{}' at {} received again, ignored", meetingUuid, eventTs);
+            return false;
+        }
+        final ZoomEvent zoomEvent;
+        try {
+            zoomEvent = zoomEventRepository.save(ZoomEvent.builder()
+                    .event(event.path("event").asText())
+                    .meetingUuid(meetingUuid)
+                    .eventTs(eventTs)
+                    .body(withoutDownloadToken(event, body))
+                    .status(ZoomEventStatus.RECEIVED)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.info("Zoom event of meeting '{}' at {} received concurrently, ignored", meetingUuid, eventTs);
+            return false;
+        }
+        log.debug("Zoom event stored: {}", zoomEvent);
+        final String downloadToken = event.path(DOWNLOAD_TOKEN).asText(null);
+        if (downloadToken != null) {
+            downloadTokens.put(zoomEvent.getId(), downloadToken);
+        }
+        schedule(zoomEvent.getId());
+        return true;
+    }
+
+    /**
+     * Schedules the pending events which are not scheduled yet: events left over from a restart, events which
+     * were rejected because the queue was full, failed events with attempts left and events stuck in processing.
+     */
+    @Scheduled(fixedDelayString = "${zoom-inbox.retryMillis:60000}",
+            initialDelayString = "${zoom-inbox.initialDelayMillis:10000}")
+    public void scheduleReceived() {
+        for (ZoomEvent zoomEvent : zoomEventRepository.findAllByStatusOrderByIdAsc(ZoomEventStatus.RECEIVED)) {
+            schedule(zoomEvent.getId());
+        }
+        for (ZoomEvent zoomEvent : zoomEventRepository.findAllByStatusAndAttemptsLessThanOrderByIdAsc(
+                ZoomEventStatus.FAILED, maxAttempts)) {
+            schedule(zoomEvent.getId());
+        }
+        for (ZoomEvent zoomEvent : zoomEventRepository.findAllByStatusAndUpdatedOnBeforeOrderByIdAsc(
+                ZoomEventStatus.PROCESSING, Instant.now().minus(processingTimeout))) {
+            schedule(zoomEvent.getId());
+        }
+    }
+
+    private void schedule(Long eventId) {
+        if (!scheduledEvents.add(eventId)) {
+            return;
+        }
+        try {
+            zoomEventExecutor.execute(() -> process(eventId));
+        } catch (RejectedExecutionException e) {
+            // the event stays received and is scheduled again by the retry
+            scheduledEvents.remove(eventId);
+            log.warn("Zoom event {} postponed, the event queue is full", eventId);
+        }
+    }
+
+    void process(Long eventId) {
+        try {
+            final ZoomEvent zoomEvent = zoomEventRepository.findById(eventId).orElse(null);
+            if (zoomEvent == null || !isPending(zoomEvent)) {
+                return;
+            }
+            zoomEvent.setStatus(ZoomEventStatus.PROCESSING);
+            zoomEvent.setAttempts(zoomEvent.getAttempts() + 1);
+            zoomEventRepository.save(zoomEvent);
+            final String downloadToken = downloadTokens.remove(eventId);
+            try {
+                final RecordingCompletedDto recordingCompletedDto =
+                        objectMapper.readValue(zoomEvent.getBody(), RecordingCompletedDto.class);
+                if (downloadToken != null) {
+                    recordingCompletedDto.setDownloadToken(downloadToken);
+                }
+                zoomEventProcessingService.processRecordingCompleteEvent(recordingCompletedDto);
+                zoomEvent.setStatus(ZoomEventStatus.PROCESSED);
+                zoomEvent.setErrorMessage(null);
+                log.debug("Zoom event processed: {}", zoomEvent);
+            } catch (IOException | RuntimeException e) {
+                zoomEvent.setStatus(ZoomEventStatus.FAILED);
+                zoomEvent.setErrorMessage(StringUtils.abbreviate(e.getMessage(), MAX_ERROR_MESSAGE_LENGTH));
+                if (zoomEvent.getAttempts() >= maxAttempts) {
+                    log.error("Zoom event {} failed: {}", eventId, e.getMessage(), e);
+                } else {
+                    log.warn("Zoom event {} failed, it will be retried: {}", eventId, e.getMessage());
+                }
+            }
+            zoomEventRepository.save(zoomEvent);
+        } catch (RuntimeException e) {
+            log.error("Failed to process Zoom event {}: {}", eventId, e.getMessage(), e);
+        } finally {
+            scheduledEvents.remove(eventId);
+        }
+    }
+
+    private String withoutDownloadToken(JsonNode event, String body) {
+        if (!event.has(DOWNLOAD_TOKEN)) {
+            return body;
+        }
+        final ObjectNode storedEvent = event.deepCopy();
+        storedEvent.remove(DOWNLOAD_TOKEN);
+        try {
+            return objectMapper.writeValueAsString(storedEvent);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isPending(ZoomEvent zoomEvent) {
+        switch (zoomEvent.getStatus()) {
+            case RECEIVED:
+                return true;
+            case FAILED:
+                return zoomEvent.getAttempts() < maxAttempts;
+            case PROCESSING:
+                return zoomEvent.getUpdatedOn() == null
+                        || zoomEvent.getUpdatedOn().isBefore(Instant.now().minus(processingTimeout));
+            default:
+                return false;
+        }
+    }
+}
@@ -15,7 +15,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -76,46 +75,50 @@ public class ZoomEventProcessingService {
             ObjectMetadata objectMetadata = objectToS3ObjectMetadataForInvalidFile(zoomObjectData, recordingFile);
 
             String downloadUrl = recordingFile.getDownloadUrl();
-            fileService.uploadToS3(downloadUrl, downloadToken, lessonVideoBucketName, fileNameOnS3, objectMetadata);
+            fileService.uploadRecordingToS3(zoomObjectData.getUuid(), downloadUrl, downloadToken,
+                    lessonVideoBucketName, fileNameOnS3, objectMetadata, List.of());
 
             zoomMeetings.add(getProcessedZoomVideo(zoomObjectData, 0, recordingFile, fileNameOnS3, false));
         }
         zoomMeetingService.saveInvalidMeeting(zoomObjectData, zoomMeetings);
     }
 
+    /**
+     * Uploads every part of the recording once, for the first cohort of the lesson, and creates the aliases
+     * for the other cohorts when the part is stored. The parts are transferred concurrently.
+     */
     private void uploadVideoBatchAndCreateAliases(LessonTopicObject lessonTopicObject,
                                                   ZoomObjectData zoomObjectData,
                                                   List<RecordingFile> files,
                                                   String downloadToken) {
         List<ProcessedZoomVideo> processedZoomVideos = new ArrayList<>();
-        List<String> firstCohortVideoFileNames = new LinkedList<>();
         String fileNamePrefix = createFileNamePrefixForS3StorageValidTopic(lessonTopicObject, zoomObjectData.getStartTime());
 
+        // the file names of every part by cohort
         List<String> objectCohorts = lessonTopicObject.getCohort();
+        List<List<String>> cohortVideoFileNames = new ArrayList<>(objectCohorts.size());
         for (int cohortPart = 0; cohortPart < objectCohorts.size(); cohortPart++) {
             String directoryPrefixForS3Storage = getDirectoryPrefixForValidTopic(lessonTopicObject, zoomObjectData, cohortPart);
-
+            List<String> videoFileNames = new ArrayList<>(files.size());
             for (int part = 0; part < files.size(); part++) {
-                final RecordingFile recordingFile = files.get(part);
                 String partOfFileSuffix = files.size() > 1 ? PART + (part + 1) : Strings.EMPTY;
                 String fileNameOnS3 = directoryPrefixForS3Storage + fileNamePrefix + partOfFileSuffix + MP_4;
-                final String currentCohort = objectCohorts.get(cohortPart);
-
-                if (cohortPart == 0) {
-                    // Upload the video for the first cohort
-                    String downloadUrl = files.get(part).getDownloadUrl();
-                    log.info("Uploading files for cohort: {}", currentCohort);
-                    final ObjectMetadata objectMetadata = objectToS3ObjectMetadataForValidFile(zoomObjectData, lessonTopicObject);
-                    fileService.uploadToS3(downloadUrl, downloadToken, lessonVideoBucketName, fileNameOnS3, objectMetadata);
-                    firstCohortVideoFileNames.add(fileNameOnS3);
-                    processedZoomVideos.add(getProcessedZoomVideo(zoomObjectData, (part + 1), recordingFile, fileNameOnS3, true));
-                } else {
-                    // Create alias for subsequent cohorts
-                    log.info("Video is for several groups. Uploading alias files for cohort: {}", currentCohort);
-                    fileService.createAlias(lessonVideoBucketName, getFirstCohortFileName(firstCohortVideoFileNames, part), fileNameOnS3);
-                    processedZoomVideos.add(getProcessedZoomVideo(zoomObjectData, (part + 1), recordingFile, fileNameOnS3, true));
-                }
+                videoFileNames.add(fileNameOnS3);
+                processedZoomVideos.add(getProcessedZoomVideo(zoomObjectData, (part + 1), files.get(part), fileNameOnS3, true));
             }
+            cohortVideoFileNames.add(videoFileNames);
+        }
+
+        final ObjectMetadata objectMetadata = objectToS3ObjectMetadataForValidFile(zoomObjectData, lessonTopicObject);
+        for (int part = 0; part < files.size(); part++) {
+            final int currentPart = part;
+            List<String> aliasKeys = cohortVideoFileNames.subList(1, cohortVideoFileNames.size()).stream()
+                    .map(videoFileNames -> videoFileNames.get(currentPart))
+                    .collect(Collectors.toList());
+            log.info("Uploading part {} for cohort: {}, aliases for cohorts: {}",
+                    part + 1, objectCohorts.get(0), objectCohorts.subList(1, objectCohorts.size()));
+            fileService.uploadRecordingToS3(zoomObjectData.getUuid(), files.get(part).getDownloadUrl(), downloadToken,
+                    lessonVideoBucketName, cohortVideoFileNames.get(0).get(part), objectMetadata, aliasKeys);
         }
         zoomMeetingService.saveExternMeeting(zoomObjectData, processedZoomVideos, lessonTopicObject);
     }
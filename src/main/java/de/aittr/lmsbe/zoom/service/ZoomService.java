@@ -1,7 +1,6 @@
 package de.aittr.lmsbe.zoom.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.aittr.lmsbe.configuration.ZoomConfiguration;
 import de.aittr.lmsbe.configuration.ZoomConstants;
@@ -15,28 +14,19 @@ import de.aittr.lmsbe.zoom.meeting.ZoomMeetingSettings;
 import de.aittr.lmsbe.zoom.model.verify.ZoomVerifyRequestDto;
 import de.aittr.lmsbe.zoom.model.verify.ZoomVerifyResponseDto;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.digest.HmacAlgorithms;
 import org.apache.commons.codec.digest.HmacUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.io.InputStream;
-import java.io.OutputStreamWriter;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
-import java.util.Map;
-import java.util.Scanner;
 
 @RequiredArgsConstructor
 @Service
@@ -47,38 +37,11 @@ public class ZoomService {
     private final ZoomConfiguration zoomConfiguration;
     private final RestTemplate restTemplate;
     private final UsersRepository usersRepository;
+    private final ZoomTokenService zoomTokenService;
 
 
-    @SneakyThrows
     public String getZoomAccessToken() {
-        URL url = new URL("https://zoom.us/oauth/token");
-        HttpURLConnection httpConn = (HttpURLConnection) url.openConnection();
-
-        httpConn.setRequestMethod("POST");
-        httpConn.setRequestProperty("Host", "zoom.us");
-        httpConn.setRequestProperty("Authorization", getBasicAuthenticationHeader(zoomConfiguration.getClientId(), zoomConfiguration.getClientSecret()));
-        httpConn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
-
-        httpConn.setDoOutput(true);
-        OutputStreamWriter writer = new OutputStreamWriter(httpConn.getOutputStream());
-        writer.write("grant_type=account_credentials&account_id=" + zoomConfiguration.getAccountId());
-        writer.flush();
-        writer.close();
-        httpConn.getOutputStream().close();
-
-        InputStream responseStream = httpConn.getResponseCode() / 100 == 2 ? httpConn.getInputStream() : httpConn.getErrorStream();
-        Scanner s = new Scanner(responseStream).useDelimiter("\\A");
-        String response = s.hasNext() ? s.next() : "";
-        if (StringUtils.isNotBlank(response)) {
-            log.info("Token received");
-        } else {
-            log.error("Token not received");
-        }
-        s.close();
-        responseStream.close();
-        Map<String, Object> map = objectMapper.readValue(response, new TypeReference<>() {
-        });
-        return (String) map.get("access_token");
+        return zoomTokenService.getAccessToken();
     }
 
     public ZoomVerifyResponseDto processVerifyRequest(ZoomVerifyRequestDto verifyDto) {
@@ -98,11 +61,6 @@ public class ZoomService {
         return requestSignature.equals(signature);
     }
 
-    private static String getBasicAuthenticationHeader(String username, String password) {
-        String valueToEncode = username + ":" + password;
-        return "Basic " + Base64.getEncoder().encodeToString(valueToEncode.getBytes());
-    }
-
     public ZoomMeetingResponse createMeeting(ZoomMeetingSettings zoomMeeting, User user) {
         validateZoomMeetingStartDateTime(zoomMeeting);
         if (user.getZoomAccount() == null) {
@@ -0,0 +1,154 @@
+package de.aittr.lmsbe.zoom.service;
+
+import de.aittr.lmsbe.configuration.ZoomConfiguration;
+import de.aittr.lmsbe.exception.RestException;
+import de.aittr.lmsbe.zoom.dto.ZoomTokenResponseDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static de.aittr.lmsbe.configuration.ExecutorConfiguration.DEFAULT_EXECUTOR;
+import static de.aittr.lmsbe.configuration.ZoomConstants.ZOOM_OAUTH_URL;
+
+/**
+ * The ZoomTokenService class keeps the access token of the Zoom account, so a meeting is created
+ * without requesting a new token first.
+ * <p>
+ * The token is requested again in the background when it is about to expire, while the current token is still
+ * handed out. Concurrent callers share a single token request.
+ */
+@Service
+@Slf4j
+public class ZoomTokenService {
+
+    private final RestTemplate restTemplate;
+    private final ZoomConfiguration zoomConfiguration;
+    private final Executor refreshExecutor;
+
+    /**
+     * The time before the expiration of the token when a new token is requested in the background.
+     */
+    private final Duration refreshMargin;
+
+    /**
+     * The time before the expiration of the token when it is not handed out anymore.
+     */
+    private final Duration expiryMargin;
+
+    private final AtomicReference<CompletableFuture<ZoomAccessToken>> pendingRequest = new AtomicReference<>();
+
+    private volatile ZoomAccessToken accessToken;
+
+    public ZoomTokenService(RestTemplate restTemplate,
+                            ZoomConfiguration zoomConfiguration,
+                            @Qualifier(DEFAULT_EXECUTOR) Executor refreshExecutor,
+                            @Value("${zoom-token.refreshMarginSeconds:300}") long refreshMarginSeconds,
+                            @Value("${zoom-token.expiryMarginSeconds:30}") long expiryMarginSeconds) {
+        this.restTemplate = restTemplate;
+        this.zoomConfiguration = zoomConfiguration;
+        this.refreshExecutor = refreshExecutor;
+        this.refreshMargin = Duration.ofSeconds(refreshMarginSeconds);
+        this.expiryMargin = Duration.ofSeconds(expiryMarginSeconds);
+    }
+
+    /**
+     * Returns a valid access token of the Zoom account.
+     *
+     * @return the access token
+     * @throws RestException if a new token is needed and cannot be requested
+     */
+    public String getAccessToken() {
+        final ZoomAccessToken current = accessToken;
+        final Instant now = Instant.now();
+        if (current != null && now.isBefore(current.getExpiresAt().minus(expiryMargin))) {
+            if (!now.isBefore(current.getExpiresAt().minus(refreshMargin))) {
+                requestToken();
+            }
+            return current.getValue();
+        }
+        try {
+            return requestToken().join().getValue();
+        } catch (CompletionException e) {
+            log.error("Zoom access token not received: {}", e.getCause().getMessage(), e.getCause());
+            throw new RestException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to authorize at Zoom. Please try again later.");
+        }
+    }
+
+    /**
+     * Starts a token request unless one is running already.
+     *
+     * @return the running token request
+     */
+    private CompletableFuture<ZoomAccessToken> requestToken() {
+        while (true) {
+            final CompletableFuture<ZoomAccessToken> running = pendingRequest.get();
+            if (running != null) {
+                return running;
+            }
+            final CompletableFuture<ZoomAccessToken> request = new CompletableFuture<>();
+            if (pendingRequest.compareAndSet(null, request)) {
+                refreshExecutor.execute(() -> {
+                    try {
+                        final ZoomAccessToken token = loadToken();
+                        accessToken = token;
+                        request.complete(token);
+                    } catch (RuntimeException e) {
+                        log.warn("Zoom token request failed: {}", e.getMessage());
+                        request.completeExceptionally(e);
+                    } finally {
+                        pendingRequest.compareAndSet(request, null);
+                    }
+                });
+                return request;
+            }
+        }
+    }
+
+    private ZoomAccessToken loadToken() {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setBasicAuth(zoomConfiguration.getClientId(), zoomConfiguration.getClientSecret());
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        final MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("grant_type", "account_credentials");
+        form.add("account_id", zoomConfiguration.getAccountId());
+
+        final Instant requestedAt = Instant.now();
+        final ZoomTokenResponseDto response;
+        try {
+            response = restTemplate.postForObject(ZOOM_OAUTH_URL, new HttpEntity<>(form, headers), ZoomTokenResponseDto.class);
+        } catch (RestClientException e) {
+            throw new IllegalStateException("Zoom token request failed: " + e.getMessage(), e);
+        }
+        if (response == null || StringUtils.isBlank(response.getAccessToken()) || response.getExpiresIn() == null) {
+            throw new IllegalStateException("Zoom token response does not contain a token");
+        }
+        log.info("Token received, valid for {} seconds", response.getExpiresIn());
+        return new ZoomAccessToken(response.getAccessToken(), requestedAt.plusSeconds(response.getExpiresIn()));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class ZoomAccessToken {
+        private final String value;
+        private final Instant expiresAt;
+    }
+}
@@ -0,0 +1,367 @@
+package de.aittr.lmsbe.zoom.utils;
+
+import de.aittr.lmsbe.exception.TopicParseException;
+import de.aittr.lmsbe.zoom.model.LessonTopicObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parses the topic of a Zoom meeting, e.g. {@code cohort: ["25", "26"], module: "basic_programming",
+ * type: "lecture", lesson: "1", topic: "HTML intro"}, into a {@link LessonTopicObject} in a single pass.
+ * <p>
+ * The lenient mode accepts what a person typing a topic in Zoom may write: enclosing braces, single quotes,
+ * unquoted values, a single cohort without an array, unknown keys and trailing commas. The strict mode accepts
+ * the topics generated by {@code ZoomMeetingTitleGenerator} only: double quoted strings, the known keys once each,
+ * and no braces or trailing commas. Both modes report an error with the position of the offending character.
+ * <p>
+ * A string value is taken from the topic as is unless it contains an escape sequence.
+ */
+public final class LessonTopicParser {
+
+    private static final String[] FIELDS = {"cohort", "module", "type", "lesson", "topic"};
+    private static final int COHORT = 0;
+    private static final int MODULE = 1;
+    private static final int TYPE = 2;
+    private static final int LESSON = 3;
+    private static final int TOPIC = 4;
+    private static final int UNKNOWN = -1;
+
+    private final String input;
+    private final int length;
+    private final boolean strict;
+    private int pos;
+
+    private LessonTopicParser(String input, boolean strict) {
+        this.input = input;
+        this.length = input.length();
+        this.strict = strict;
+    }
+
+    /**
+     * Parses a topic typed in Zoom or generated by the application.
+     *
+     * @param topic the topic of the meeting
+     * @return the parsed topic, the missing keys are null
+     * @throws TopicParseException if the topic cannot be parsed
+     */
+    public static LessonTopicObject parse(String topic) {
+        return parse(topic, false);
+    }
+
+    /**
+     * Parses a topic in the format generated by the application.
+     *
+     * @param topic the topic of the meeting
+     * @return the parsed topic, the missing keys are null
+     * @throws TopicParseException if the topic does not follow the format
+     */
+    public static LessonTopicObject parseStrict(String topic) {
+        return parse(topic, true);
+    }
+
+    private static LessonTopicObject parse(String topic, boolean strict) {
+        if (topic == null) {
+            throw new TopicParseException("Topic expected", 0);
+        }
+        return new LessonTopicParser(topic, strict).parseTopic();
+    }
+
+    private LessonTopicObject parseTopic() {
+        final LessonTopicObject result = new LessonTopicObject();
+        skipWhitespace();
+        final boolean braced = !strict && pos < length && input.charAt(pos) == '{';
+        if (braced) {
+            pos++;
+        }
+        int parsedFields = 0;
+        do {
+            skipWhitespace();
+            if (!strict && (pos == length || input.charAt(pos) == '}')) {
+                // an empty topic or a trailing comma
+                break;
+            }
+            final int keyStart = pos;
+            final int field = parseKey();
+            if (strict) {
+                if (field == UNKNOWN) {
+                    throw new TopicParseException("Unknown key", keyStart);
+                }
+                if ((parsedFields & (1 << field)) != 0) {
+                    throw new TopicParseException("Duplicate key '" + FIELDS[field] + "'", keyStart);
+                }
+                parsedFields |= 1 << field;
+            }
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            parseValue(result, field);
+            skipWhitespace();
+        } while (consume(','));
+        if (braced) {
+            expect('}');
+            skipWhitespace();
+        }
+        if (pos < length) {
+            throw new TopicParseException("Unexpected character '" + input.charAt(pos) + "'", pos);
+        }
+        return result;
+    }
+
+    /**
+     * Reads a key, quoted or not.
+     *
+     * @return the index of the field in {@link #FIELDS}, or {@link #UNKNOWN}
+     */
+    private int parseKey() {
+        if (pos == length) {
+            throw new TopicParseException("Key expected", pos);
+        }
+        final char c = input.charAt(pos);
+        if (isQuote(c)) {
+            return findField(parseString());
+        }
+        final int start = pos;
+        while (pos < length && isKeyChar(input.charAt(pos))) {
+            pos++;
+        }
+        if (pos == start) {
+            throw new TopicParseException("Key expected", pos);
+        }
+        return findField(start, pos);
+    }
+
+    private void parseValue(LessonTopicObject result, int field) {
+        if (field == UNKNOWN) {
+            skipValue();
+            return;
+        }
+        if (field == COHORT) {
+            result.setCohort(pos < length && input.charAt(pos) == '['
+                    ? parseArray()
+                    : Collections.singletonList(parseScalar()));
+            return;
+        }
+        final String value = parseScalar();
+        switch (field) {
+            case MODULE:
+                result.setModule(value);
+                break;
+            case TYPE:
+                result.setType(value);
+                break;
+            case LESSON:
+                result.setLesson(value);
+                break;
+            case TOPIC:
+                result.setTopic(value);
+                break;
+            default:
+        }
+    }
+
+    private List<String> parseArray() {
+        final List<String> values = new ArrayList<>(2);
+        pos++;
+        skipWhitespace();
+        if (consume(']')) {
+            return values;
+        }
+        do {
+            skipWhitespace();
+            if (!strict && pos < length && input.charAt(pos) == ']') {
+                // a trailing comma
+                break;
+            }
+            values.add(parseScalar());
+            skipWhitespace();
+        } while (consume(','));
+        expect(']');
+        return values;
+    }
+
+    /**
+     * Reads a string, or in the lenient mode also an unquoted value, which is null if it is {@code null}.
+     */
+    private String parseScalar() {
+        if (pos == length) {
+            throw new TopicParseException("Value expected", pos);
+        }
+        final char c = input.charAt(pos);
+        if (isQuote(c)) {
+            return parseString();
+        }
+        if (strict || c == '[' || c == '{') {
+            throw new TopicParseException("String expected", pos);
+        }
+        final int start = pos;
+        while (pos < length && !isValueEnd(input.charAt(pos))) {
+            pos++;
+        }
+        int end = pos;
+        while (end > start && Character.isWhitespace(input.charAt(end - 1))) {
+            end--;
+        }
+        if (end == start) {
+            throw new TopicParseException("Value expected", start);
+        }
+        return input.startsWith("null", start) && end - start == 4 ? null : input.substring(start, end);
+    }
+
+    private String parseString() {
+        final int openingPos = pos;
+        final char quote = input.charAt(pos++);
+        StringBuilder unescaped = null;
+        int start = pos;
+        while (pos < length) {
+            final char c = input.charAt(pos);
+            if (c == quote) {
+                final String value = unescaped == null
+                        ? input.substring(start, pos)
+                        : unescaped.append(input, start, pos).toString();
+                pos++;
+                return value;
+            }
+            if (c == '\\') {
+                if (unescaped == null) {
+                    unescaped = new StringBuilder(pos - start + 16);
+                }
+                unescaped.append(input, start, pos);
+                pos++;
+                unescaped.append(parseEscape());
+                start = pos;
+            } else if (strict && c < ' ') {
+                throw new TopicParseException("Control character in string", pos);
+            } else {
+                pos++;
+            }
+        }
+        throw new TopicParseException("Unterminated string", openingPos);
+    }
+
+    private char parseEscape() {
+        if (pos == length) {
+            throw new TopicParseException("Unterminated string", pos);
+        }
+        final char c = input.charAt(pos++);
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                return parseUnicodeEscape();
+            default:
+                if (strict) {
+                    throw new TopicParseException("Invalid escape sequence", pos - 2);
+                }
+                return c;
+        }
+    }
+
+    private char parseUnicodeEscape() {
+        if (pos + 4 > length) {
+            throw new TopicParseException("Invalid unicode escape", pos - 2);
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            final int digit = Character.digit(input.charAt(pos + i), 16);
+            if (digit < 0) {
+                throw new TopicParseException("Invalid unicode escape", pos - 2);
+            }
+            value = value * 16 + digit;
+        }
+        pos += 4;
+        return (char) value;
+    }
+
+    /**
+     * Skips the value of an unknown key, including nested arrays and objects.
+     */
+    private void skipValue() {
+        final int start = pos;
+        int depth = 0;
+        while (pos < length) {
+            final char c = input.charAt(pos);
+            if (isQuote(c)) {
+                parseString();
+                continue;
+            }
+            if (c == '[' || c == '{') {
+                depth++;
+            } else if (c == ']' || c == '}') {
+                if (depth == 0) {
+                    break;
+                }
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                break;
+            }
+            pos++;
+        }
+        if (depth > 0) {
+            throw new TopicParseException("Unterminated value", start);
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < length && Character.isWhitespace(input.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private boolean consume(char c) {
+        if (pos < length && input.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!consume(c)) {
+            throw new TopicParseException("'" + c + "' expected", pos);
+        }
+    }
+
+    private boolean isQuote(char c) {
+        return c == '"' || (!strict && c == '\'');
+    }
+
+    private boolean isKeyChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '$';
+    }
+
+    private static boolean isValueEnd(char c) {
+        return c == ',' || c == ']' || c == '}';
+    }
+
+    private int findField(int start, int end) {
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (FIELDS[i].length() == end - start && input.startsWith(FIELDS[i], start)) {
+                return i;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private static int findField(String key) {
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (FIELDS[i].equals(key)) {
+                return i;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -6,7 +6,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.util.Strings;
 
 import java.util.Arrays;
-import java.util.List;
 
 import static de.aittr.lmsbe.utils.AppUtils.localDateTimeToFilePathSafeString;
 import static de.aittr.lmsbe.utils.AppUtils.parseZoomDateTime;
@@ -72,11 +71,6 @@ public class S3FileNameUtils {
     }
 
 
-    public static String getFirstCohortFileName(List<String> firstCohortVideoFileNames,
-                                                int part) {
-        return firstCohortVideoFileNames.get(part);
-    }
-
     public static String getDirectoryPrefixForValidTopic(LessonTopicObject lessonTopicObject,
                                                          ZoomObjectData zoomObjectData,
                                                          int cohort) {
@@ -1,9 +1,21 @@
 package de.aittr.lmsbe.github.service;
 
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
 import de.aittr.lmsbe.model.Cohort;
 import de.aittr.lmsbe.model.User;
 import de.aittr.lmsbe.service.FileService;
+import de.aittr.lmsbe.service.VideoIndexService;
+import de.aittr.lmsbe.zoom.model.VideoAliasMode;
+import de.aittr.lmsbe.zoom.service.VideoAliasService;
+import de.aittr.lmsbe.zoom.service.VideoTransferJobService;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -11,12 +23,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static de.aittr.lmsbe.model.User.Role.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class FileServiceTest {
@@ -27,6 +48,18 @@ class FileServiceTest {
     @Mock
     Cohort mockGroup;
 
+    @Mock
+    AmazonS3 s3Service;
+
+    @Mock
+    VideoIndexService videoIndexService;
+
+    @Mock
+    VideoAliasService videoAliasService;
+
+    @Mock
+    VideoTransferJobService videoTransferJobService;
+
     @Nested
     class FileAccessTest {
 
@@ -190,4 +223,108 @@ class FileServiceTest {
             assertFalse(result);
         }
     }
+
+    @Nested
+    class PresignedLinkTest {
+
+        private static final String BUCKET = "lesson-videos";
+        private static final String PREFIX = "cohort_36/basic_programming/lecture/1/";
+
+        @BeforeEach
+        void setUp() {
+            ReflectionTestUtils.setField(fileService, "lessonVideoBucketName", BUCKET);
+            ReflectionTestUtils.setField(fileService, "videoExpirationMinutes", 300);
+            ReflectionTestUtils.setField(fileService, "videoLinkReuseMarginMinutes", 60);
+            ReflectionTestUtils.setField(fileService, "videoLinkCacheMaxSize", 100L);
+            fileService.initLinkCaches();
+        }
+
+        @Test
+        @DisplayName("Presigned links and resolved aliases should be reused for repeated requests")
+        void testPresignedLinksAreReused() throws Exception {
+            ObjectMetadata aliasMetadata = new ObjectMetadata();
+            aliasMetadata.setUserMetadata(Map.of(FileService.USER_METADATA_ALIAS_FOR, "cohort_35/original.mp4"));
+            when(videoIndexService.isReady()).thenReturn(true);
+            when(videoIndexService.getKeysByPrefix(PREFIX)).thenReturn(List.of(PREFIX, PREFIX + "part1.mp4"));
+            when(s3Service.getObjectMetadata(BUCKET, PREFIX + "part1.mp4")).thenReturn(aliasMetadata);
+            when(s3Service.generatePresignedUrl(any(GeneratePresignedUrlRequest.class)))
+                    .thenReturn(new URL("https://s3.example.com/cohort_35/original.mp4?signature=1"));
+
+            List<String> first = fileService.getPresignedLinksByPrefix(BUCKET, PREFIX);
+            List<String> second = fileService.getPresignedLinksByPrefix(BUCKET, PREFIX);
+
+            assertEquals(List.of("https://s3.example.com/cohort_35/original.mp4?signature=1"), first);
+            assertEquals(first, second);
+            verify(s3Service, times(1)).getObjectMetadata(BUCKET, PREFIX + "part1.mp4");
+            verify(s3Service, times(1)).generatePresignedUrl(any(GeneratePresignedUrlRequest.class));
+            verify(s3Service, never()).listObjectsV2(any(ListObjectsV2Request.class));
+        }
+    }
+
+    @Nested
+    class AliasTest {
+
+        private static final String BUCKET = "lesson-videos";
+        private static final String ORIGINAL = "cohort_36/basic_programming/lecture/1/part1.mp4";
+        private static final String PREFIX = "cohort_37/basic_programming/lecture/1/";
+        private static final String ALIAS = PREFIX + "part1.mp4";
+
+        @BeforeEach
+        void setUp() {
+            ReflectionTestUtils.setField(fileService, "lessonVideoBucketName", BUCKET);
+            ReflectionTestUtils.setField(fileService, "videoExpirationMinutes", 300);
+            ReflectionTestUtils.setField(fileService, "videoLinkReuseMarginMinutes", 60);
+            ReflectionTestUtils.setField(fileService, "videoLinkCacheMaxSize", 100L);
+            fileService.initLinkCaches();
+        }
+
+        @Test
+        @DisplayName("A pointer alias should be stored without an S3 object and listed without S3 requests")
+        void testPointerAlias() throws Exception {
+            ReflectionTestUtils.setField(fileService, "videoAliasMode", VideoAliasMode.POINTER);
+            when(videoIndexService.isReady()).thenReturn(true);
+            when(videoIndexService.getKeysByPrefix(PREFIX)).thenReturn(List.of());
+            when(videoAliasService.getAliasKeysByPrefix(BUCKET, PREFIX)).thenReturn(List.of(ALIAS));
+            when(videoAliasService.findTarget(BUCKET, ALIAS)).thenReturn(Optional.of(ORIGINAL));
+            when(s3Service.generatePresignedUrl(any(GeneratePresignedUrlRequest.class)))
+                    .thenReturn(new URL("https://s3.example.com/" + ORIGINAL + "?signature=1"));
+
+            fileService.createAlias(BUCKET, ORIGINAL, ALIAS);
+            List<String> links = fileService.getPresignedLinksByPrefix(BUCKET, PREFIX);
+
+            assertEquals(List.of("https://s3.example.com/" + ORIGINAL + "?signature=1"), links);
+            verify(videoAliasService).register(BUCKET, ALIAS, ORIGINAL);
+            verify(s3Service, never()).putObject(any(PutObjectRequest.class));
+            verify(s3Service, never()).getObjectMetadata(anyString(), anyString());
+            verify(s3Service, never()).listObjectsV2(any(ListObjectsV2Request.class));
+        }
+
+        @Test
+        @DisplayName("The keys of a prefix should include the pointer aliases")
+        void testKeysByPrefixIncludePointerAliases() {
+            S3ObjectSummary objectSummary = new S3ObjectSummary();
+            objectSummary.setKey(PREFIX + "part2.mp4");
+            ListObjectsV2Result listing = new ListObjectsV2Result();
+            listing.getObjectSummaries().add(objectSummary);
+            when(s3Service.listObjectsV2(any(ListObjectsV2Request.class))).thenReturn(listing);
+            when(videoAliasService.getAliasKeysByPrefix(BUCKET, PREFIX)).thenReturn(List.of(ALIAS));
+
+            assertEquals(List.of(ALIAS, PREFIX + "part2.mp4"), fileService.getKeysByPrefix(BUCKET, PREFIX));
+        }
+
+        @Test
+        @DisplayName("A copied alias should be a regular object of the lesson video bucket")
+        void testCopyAlias() {
+            ReflectionTestUtils.setField(fileService, "videoAliasMode", VideoAliasMode.COPY);
+            ObjectMetadata originalMetadata = new ObjectMetadata();
+            originalMetadata.setContentLength(1024);
+            when(s3Service.getObjectMetadata(BUCKET, ORIGINAL)).thenReturn(originalMetadata);
+
+            fileService.createAlias(BUCKET, ORIGINAL, ALIAS);
+
+            verify(s3Service).copyObject(BUCKET, ORIGINAL, BUCKET, ALIAS);
+            verify(videoIndexService).addKey(BUCKET, ALIAS);
+            verifyNoInteractions(videoAliasService);
+        }
+    }
 }
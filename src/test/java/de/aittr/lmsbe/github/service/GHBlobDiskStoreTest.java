@@ -0,0 +1,52 @@
+package de.aittr.lmsbe.github.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GHBlobDiskStoreTest {
+
+    /**
+     * The SHA1 git assigns to a blob with the content "hello\n", as printed by {@code git hash-object}.
+     */
+    private static final String HELLO_SHA1 = "ce013625030ba8dba906f756967f9e9ca394464a";
+    private static final byte[] HELLO = "hello\n".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path storeDir;
+
+    @Test
+    @DisplayName("The SHA1 of a blob should be computed like git does")
+    void shouldComputeGitBlobSHA1() {
+        assertEquals(HELLO_SHA1, GHBlobDiskStore.gitBlobSHA1(HELLO));
+    }
+
+    @Test
+    @DisplayName("A stored blob should be read again, also after a restart")
+    void shouldReadStoredBlob() {
+        GHBlobDiskStore underTest = new GHBlobDiskStore(storeDir.toString(), 10);
+        assertNull(underTest.read(HELLO_SHA1));
+
+        underTest.write(HELLO_SHA1, HELLO);
+        assertArrayEquals(HELLO, underTest.read(HELLO_SHA1));
+
+        GHBlobDiskStore restarted = new GHBlobDiskStore(storeDir.toString(), 10);
+        restarted.loadIndex();
+        assertArrayEquals(HELLO, restarted.read(HELLO_SHA1));
+    }
+
+    @Test
+    @DisplayName("Content which does not match its SHA1 should not be stored")
+    void shouldNotStoreMismatchingContent() {
+        GHBlobDiskStore underTest = new GHBlobDiskStore(storeDir.toString(), 10);
+
+        underTest.write(HELLO_SHA1, "other\n".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(underTest.read(HELLO_SHA1));
+    }
+}
@@ -0,0 +1,89 @@
+package de.aittr.lmsbe.github.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.*;
+import de.aittr.lmsbe.github.model.GHUploadFile;
+import okio.Buffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.GHRepository;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GHBlobUploadServiceTest {
+
+    @Mock
+    private OkHttpClient httpClient;
+
+    @Mock
+    private GHFetchService ghFetchService;
+
+    @Mock
+    private GHRepository repository;
+
+    @Mock
+    private Call call;
+
+    private GHBlobUploadService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new GHBlobUploadService(httpClient, new ObjectMapper(), ghFetchService,
+                "https://api.github.com", "token", 60);
+        when(repository.getFullName()).thenReturn("ait-tr/cohort-36");
+    }
+
+    @Test
+    @DisplayName("The file should be sent as base64 encoded blob and the SHA1 of the blob should be returned")
+    void shouldStreamFileAsBase64Blob() throws IOException {
+        byte[] content = "public class Main {}".getBytes(StandardCharsets.UTF_8);
+        GHUploadFile file = new GHUploadFile(new MockMultipartFile("file", "Main.java", "text/plain", content), "Main.java");
+        ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+        when(httpClient.newCall(requestCaptor.capture())).thenReturn(call);
+        when(call.execute()).thenAnswer(invocation -> response(requestCaptor.getValue(), 201, "{\"sha\":\"abc123\"}"));
+
+        String sha = underTest.createBlob(repository, file);
+
+        assertEquals("abc123", sha);
+        Request request = requestCaptor.getValue();
+        assertEquals("https://api.github.com/repos/ait-tr/cohort-36/git/blobs", request.url().toString());
+        Buffer body = new Buffer();
+        request.body().writeTo(body);
+        String expected = "{\"encoding\":\"base64\",\"content\":\"" + Base64.getEncoder().encodeToString(content) + "\"}";
+        assertEquals(expected, body.readUtf8());
+        assertEquals(expected.length(), request.body().contentLength());
+    }
+
+    @Test
+    @DisplayName("An error response should be reported as IOException")
+    void shouldFailOnErrorResponse() throws IOException {
+        GHUploadFile file = new GHUploadFile(new MockMultipartFile("file", "Main.java", "text/plain", new byte[]{1}), "Main.java");
+        ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+        when(httpClient.newCall(requestCaptor.capture())).thenReturn(call);
+        when(call.execute()).thenAnswer(invocation -> response(requestCaptor.getValue(), 422, "{}"));
+
+        assertThrows(IOException.class, () -> underTest.createBlob(repository, file));
+    }
+
+    private static Response response(Request request, int code, String body) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .body(ResponseBody.create(body, MediaType.get("application/json")))
+                .build();
+    }
+}
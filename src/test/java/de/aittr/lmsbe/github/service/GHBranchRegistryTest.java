@@ -0,0 +1,79 @@
+package de.aittr.lmsbe.github.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.GHBranch;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GHBranchRegistryTest {
+
+    @Mock
+    private GHRepository repository;
+
+    @Mock
+    private GHBranch branch;
+
+    private GHBranchRegistry underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new GHBranchRegistry(10, 60);
+        when(repository.getFullName()).thenReturn("ait-tr/cohort-36");
+    }
+
+    @Test
+    @DisplayName("The branches should be listed only once per repository")
+    void shouldListBranchesOnce() throws IOException {
+        when(repository.getBranches()).thenReturn(Map.of("main", branch, "hw-student", branch));
+
+        assertTrue(underTest.exists(repository, "hw-student"));
+        assertTrue(underTest.exists(repository, "main"));
+
+        verify(repository, times(1)).getBranches();
+        verify(repository, never()).getBranch(anyString());
+    }
+
+    @Test
+    @DisplayName("An unknown branch should be looked up as single branch and a created branch should be known")
+    void shouldLookUpUnknownBranch() throws IOException {
+        when(repository.getBranches()).thenReturn(Map.of("main", branch));
+        when(repository.getBranch("hw-other")).thenReturn(branch);
+        when(repository.getBranch("hw-new")).thenThrow(new GHFileNotFoundException("Not Found"));
+
+        assertTrue(underTest.exists(repository, "hw-other"));
+        assertFalse(underTest.exists(repository, "hw-new"));
+        underTest.registerCreated(repository, "hw-new");
+        assertTrue(underTest.exists(repository, "hw-new"));
+
+        verify(repository, times(1)).getBranch("hw-new");
+        verify(repository, times(1)).getBranches();
+        verify(repository, never()).getRef(anyString());
+    }
+
+    @Test
+    @DisplayName("A name which is only the prefix of a branch should not be registered as branch")
+    void shouldNotRegisterPrefixOfBranch() throws IOException {
+        when(repository.getBranches()).thenReturn(Map.of("main", branch));
+        when(repository.getBranch("hw")).thenThrow(new GHFileNotFoundException("Not Found"));
+        when(repository.getBranch("hw-student")).thenReturn(branch);
+
+        assertTrue(underTest.exists(repository, "hw-student"));
+        assertFalse(underTest.exists(repository, "hw"));
+        assertFalse(underTest.exists(repository, "hw"));
+
+        verify(repository, times(2)).getBranch("hw");
+    }
+}
@@ -0,0 +1,82 @@
+package de.aittr.lmsbe.github.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GHFetchServiceTest {
+
+    private final GHFetchService underTest = new GHFetchService(
+            new GHRequestScheduler(new SimpleMeterRegistry(), 1, 0, 1), 4, 10, 1, 1, 5);
+
+    @AfterEach
+    void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    @DisplayName("A running write call should not hold the connections of the read calls")
+    void shouldReadWhileWriting() throws Exception {
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        CompletableFuture<List<String>> write = CompletableFuture.supplyAsync(() -> {
+            try {
+                return underTest.writeAll(List.of("blob"), source -> () -> {
+                    writeStarted.countDown();
+                    awaitQuietly(releaseWrite);
+                    return source;
+                }, Instant.now().plusSeconds(5));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(writeStarted.await(1, TimeUnit.SECONDS));
+
+        List<String> read = underTest.fetchAll(List.of("a", "b"), source -> () -> source, Instant.now().plusMillis(500));
+
+        assertEquals(List.of("a", "b"), read);
+        releaseWrite.countDown();
+        assertEquals(List.of("blob"), write.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("A write call should wait for a free write connection only until the deadline")
+    void shouldLimitConcurrentWrites() throws InterruptedException {
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> {
+            try {
+                underTest.writeAll(List.of("first"), source -> () -> {
+                    writeStarted.countDown();
+                    return awaitQuietly(releaseWrite);
+                }, Instant.now().plusSeconds(5));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(writeStarted.await(1, TimeUnit.SECONDS));
+
+        assertThrows(IOException.class, () -> underTest.writeAll(List.of("second"), source -> () -> source,
+                Instant.now().plusMillis(200)));
+        releaseWrite.countDown();
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
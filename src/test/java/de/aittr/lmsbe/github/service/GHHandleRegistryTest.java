@@ -0,0 +1,67 @@
+package de.aittr.lmsbe.github.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GHHandleRegistryTest {
+
+    @Mock
+    private GitHub githubConnector;
+
+    @Mock
+    private GHRepository repository;
+
+    private GHHandleRegistry underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new GHHandleRegistry(githubConnector, 10, 60, 10, 60);
+    }
+
+    @Test
+    @DisplayName("The repository handle should be fetched from GitHub only once")
+    void shouldCacheRepositoryHandle() throws IOException {
+        when(githubConnector.getRepository("ait-tr/cohort-36")).thenReturn(repository);
+
+        assertSame(repository, underTest.getRepository("ait-tr", "cohort-36"));
+        assertSame(repository, underTest.getRepository("ait-tr", "cohort-36"));
+
+        verify(githubConnector, times(1)).getRepository("ait-tr/cohort-36");
+    }
+
+    @Test
+    @DisplayName("A missing repository should throw the IOException of GitHub and should not be cached")
+    void shouldNotCacheMissingRepository() throws IOException {
+        when(githubConnector.getRepository("ait-tr/unknown")).thenThrow(new GHFileNotFoundException("Not Found"));
+
+        assertThrows(GHFileNotFoundException.class, () -> underTest.getRepository("ait-tr", "unknown"));
+        assertThrows(GHFileNotFoundException.class, () -> underTest.getRepository("ait-tr", "unknown"));
+
+        verify(githubConnector, times(2)).getRepository("ait-tr/unknown");
+    }
+
+    @Test
+    @DisplayName("An invalidated handle should be fetched again")
+    void shouldReloadInvalidatedHandle() throws IOException {
+        when(githubConnector.getRepository("ait-tr/cohort-36")).thenReturn(repository);
+
+        underTest.getRepository("ait-tr", "cohort-36");
+        underTest.invalidate("ait-tr", "cohort-36");
+        underTest.getRepository("ait-tr", "cohort-36");
+
+        verify(githubConnector, times(2)).getRepository("ait-tr/cohort-36");
+    }
+}
@@ -0,0 +1,63 @@
+package de.aittr.lmsbe.github.service;
+
+import de.aittr.lmsbe.github.model.GHLessonCacheKey;
+import de.aittr.lmsbe.github.model.GHLessonContent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GHLessonCacheServiceTest {
+
+    private final GHLessonCacheService underTest = new GHLessonCacheService(1, 10);
+
+    @Test
+    @DisplayName("Lesson content should be loaded only once for the same repository, SHA1 and path")
+    void shouldLoadContentOnceForSameKey() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+        GHLessonCacheKey key = new GHLessonCacheKey("cohort-36", "sha1", "basic_programming/lesson_01");
+
+        GHLessonContent first = underTest.getOrLoad(key, () -> {
+            loads.incrementAndGet();
+            return new GHLessonContent("plan", "theory", "homework", List.of(), List.of());
+        });
+        GHLessonContent second = underTest.getOrLoad(key, () -> {
+            loads.incrementAndGet();
+            return new GHLessonContent("other", "other", "other", List.of(), List.of());
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("A new branch SHA1 should not return content cached for the previous commit")
+    void shouldLoadContentAgainForNewSha() throws IOException {
+        GHLessonCacheKey oldKey = new GHLessonCacheKey("cohort-36", "sha1", "basic_programming/lesson_01");
+        GHLessonCacheKey newKey = new GHLessonCacheKey("cohort-36", "sha2", "basic_programming/lesson_01");
+
+        underTest.getOrLoad(oldKey, () -> new GHLessonContent("old", null, null, List.of(), List.of()));
+        GHLessonContent result = underTest.getOrLoad(newKey,
+                () -> new GHLessonContent("new", null, null, List.of(), List.of()));
+
+        assertEquals("new", result.getPlanData());
+    }
+
+    @Test
+    @DisplayName("IOException of the loader should be propagated and nothing should be cached")
+    void shouldPropagateLoaderException() throws IOException {
+        GHLessonCacheKey key = new GHLessonCacheKey("cohort-36", "sha1", "basic_programming/lesson_01");
+
+        assertThrows(IOException.class, () -> underTest.getOrLoad(key, () -> {
+            throw new IOException("rate limit");
+        }));
+
+        GHLessonContent result = underTest.getOrLoad(key,
+                () -> new GHLessonContent("plan", null, null, List.of(), List.of()));
+        assertEquals("plan", result.getPlanData());
+    }
+}
@@ -0,0 +1,98 @@
+package de.aittr.lmsbe.github.service;
+
+import de.aittr.lmsbe.github.model.GHNavigationIndex;
+import de.aittr.lmsbe.github.uttils.GHBranchHandlerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GHTree;
+import org.kohsuke.github.GHTreeEntry;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static de.aittr.lmsbe.github.model.GHLessonType.CONSULTATION;
+import static de.aittr.lmsbe.github.model.GHLessonType.LESSON;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GHNavigationIndexServiceTest {
+
+    private static final String COHORT = "cohort-36";
+
+    @Mock
+    private GHBranchHandlerService ghBranchHandlerService;
+
+    @Mock
+    private GHRepository repository;
+
+    private final GHRequestScheduler ghRequestScheduler = new GHRequestScheduler(new SimpleMeterRegistry(), 1, 0, 1);
+    private final GHFetchService ghFetchService = new GHFetchService(ghRequestScheduler, 2, 10, 2, 1, 5);
+
+    private GHNavigationIndexService underTest;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(ghBranchHandlerService.getRepo(COHORT)).thenReturn(repository);
+        when(ghBranchHandlerService.getDefaultBranchSHA1(repository)).thenReturn("head-1");
+        stubTree("head-1", entry("basic_programming", "tree", "module-sha"), entry("README.md", "blob", "readme-sha"));
+        stubTree("module-sha", entry("consultation", "tree", "consultation-sha"), entry("lesson_01", "tree", "l1"),
+                entry("lesson_02", "tree", "l2"), entry("lesson_draft", "tree", "l3"));
+        stubTree("consultation-sha", entry("consultation_01", "tree", "c1"));
+
+        underTest = new GHNavigationIndexService(ghBranchHandlerService, ghFetchService, ghRequestScheduler, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ghFetchService.shutdown();
+    }
+
+    @Test
+    @DisplayName("The index should contain the modules, the numbered lessons and the consultations")
+    void shouldBuildIndexFromTrees() throws IOException {
+        GHNavigationIndex index = underTest.getIndex(COHORT);
+
+        assertEquals(List.of("basic_programming"), index.getModules());
+        assertEquals(List.of("lesson_01", "lesson_02"), index.getLessons("basic_programming", LESSON));
+        assertEquals(List.of("consultation_01"), index.getLessons("basic_programming", CONSULTATION));
+        assertEquals(List.of(), index.getLessons("unknown", LESSON));
+    }
+
+    @Test
+    @DisplayName("The index should be served from memory and rebuilt only when the branch head moves")
+    void shouldRebuildOnlyWhenHeadMoves() throws IOException {
+        GHNavigationIndex first = underTest.getIndex(COHORT);
+        underTest.refresh(COHORT);
+        assertSame(first, underTest.getIndex(COHORT));
+        verify(repository, times(1)).getTree("head-1");
+
+        when(ghBranchHandlerService.getDefaultBranchSHA1(repository)).thenReturn("head-2");
+        stubTree("head-2", entry("basic_programming", "tree", "module-sha"));
+        underTest.refresh(COHORT);
+
+        assertEquals("head-2", underTest.getIndex(COHORT).getHeadSHA1());
+    }
+
+    private void stubTree(String sha, GHTreeEntry... entries) throws IOException {
+        GHTree tree = mock(GHTree.class);
+        when(tree.getTree()).thenReturn(Arrays.asList(entries));
+        when(repository.getTree(sha)).thenReturn(tree);
+    }
+
+    private static GHTreeEntry entry(String path, String type, String sha) {
+        GHTreeEntry entry = mock(GHTreeEntry.class);
+        lenient().when(entry.getPath()).thenReturn(path);
+        lenient().when(entry.getType()).thenReturn(type);
+        lenient().when(entry.getSha()).thenReturn(sha);
+        return entry;
+    }
+}
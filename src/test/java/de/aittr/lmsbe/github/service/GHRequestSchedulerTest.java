@@ -0,0 +1,89 @@
+package de.aittr.lmsbe.github.service;
+
+import de.aittr.lmsbe.github.exception.GithubRateLimitException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import static de.aittr.lmsbe.github.model.GHRequestPriority.BACKGROUND;
+import static de.aittr.lmsbe.github.model.GHRequestPriority.INTERACTIVE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GHRequestSchedulerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GHRequestScheduler underTest = new GHRequestScheduler(meterRegistry, 1, 100, 0);
+
+    private final long resetInOneHour = Instant.now().plusSeconds(3600).getEpochSecond();
+
+    @Test
+    @DisplayName("Requests should be executed while the rate limit is unknown")
+    void shouldExecuteWhenRateLimitUnknown() throws IOException {
+        assertEquals("ok", underTest.execute(BACKGROUND, () -> "ok"));
+        assertEquals(-1, meterRegistry.get("github.ratelimit.remaining").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Interactive requests should use the reserve, background requests should be shed")
+    void shouldShedBackgroundRequestsBelowReserve() throws IOException {
+        underTest.updateRateLimit(50, resetInOneHour);
+
+        assertEquals("ok", underTest.execute(INTERACTIVE, () -> "ok"));
+        assertThrows(GithubRateLimitException.class, () -> underTest.execute(BACKGROUND, () -> "ok"));
+        assertEquals(1, meterRegistry.get("github.requests.shed").tag("priority", "BACKGROUND").counter().count());
+    }
+
+    @Test
+    @DisplayName("Interactive requests should be rejected without calling GitHub when the rate limit is exhausted")
+    void shouldRejectInteractiveRequestsWhenExhausted() {
+        underTest.updateRateLimit(0, resetInOneHour);
+
+        assertThrows(GithubRateLimitException.class, () -> underTest.execute(INTERACTIVE, () -> fail("GitHub called")));
+    }
+
+    @Test
+    @DisplayName("The calls of a background job should be admitted one by one with the priority of the job")
+    void shouldAdmitCallsOfBackgroundJob() throws IOException {
+        assertEquals(INTERACTIVE, underTest.getCallerPriority());
+
+        String result = underTest.runAs(BACKGROUND, () -> {
+            assertEquals(BACKGROUND, underTest.getCallerPriority());
+            return underTest.execute(underTest.getCallerPriority(), () -> "ok");
+        });
+
+        assertEquals("ok", result);
+        assertEquals(INTERACTIVE, underTest.getCallerPriority());
+    }
+
+    @Test
+    @DisplayName("A background job should be shed while the quota is below the reserve")
+    void shouldShedBackgroundJobBelowReserve() {
+        underTest.updateRateLimit(50, resetInOneHour);
+
+        assertThrows(GithubRateLimitException.class, () -> underTest.runAs(BACKGROUND, () -> fail("GitHub called")));
+    }
+
+    @Test
+    @DisplayName("A background call should hold its permit from the admission until it is released")
+    void shouldHoldBackgroundPermitUntilRelease() throws IOException {
+        Instant deadline = Instant.now().plusSeconds(5);
+
+        underTest.admit(BACKGROUND, deadline);
+        assertThrows(GithubRateLimitException.class, () -> underTest.admit(BACKGROUND, deadline));
+
+        underTest.release(BACKGROUND);
+        underTest.admit(BACKGROUND, deadline);
+        underTest.release(BACKGROUND);
+    }
+
+    @Test
+    @DisplayName("Requests should be executed again after the rate limit window was reset")
+    void shouldExecuteAfterReset() throws IOException {
+        underTest.updateRateLimit(0, Instant.now().minusSeconds(1).getEpochSecond());
+
+        assertEquals("ok", underTest.execute(BACKGROUND, () -> "ok"));
+    }
+}
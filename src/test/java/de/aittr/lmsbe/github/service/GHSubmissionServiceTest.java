@@ -0,0 +1,180 @@
+package de.aittr.lmsbe.github.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.aittr.lmsbe.exception.RestException;
+import de.aittr.lmsbe.github.entity.GHSubmission;
+import de.aittr.lmsbe.github.exception.GithubRateLimitException;
+import de.aittr.lmsbe.github.model.GHSubmissionStatus;
+import de.aittr.lmsbe.github.model.GHUploadFile;
+import de.aittr.lmsbe.github.repository.GHSubmissionRepository;
+import de.aittr.lmsbe.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GHSubmissionServiceTest {
+
+    @Mock
+    private GHSubmissionRepository ghSubmissionRepository;
+
+    @Mock
+    private GHServiceImpl ghService;
+
+    @Mock
+    private GhValidationService ghValidationService;
+
+    @TempDir
+    Path spoolDir;
+
+    private final ExecutorService submissionExecutor = Executors.newSingleThreadExecutor();
+
+    private GHSubmissionService underTest;
+
+    private final User user = User.builder().id(1L).email("student@example.com").build();
+
+    @BeforeEach
+    void setUp() {
+        underTest = new GHSubmissionService(ghSubmissionRepository, ghService, ghValidationService,
+                new ObjectMapper(), submissionExecutor, spoolDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        submissionExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A queued submission should commit the spooled files and be completed")
+    void shouldCommitSpooledFiles() throws IOException {
+        GHSubmission submission = submit();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<GHUploadFile>> filesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(ghService, timeout(1000)).pushHomework(eq("cohort-36"), eq("basic_programming"), eq("lesson_01"),
+                eq(user), filesCaptor.capture());
+        verify(ghSubmissionRepository, timeout(1000).times(3)).save(submission);
+
+        GHUploadFile file = filesCaptor.getValue().get(0);
+        assertEquals("Main.java", file.getFileName());
+        assertEquals("src/Main.java", file.getFileDestination());
+        assertEquals(GHSubmissionStatus.COMPLETED, submission.getStatus());
+    }
+
+    @Test
+    @DisplayName("A submission shed because of the rate limit should stay queued with its files")
+    void shouldKeepSubmissionQueuedOnRateLimit() throws IOException {
+        doThrow(new GithubRateLimitException("rate limit")).when(ghService)
+                .pushHomework(anyString(), anyString(), anyString(), any(), anyList());
+
+        GHSubmission submission = submit();
+
+        verify(ghSubmissionRepository, timeout(1000).times(3)).save(submission);
+        assertEquals(GHSubmissionStatus.QUEUED, submission.getStatus());
+        assertTrue(Files.exists(Paths.get(submission.getSpoolPath(), "0")));
+    }
+
+    @Test
+    @DisplayName("A submission whose spooled files are lost should fail")
+    void shouldFailSubmissionWithoutSpooledFiles() throws IOException {
+        GHSubmission submission = GHSubmission.builder()
+                .id(1L)
+                .cohort("cohort-36")
+                .user(user)
+                .status(GHSubmissionStatus.QUEUED)
+                .spoolPath(spoolDir.resolve("lost").toString())
+                .build();
+        when(ghSubmissionRepository.findById(1L)).thenReturn(Optional.of(submission));
+
+        underTest.process(1L);
+
+        assertEquals(GHSubmissionStatus.FAILED, submission.getStatus());
+        assertTrue(submission.getErrorMessage().contains("missing"));
+        verify(ghService, never()).pushHomework(anyString(), anyString(), anyString(), any(), anyList());
+    }
+
+    @Test
+    @DisplayName("A spool directory which cannot be written should fail the startup")
+    void shouldRejectUnwritableSpoolDir() throws IOException {
+        Path file = Files.createFile(spoolDir.resolve("file"));
+        GHSubmissionService service = new GHSubmissionService(ghSubmissionRepository, ghService,
+                ghValidationService, new ObjectMapper(), submissionExecutor, file.toString());
+
+        assertThrows(IOException.class, service::checkSpoolDir);
+    }
+
+    @Test
+    @DisplayName("A submission rejected by a full queue should stay queued for the retry")
+    void shouldKeepRejectedSubmissionQueued() {
+        ExecutorService fullExecutor = Executors.newSingleThreadExecutor();
+        fullExecutor.shutdown();
+        underTest = new GHSubmissionService(ghSubmissionRepository, ghService, ghValidationService,
+                new ObjectMapper(), fullExecutor, spoolDir.toString());
+
+        GHSubmission submission = submit();
+
+        assertEquals(GHSubmissionStatus.QUEUED, submission.getStatus());
+        assertTrue(((Set<?>) ReflectionTestUtils.getField(underTest, "scheduledSubmissions")).isEmpty());
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(underTest, "repositoryQueues")).isEmpty());
+        verifyNoInteractions(ghService);
+    }
+
+    @Test
+    @DisplayName("The submission of another user should not be found")
+    void shouldNotReturnSubmissionOfOtherUser() {
+        GHSubmission submission = GHSubmission.builder()
+                .user(User.builder().id(2L).build())
+                .status(GHSubmissionStatus.QUEUED)
+                .build();
+        when(ghSubmissionRepository.findById(1L)).thenReturn(Optional.of(submission));
+
+        assertThrows(RestException.class, () -> underTest.getSubmission(1L, user));
+    }
+
+    /**
+     * Submits a single file. The saved submission gets the id 1 and is returned by the repository afterwards,
+     * if the submission is processed.
+     */
+    private GHSubmission submit() {
+        ArgumentCaptor<GHSubmission> submissionCaptor = ArgumentCaptor.forClass(GHSubmission.class);
+        when(ghSubmissionRepository.save(submissionCaptor.capture())).thenAnswer(invocation -> {
+            GHSubmission saved = invocation.getArgument(0);
+            if (saved.getId() == null) {
+                ReflectionTestUtils.setField(saved, "id", 1L);
+            }
+            return saved;
+        });
+        lenient().when(ghSubmissionRepository.findById(1L)).thenAnswer(invocation -> Optional.of(submissionCaptor.getAllValues().get(0)));
+        MockMultipartFile file = new MockMultipartFile("files", "Main.java", "text/plain",
+                "class Main {}".getBytes(StandardCharsets.UTF_8));
+
+        underTest.submit("cohort-36", "basic_programming", "lesson_01", user,
+                List.of(new GHUploadFile(file, "src/Main.java")));
+
+        return submissionCaptor.getAllValues().get(0);
+    }
+}
@@ -0,0 +1,84 @@
+package de.aittr.lmsbe.github.service;
+
+import de.aittr.lmsbe.github.model.GHRequestPriority;
+import de.aittr.lmsbe.github.uttils.GHCall;
+import de.aittr.lmsbe.model.Cohort;
+import de.aittr.lmsbe.model.Lesson;
+import de.aittr.lmsbe.model.LessonModul;
+import de.aittr.lmsbe.model.LessonType;
+import de.aittr.lmsbe.service.interfaces.ILessonService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GHWarmUpServiceTest {
+
+    @Mock
+    private GHServiceImpl ghService;
+
+    @Mock
+    private GHNavigationIndexService ghNavigationIndexService;
+
+    @Mock
+    private GHRequestScheduler ghRequestScheduler;
+
+    @Mock
+    private ILessonService lessonService;
+
+    private GHWarmUpService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new GHWarmUpService(ghService, ghNavigationIndexService, ghRequestScheduler, lessonService, 3);
+    }
+
+    @Test
+    @DisplayName("Lecture and consultation lessons should be mapped to their directories in the repository")
+    void shouldResolveLessonPath() {
+        assertEquals("basic_programming/lesson_05",
+                GHWarmUpService.getLessonPath(lesson(LessonType.LECTURE, 5, "cohort-36")));
+        assertEquals("basic_programming/consultation/consultation_12",
+                GHWarmUpService.getLessonPath(lesson(LessonType.CONSULTATION, 12, "cohort-36")));
+        assertNull(GHWarmUpService.getLessonPath(lesson(LessonType.QUIZ, 1, "cohort-36")));
+    }
+
+    @Test
+    @DisplayName("Upcoming lessons should be loaded as background requests of their cohort repositories")
+    void shouldWarmUpUpcomingLessons() throws IOException {
+        when(lessonService.getLessonsStartingBetween(any(), any())).thenReturn(List.of(
+                lesson(LessonType.LECTURE, 1, "cohort-36"),
+                lesson(LessonType.LECTURE, 1, "cohort-36"),
+                lesson(LessonType.QUIZ, 2, "cohort-36"),
+                lesson(LessonType.CONSULTATION, 3, "cohort-37")));
+        when(ghRequestScheduler.runAs(eq(GHRequestPriority.BACKGROUND), any()))
+                .thenAnswer(invocation -> ((GHCall<?>) invocation.getArgument(1)).call());
+
+        underTest.warmUpUpcomingLessons();
+
+        verify(ghService).warmUpLesson("cohort-36", "basic_programming/lesson_01");
+        verify(ghService).warmUpLesson("cohort-37", "basic_programming/consultation/consultation_03");
+        verifyNoMoreInteractions(ghService);
+    }
+
+    private static Lesson lesson(LessonType lessonType, int lessonNr, String repository) {
+        return Lesson.builder()
+                .cohort(Cohort.builder().githubRepository(repository).build())
+                .lessonModul(LessonModul.BASIC_PROGRAMMING)
+                .lessonType(lessonType)
+                .lessonNr(lessonNr)
+                .build();
+    }
+}
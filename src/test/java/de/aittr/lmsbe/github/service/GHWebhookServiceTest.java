@@ -0,0 +1,104 @@
+package de.aittr.lmsbe.github.service;
+
+import de.aittr.lmsbe.github.dto.GHPushEventDto;
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GHWebhookServiceTest {
+
+    private static final String SECRET = "secret";
+
+    @Mock
+    private GHHandleRegistry ghHandleRegistry;
+
+    @Mock
+    private GHLessonCacheService ghLessonCacheService;
+
+    @Mock
+    private GHWarmUpService ghWarmUpService;
+
+    private GHWebhookService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new GHWebhookService(ghHandleRegistry, ghLessonCacheService, ghWarmUpService, SECRET);
+    }
+
+    @Test
+    @DisplayName("Only requests signed with the webhook secret should be accepted")
+    void shouldValidateSignature() {
+        String body = "{\"ref\":\"refs/heads/main\"}";
+        String signature = "sha256=" + new HmacUtils(HmacAlgorithms.HMAC_SHA_256, SECRET).hmacHex(body);
+
+        assertTrue(underTest.isValidRequestSignature(body, signature));
+        assertFalse(underTest.isValidRequestSignature(body + " ", signature));
+        assertFalse(underTest.isValidRequestSignature(body, null));
+    }
+
+    @Test
+    @DisplayName("Changed files should be mapped to their lesson and consultation directories")
+    void shouldMapChangedFilesToLessonPaths() {
+        GHPushEventDto.Commit commit = new GHPushEventDto.Commit();
+        commit.setModified(List.of("basic_programming/lesson_01/theory.md", "README.md"));
+        commit.setAdded(List.of("basic_programming/consultation/consultation_02/code/Main.java"));
+
+        Set<String> result = GHWebhookService.getChangedLessonPaths(List.of(commit));
+
+        assertEquals(Set.of("basic_programming/lesson_01", "basic_programming/consultation/consultation_02"), result);
+    }
+
+    @Test
+    @DisplayName("A push to the default branch should invalidate outdated lessons and warm up the changed cached ones")
+    void shouldInvalidateAndWarmUpOnPush() {
+        GHPushEventDto event = pushEvent("refs/heads/main");
+        when(ghLessonCacheService.getCachedPaths("cohort-36"))
+                .thenReturn(Set.of("basic_programming/lesson_01", "basic_programming/lesson_02"));
+
+        underTest.processPushEvent(event);
+
+        verify(ghHandleRegistry).updateHeadSHA1("org/cohort-36", "sha2");
+        verify(ghLessonCacheService).invalidateOutdated("cohort-36", "sha2");
+        verify(ghWarmUpService).refreshNavigationIndex("cohort-36");
+        verify(ghWarmUpService).warmUpLessons("cohort-36", Set.of("basic_programming/lesson_01"));
+    }
+
+    @Test
+    @DisplayName("A push to another branch should be ignored")
+    void shouldIgnorePushToOtherBranch() {
+        underTest.processPushEvent(pushEvent("refs/heads/feature"));
+
+        verify(ghHandleRegistry, never()).updateHeadSHA1(anyString(), anyString());
+        verify(ghLessonCacheService, never()).invalidateOutdated(anyString(), anyString());
+        verify(ghWarmUpService, never()).warmUpLessons(anyString(), any());
+    }
+
+    private static GHPushEventDto pushEvent(String ref) {
+        GHPushEventDto.Repository repository = new GHPushEventDto.Repository();
+        repository.setName("cohort-36");
+        repository.setFullName("org/cohort-36");
+        repository.setDefaultBranch("main");
+        GHPushEventDto.Commit commit = new GHPushEventDto.Commit();
+        commit.setModified(List.of("basic_programming/lesson_01/plan.md"));
+        GHPushEventDto event = new GHPushEventDto();
+        event.setRef(ref);
+        event.setAfter("sha2");
+        event.setRepository(repository);
+        event.setCommits(List.of(commit));
+        return event;
+    }
+}
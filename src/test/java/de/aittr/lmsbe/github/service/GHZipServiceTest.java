@@ -1,58 +1,65 @@
 package de.aittr.lmsbe.github.service;
 
+import de.aittr.lmsbe.github.model.GHLessonFile;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.kohsuke.github.GHContent;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Method;
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
 class GHZipServiceTest {
 
-    @InjectMocks
-    private GHZipService underTest;
-
-    @Mock
-    private GhDownloadService ghDownloadService;
-
-    @Mock
-    private GHContent mockContent;
+    private final GHZipService underTest = new GHZipService();
 
     @Test
-    @DisplayName("When the list contains valid GHContent objects, zipFilesToByteArray should return successfully zipped byte array stream")
-    void testZipFilesToByteArray_ValidContent() throws Exception {
-        when(mockContent.getPath()).thenReturn("validPath");
-        when(mockContent.getEncoding()).thenReturn(GHZipService.BASE64_ENCODING);
-        when(mockContent.read()).thenReturn(new ByteArrayInputStream("hello".getBytes()));
-
-        ByteArrayOutputStream zippedBytes = underTest.zipFilesToByteArray(List.of(mockContent));
-        assertNotNull(zippedBytes);
-        assertTrue(zippedBytes.size() > 0);
-        verify(ghDownloadService, never()).downloadFile(anyString());
+    @DisplayName("zipLessonFiles should stream the lesson files as zip entries and skip missing files")
+    void testZipLessonFiles_StreamsEntries() throws Exception {
+        GHLessonFile lessonFile = new GHLessonFile("module/lesson_01/code/Main.java", "Main.java", "sha",
+                "class Main {}".getBytes(StandardCharsets.UTF_8), "");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        underTest.zipLessonFiles(Arrays.asList(lessonFile, null), outputStream);
+
+        try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            ZipEntry entry = zipIn.getNextEntry();
+            assertNotNull(entry);
+            assertEquals("Main.java", entry.getName());
+            assertEquals("class Main {}", new String(zipIn.readAllBytes(), StandardCharsets.UTF_8));
+            assertNull(zipIn.getNextEntry());
+        }
     }
 
     @Test
-    @DisplayName("When the list contains invalid GHContent objects, zipFilesToByteArray should still return successfully zipped byte array for the valid ones")
-    void testZipFilesToByteArray_InvalidContent() throws Exception {
-        when(mockContent.getPath()).thenReturn(null);
-
-        ByteArrayOutputStream zippedBytes = underTest.zipFilesToByteArray(List.of(mockContent, mockContent));
-        assertNotNull(zippedBytes);
-        assertEquals(22, zippedBytes.size());
-        verify(ghDownloadService, never()).downloadFile(anyString());
+    @DisplayName("zipLessonFiles should store compressed formats and deflate the other files")
+    void testZipLessonFiles_StoresCompressedFormats() throws Exception {
+        byte[] image = new byte[]{(byte) 0x89, 'P', 'N', 'G', 1, 2, 3};
+        GHLessonFile imageFile = new GHLessonFile("module/lesson_01/code/img/Logo.PNG", "Logo.PNG", "sha1", image, "");
+        GHLessonFile codeFile = new GHLessonFile("module/lesson_01/code/Main.java", "Main.java", "sha2",
+                "class Main {}".getBytes(StandardCharsets.UTF_8), "");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        underTest.zipLessonFiles(List.of(imageFile, codeFile), outputStream);
+
+        try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            ZipEntry imageEntry = zipIn.getNextEntry();
+            assertEquals("img/Logo.PNG", imageEntry.getName());
+            assertEquals(ZipEntry.STORED, imageEntry.getMethod());
+            assertArrayEquals(image, zipIn.readAllBytes());
+
+            ZipEntry codeEntry = zipIn.getNextEntry();
+            assertEquals("Main.java", codeEntry.getName());
+            assertEquals(ZipEntry.DEFLATED, codeEntry.getMethod());
+            assertEquals("class Main {}", new String(zipIn.readAllBytes(), StandardCharsets.UTF_8));
+        }
     }
 
     @Nested
@@ -70,47 +77,4 @@ class GHZipServiceTest {
             assertEquals("parts", result);
         }
     }
-
-    @Test
-    @DisplayName("GhDownloadService should be invoked when the content encoding is not base64")
-    void testProcessFileContent_withNonBase64Encoding() throws Exception {
-        String downloadUrl = "https://someurl.com";
-
-        when(mockContent.getPath()).thenReturn("validPath");
-        when(mockContent.getEncoding()).thenReturn("non-base64");
-        when(mockContent.getDownloadUrl()).thenReturn(downloadUrl);
-
-        byte[] fileBytes = new byte[]{1, 2, 3};
-        when(ghDownloadService.downloadFile(anyString())).thenReturn(fileBytes);
-
-        underTest.zipFilesToByteArray(Collections.singletonList(mockContent));
-        verify(ghDownloadService).downloadFile(downloadUrl);
-    }
-
-    @Test
-    @DisplayName("GhDownloadService should be invoked when the content encoding is null")
-    void testProcessFileContent_withNullBase64Encoding() throws Exception {
-        String downloadUrl = "https://someurl.com";
-
-        when(mockContent.getPath()).thenReturn("validPath");
-        when(mockContent.getEncoding()).thenReturn(null);
-        when(mockContent.getDownloadUrl()).thenReturn(downloadUrl);
-
-        byte[] fileBytes = new byte[]{1, 2, 3};
-        when(ghDownloadService.downloadFile(anyString())).thenReturn(fileBytes);
-
-        underTest.zipFilesToByteArray(Collections.singletonList(mockContent));
-        verify(ghDownloadService).downloadFile(downloadUrl);
-    }
-
-    @Test
-    @DisplayName("GhDownloadService should not be invoked when the content encoding is base64")
-    void testProcessFileContent_withBase64Encoding() throws Exception {
-        when(mockContent.getPath()).thenReturn("validPath");
-        when(mockContent.getEncoding()).thenReturn(GHZipService.BASE64_ENCODING);
-        when(mockContent.read()).thenReturn(new ByteArrayInputStream("encodedString".getBytes()));
-
-        underTest.zipFilesToByteArray(Collections.singletonList(mockContent));
-        verify(ghDownloadService, never()).downloadFile(anyString());
-    }
 }
@@ -0,0 +1,102 @@
+package de.aittr.lmsbe.github.service.source;
+
+import de.aittr.lmsbe.github.model.GHLessonFile;
+import de.aittr.lmsbe.github.service.GHBlobDiskStore;
+import de.aittr.lmsbe.github.service.GHBlobService;
+import de.aittr.lmsbe.github.service.GHFetchService;
+import de.aittr.lmsbe.github.service.GHRequestScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GHTree;
+import org.kohsuke.github.GHTreeEntry;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GHTreeFileSourceTest {
+
+    private static final String COMMIT_SHA = "commit-sha";
+
+    @Mock
+    private GHRepository repository;
+
+    @Mock
+    private GHTree tree;
+
+    private final GHBlobService ghBlobService = new GHBlobService(new GHBlobDiskStore("", 0), 1, 10);
+    private final GHFetchService ghFetchService = new GHFetchService(
+            new GHRequestScheduler(new SimpleMeterRegistry(), 1, 0, 1), 2, 10, 2, 1, 5);
+
+    private GHTreeFileSource underTest;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        List<GHTreeEntry> entries = List.of(
+                entry("basic_programming/lesson_01", "tree", "tree-sha"),
+                entry("basic_programming/lesson_01/code/Main.java", "blob", "sha-main"),
+                entry("basic_programming/lesson_01/code/util/Copy.java", "blob", "sha-main"),
+                entry("basic_programming/lesson_01/plan.md", "blob", "sha-plan"),
+                entry("basic_programming/lesson_02/code/Other.java", "blob", "sha-other"));
+        when(tree.getTree()).thenReturn(entries);
+        lenient().when(repository.getFullName()).thenReturn("ait-tr/cohort-36");
+        lenient().when(repository.readBlob(anyString())).thenAnswer(invocation ->
+                new ByteArrayInputStream(invocation.getArgument(0, String.class).getBytes(StandardCharsets.UTF_8)));
+
+        underTest = new GHTreeFileSource(repository, COMMIT_SHA, tree, ghBlobService, ghFetchService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ghFetchService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Only the blobs below the requested directory should be read, in the order of the tree")
+    void shouldReadFilesBelowDirectory() throws IOException {
+        List<GHLessonFile> files = underTest.readFiles("basic_programming/lesson_01/code", Instant.now().plusSeconds(5));
+
+        assertEquals(List.of("basic_programming/lesson_01/code/Main.java", "basic_programming/lesson_01/code/util/Copy.java"),
+                files.stream().map(GHLessonFile::getPath).collect(Collectors.toList()));
+        assertEquals("Copy.java", files.get(1).getName());
+        assertArrayEquals("sha-main".getBytes(StandardCharsets.UTF_8), files.get(1).getContent());
+    }
+
+    @Test
+    @DisplayName("Identical blobs should be downloaded only once")
+    void shouldDownloadIdenticalBlobsOnce() throws IOException {
+        underTest.readFiles("basic_programming/lesson_01/code", Instant.now().plusSeconds(5));
+
+        verify(repository, times(1)).readBlob("sha-main");
+    }
+
+    @Test
+    @DisplayName("A missing file should be returned as null without calling GitHub")
+    void shouldReturnNullForMissingFile() throws IOException {
+        assertNull(underTest.readFile("basic_programming/lesson_01/theory.md"));
+        verify(repository, never()).readBlob(anyString());
+    }
+
+    private static GHTreeEntry entry(String path, String type, String sha) {
+        GHTreeEntry entry = mock(GHTreeEntry.class);
+        lenient().when(entry.getPath()).thenReturn(path);
+        lenient().when(entry.getType()).thenReturn(type);
+        lenient().when(entry.getSha()).thenReturn(sha);
+        return entry;
+    }
+}
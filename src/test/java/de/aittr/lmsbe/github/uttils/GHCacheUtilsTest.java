@@ -0,0 +1,33 @@
+package de.aittr.lmsbe.github.uttils;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GHCacheUtilsTest {
+
+    private final AsyncCache<String, String> cache = Caffeine.newBuilder().buildAsync();
+
+    @Test
+    @DisplayName("A loaded value should be cached")
+    void shouldCacheLoadedValue() throws IOException {
+        assertEquals("content", GHCacheUtils.getOrLoad(cache, "key", () -> "content"));
+        assertEquals("content", GHCacheUtils.getOrLoad(cache, "key", () -> fail("loaded twice")));
+    }
+
+    @Test
+    @DisplayName("A load failed with an error should be rethrown and removed from the cache")
+    void shouldRemoveLoadFailedWithError() throws IOException {
+        assertThrows(OutOfMemoryError.class, () -> GHCacheUtils.getOrLoad(cache, "key", () -> {
+            throw new OutOfMemoryError("Java heap space");
+        }));
+
+        assertNull(cache.getIfPresent("key"));
+        assertEquals("content", GHCacheUtils.getOrLoad(cache, "key", () -> "content"));
+    }
+}
@@ -0,0 +1,74 @@
+package de.aittr.lmsbe.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VideoIndexServiceTest {
+
+    private static final String BUCKET = "lesson-videos";
+
+    @Mock
+    private AmazonS3 s3Service;
+
+    private VideoIndexService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new VideoIndexService(s3Service, BUCKET);
+    }
+
+    @Test
+    @DisplayName("The index should contain the keys of all scanned pages")
+    void shouldScanAllPages() {
+        when(s3Service.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(page(true, "next", "cohort_36/basic_programming/lecture/1/part1.mp4"))
+                .thenReturn(page(false, null, "cohort_36/basic_programming/lecture/12/part1.mp4"));
+
+        assertFalse(underTest.isReady());
+        underTest.rebuild();
+
+        assertTrue(underTest.isReady());
+        assertTrue(underTest.containsPrefix("cohort_36/basic_programming/lecture/1/"));
+        assertTrue(underTest.containsPrefix("cohort_36/basic_programming/lecture/12/"));
+        assertFalse(underTest.containsPrefix("cohort_36/basic_programming/lecture/2/"));
+        verify(s3Service, times(2)).listObjectsV2(any(ListObjectsV2Request.class));
+    }
+
+    @Test
+    @DisplayName("An uploaded video should be found without a new scan")
+    void shouldAddUploadedKey() {
+        when(s3Service.listObjectsV2(any(ListObjectsV2Request.class))).thenReturn(page(false, null));
+        underTest.rebuild();
+
+        underTest.addKey(BUCKET, "cohort_36/back_end/consultation/3/part1.mp4");
+        underTest.addKey("other-bucket", "cohort_36/back_end/consultation/4/part1.mp4");
+
+        assertTrue(underTest.containsPrefix("cohort_36/back_end/consultation/3/"));
+        assertFalse(underTest.containsPrefix("cohort_36/back_end/consultation/4/"));
+    }
+
+    private static ListObjectsV2Result page(boolean truncated, String nextToken, String... keys) {
+        ListObjectsV2Result result = new ListObjectsV2Result();
+        for (String key : keys) {
+            S3ObjectSummary summary = new S3ObjectSummary();
+            summary.setKey(key);
+            result.getObjectSummaries().add(summary);
+        }
+        result.setTruncated(truncated);
+        result.setNextContinuationToken(nextToken);
+        return result;
+    }
+}
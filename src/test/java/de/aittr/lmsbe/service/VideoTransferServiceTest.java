@@ -0,0 +1,206 @@
+package de.aittr.lmsbe.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.*;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VideoTransferServiceTest {
+
+    private static final String BUCKET = "lesson-videos";
+    private static final String KEY = "cohort_36/basic_programming/lecture/1/part1.mp4";
+    private static final String UPLOAD_ID = "upload-1";
+    private static final String TOKEN = "download-token";
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    @Mock
+    private AmazonS3 s3Service;
+
+    private final ExecutorService partUploadExecutor = Executors.newFixedThreadPool(2);
+
+    private VideoTransferService underTest;
+
+    private HttpServer server;
+
+    private final AtomicReference<String> requestedRange = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        underTest = new VideoTransferService(s3Service, partUploadExecutor, 5, 2);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        partUploadExecutor.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("The download should be uploaded in parts of the configured size with the last part smaller")
+    void shouldUploadDownloadInParts() throws IOException {
+        stubUploadedParts();
+        stubUploadPart();
+        byte[] content = new byte[PART_SIZE * 3 + 100];
+
+        long size = underTest.resume(serve(content), TOKEN, BUCKET, KEY, UPLOAD_ID);
+
+        assertEquals(content.length, size);
+        assertNull(requestedRange.get());
+        assertEquals(List.of("etag-1-" + PART_SIZE, "etag-2-" + PART_SIZE, "etag-3-" + PART_SIZE, "etag-4-100"),
+                completedETags());
+        verify(s3Service, never()).abortMultipartUpload(any());
+    }
+
+    @Test
+    @DisplayName("An interrupted transfer should download the file from the end of the uploaded parts")
+    void shouldResumeAfterUploadedParts() throws IOException {
+        stubUploadedParts(part(1, PART_SIZE), part(2, PART_SIZE));
+        stubUploadPart();
+        byte[] content = new byte[PART_SIZE * 2 + 100];
+
+        long size = underTest.resume(serve(content), TOKEN, BUCKET, KEY, UPLOAD_ID);
+
+        assertEquals(content.length, size);
+        assertEquals("bytes=" + PART_SIZE * 2 + "-", requestedRange.get());
+        assertEquals(List.of("etag-1", "etag-2", "etag-3-100"), completedETags());
+    }
+
+    @Test
+    @DisplayName("A transfer whose parts were all uploaded should be completed when the range is not satisfiable")
+    void shouldCompleteWhenAllPartsWereUploaded() throws IOException {
+        stubUploadedParts(part(1, PART_SIZE), part(2, PART_SIZE));
+        byte[] content = new byte[PART_SIZE * 2];
+
+        long size = underTest.resume(serve(content), TOKEN, BUCKET, KEY, UPLOAD_ID);
+
+        assertEquals(content.length, size);
+        assertEquals(List.of("etag-1", "etag-2"), completedETags());
+        verify(s3Service, never()).uploadPart(any(UploadPartRequest.class));
+    }
+
+    @Test
+    @DisplayName("A failed part should fail the transfer and keep the multipart upload for the next attempt")
+    void shouldKeepUploadOnFailedPart() {
+        stubUploadedParts();
+        when(s3Service.uploadPart(any(UploadPartRequest.class))).thenThrow(new AmazonS3Exception("Slow down"));
+        String link = serve(new byte[100]);
+
+        assertThrows(AmazonS3Exception.class, () -> underTest.resume(link, TOKEN, BUCKET, KEY, UPLOAD_ID));
+
+        verify(s3Service, never()).completeMultipartUpload(any());
+        verify(s3Service, never()).abortMultipartUpload(any());
+    }
+
+    @Test
+    @DisplayName("A failed transfer should return the buffers of the parts which are still queued")
+    void shouldReleaseBuffersOfQueuedParts() {
+        ExecutorService singleExecutor = Executors.newSingleThreadExecutor();
+        try {
+            VideoTransferService transferService = new VideoTransferService(s3Service, singleExecutor, 5, 3);
+            stubUploadedParts();
+            when(s3Service.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+                Thread.sleep(200);
+                throw new AmazonS3Exception("Slow down");
+            });
+            // the first part is uploading and the second one is queued when the download fails
+            server.createContext("/broken", exchange -> {
+                exchange.sendResponseHeaders(200, 0);
+                final OutputStream body = exchange.getResponseBody();
+                body.write(new byte[PART_SIZE * 2]);
+                body.flush();
+                throw new IOException("Connection reset");
+            });
+            String link = "http://localhost:" + server.getAddress().getPort() + "/broken";
+
+            assertThrows(IOException.class, () -> transferService.resume(link, TOKEN, BUCKET, KEY, UPLOAD_ID));
+
+            BlockingQueue<?> freeBuffers = (BlockingQueue<?>) ReflectionTestUtils.getField(transferService, "freeBuffers");
+            assertEquals(3, freeBuffers.size());
+            verify(s3Service, times(1)).uploadPart(any(UploadPartRequest.class));
+        } finally {
+            singleExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Serves the content with support for a range starting at a byte offset and returns its link.
+     */
+    private String serve(byte[] content) {
+        server.createContext("/video", exchange -> {
+            final String range = exchange.getRequestHeaders().getFirst("Range");
+            requestedRange.set(range);
+            final int offset = range == null ? 0 : Integer.parseInt(range.replaceAll("\\D", ""));
+            if (offset >= content.length && offset > 0) {
+                exchange.sendResponseHeaders(416, -1);
+                exchange.close();
+                return;
+            }
+            exchange.sendResponseHeaders(range == null ? 200 : 206, content.length - offset);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(content, offset, content.length - offset);
+            }
+        });
+        return "http://localhost:" + server.getAddress().getPort() + "/video";
+    }
+
+    private void stubUploadedParts(PartSummary... parts) {
+        PartListing listing = new PartListing();
+        listing.setParts(new ArrayList<>(Arrays.asList(parts)));
+        listing.setTruncated(false);
+        when(s3Service.listParts(any(ListPartsRequest.class))).thenReturn(listing);
+    }
+
+    private void stubUploadPart() {
+        when(s3Service.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag("etag-" + request.getPartNumber() + "-" + request.getPartSize());
+            return result;
+        });
+    }
+
+    private List<String> completedETags() {
+        ArgumentCaptor<CompleteMultipartUploadRequest> captor = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Service).completeMultipartUpload(captor.capture());
+        return captor.getValue().getPartETags().stream()
+                .map(PartETag::getETag)
+                .collect(Collectors.toList());
+    }
+
+    private static PartSummary part(int partNumber, long size) {
+        PartSummary part = new PartSummary();
+        part.setPartNumber(partNumber);
+        part.setSize(size);
+        part.setETag("etag-" + partNumber);
+        return part;
+    }
+}
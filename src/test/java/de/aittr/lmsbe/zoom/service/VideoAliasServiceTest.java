@@ -0,0 +1,143 @@
+package de.aittr.lmsbe.zoom.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import de.aittr.lmsbe.zoom.entity.VideoAlias;
+import de.aittr.lmsbe.zoom.entity.VideoAliasBackfill;
+import de.aittr.lmsbe.zoom.repository.VideoAliasBackfillRepository;
+import de.aittr.lmsbe.zoom.repository.VideoAliasRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static de.aittr.lmsbe.service.FileService.USER_METADATA_ALIAS_FOR;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VideoAliasServiceTest {
+
+    private static final String BUCKET = "lesson-videos";
+    private static final String ORIGINAL = "cohort_36/basic_programming/lecture/1/part1.mp4";
+    private static final String ALIAS = "cohort_37/basic_programming/lecture/1/part1.mp4";
+
+    @Mock
+    private VideoAliasRepository videoAliasRepository;
+
+    @Mock
+    private VideoAliasBackfillRepository videoAliasBackfillRepository;
+
+    @Mock
+    private AmazonS3 s3Service;
+
+    private VideoAliasService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new VideoAliasService(videoAliasRepository, videoAliasBackfillRepository, s3Service, BUCKET);
+    }
+
+    @Test
+    @DisplayName("Stored aliases should be resolved from memory without S3 requests")
+    void shouldResolveStoredAliases() {
+        when(videoAliasRepository.findAll()).thenReturn(List.of(alias(ALIAS, ORIGINAL)));
+        when(videoAliasBackfillRepository.existsById(BUCKET)).thenReturn(true);
+
+        underTest.loadAliases();
+        underTest.backfill();
+
+        assertTrue(underTest.isComplete(BUCKET));
+        assertFalse(underTest.isComplete("other-bucket"));
+        assertEquals(ORIGINAL, underTest.resolve(BUCKET, ALIAS));
+        assertEquals(ORIGINAL, underTest.resolve(BUCKET, ORIGINAL));
+        verifyNoInteractions(s3Service);
+    }
+
+    @Test
+    @DisplayName("The aliases of a lesson folder should be listed from memory")
+    void shouldListAliasesByPrefix() {
+        when(videoAliasRepository.findAll()).thenReturn(List.of(alias(ALIAS, ORIGINAL)));
+
+        underTest.loadAliases();
+
+        assertEquals(List.of(ALIAS), underTest.getAliasKeysByPrefix(BUCKET, "cohort_37/basic_programming/"));
+        assertTrue(underTest.getAliasKeysByPrefix(BUCKET, "cohort_36/").isEmpty());
+        assertTrue(underTest.getAliasKeysByPrefix("other-bucket", "cohort_37/").isEmpty());
+        assertTrue(underTest.containsPrefix(BUCKET, "cohort_37/basic_programming/lecture/1/"));
+        assertEquals(Optional.of(ORIGINAL), underTest.findTarget(BUCKET, ALIAS));
+        assertEquals(Optional.empty(), underTest.findTarget(BUCKET, ORIGINAL));
+    }
+
+    @Test
+    @DisplayName("The backfill should read the metadata of the empty objects only")
+    void shouldBackfillEmptyObjects() {
+        when(videoAliasRepository.findAll()).thenReturn(List.of());
+        when(videoAliasRepository.findByS3BucketAndAliasKeyHash(anyString(), anyString())).thenReturn(Optional.empty());
+        ListObjectsV2Result result = new ListObjectsV2Result();
+        result.getObjectSummaries().add(summary(ORIGINAL, 1024));
+        result.getObjectSummaries().add(summary(ALIAS, 0));
+        when(s3Service.listObjectsV2(any(ListObjectsV2Request.class))).thenReturn(result);
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setUserMetadata(Map.of(USER_METADATA_ALIAS_FOR, ORIGINAL));
+        when(s3Service.getObjectMetadata(BUCKET, ALIAS)).thenReturn(metadata);
+
+        underTest.loadAliases();
+        assertFalse(underTest.isComplete(BUCKET));
+        underTest.backfill();
+
+        assertTrue(underTest.isComplete(BUCKET));
+        assertEquals(ORIGINAL, underTest.resolve(BUCKET, ALIAS));
+        verify(s3Service, never()).getObjectMetadata(BUCKET, ORIGINAL);
+        verify(videoAliasRepository).save(any(VideoAlias.class));
+        verify(videoAliasBackfillRepository).save(any(VideoAliasBackfill.class));
+    }
+
+    @Test
+    @DisplayName("Stored aliases without a completed backfill should not be complete")
+    void shouldBackfillDespiteStoredAliases() {
+        when(videoAliasRepository.findAll()).thenReturn(List.of(alias(ALIAS, ORIGINAL)));
+        when(videoAliasBackfillRepository.existsById(BUCKET)).thenReturn(false);
+
+        underTest.loadAliases();
+
+        assertFalse(underTest.isComplete(BUCKET));
+        assertEquals(ORIGINAL, underTest.resolve(BUCKET, ALIAS));
+    }
+
+    @Test
+    @DisplayName("A failed backfill should leave the aliases incomplete")
+    void shouldStayIncompleteOnFailedBackfill() {
+        when(videoAliasRepository.findAll()).thenReturn(List.of());
+        when(s3Service.listObjectsV2(any(ListObjectsV2Request.class))).thenThrow(new RuntimeException("S3 unavailable"));
+
+        underTest.loadAliases();
+        underTest.backfill();
+
+        assertFalse(underTest.isComplete(BUCKET));
+        verify(videoAliasRepository, never()).save(any(VideoAlias.class));
+        verify(videoAliasBackfillRepository, never()).save(any(VideoAliasBackfill.class));
+    }
+
+    private static VideoAlias alias(String aliasKey, String targetKey) {
+        return VideoAlias.builder().s3Bucket(BUCKET).aliasKey(aliasKey).targetKey(targetKey).build();
+    }
+
+    private static S3ObjectSummary summary(String key, long size) {
+        S3ObjectSummary summary = new S3ObjectSummary();
+        summary.setKey(key);
+        summary.setSize(size);
+        return summary;
+    }
+}
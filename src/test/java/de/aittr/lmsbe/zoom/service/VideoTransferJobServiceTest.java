@@ -0,0 +1,214 @@
+package de.aittr.lmsbe.zoom.service;
+
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.aittr.lmsbe.service.VideoIndexService;
+import de.aittr.lmsbe.service.VideoTransferService;
+import de.aittr.lmsbe.zoom.entity.VideoTransfer;
+import de.aittr.lmsbe.zoom.model.VideoTransferCompletedEvent;
+import de.aittr.lmsbe.zoom.model.VideoTransferStatus;
+import de.aittr.lmsbe.zoom.repository.VideoTransferRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VideoTransferJobServiceTest {
+
+    private static final String URL = "https://zoom.us/rec/download/1";
+    private static final String TOKEN = "account-token";
+    private static final String WEBHOOK_TOKEN = "download-token";
+    private static final String BUCKET = "lesson-videos";
+    private static final String KEY = "cohort_36/basic_programming/lecture/1/part1.mp4";
+    private static final String ALIAS_KEY = "cohort_37/basic_programming/lecture/1/part1.mp4";
+    private static final String MEETING = "meeting-1";
+
+    @Mock
+    private VideoTransferRepository videoTransferRepository;
+
+    @Mock
+    private VideoTransferService videoTransferService;
+
+    @Mock
+    private VideoIndexService videoIndexService;
+
+    @Mock
+    private ZoomService zoomService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ExecutorService transferExecutor = Executors.newFixedThreadPool(2);
+
+    private VideoTransferJobService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new VideoTransferJobService(videoTransferRepository, videoTransferService, videoIndexService,
+                zoomService, eventPublisher, new ObjectMapper(), transferExecutor, 2, 1);
+        lenient().when(zoomService.getZoomAccessToken()).thenReturn(TOKEN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transferExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A new transfer should start a multipart upload with the stored metadata")
+    void shouldStartNewTransfer() throws IOException {
+        VideoTransfer transfer = transfer(null, "{\"topic\":\"lesson 1\"}");
+        when(videoTransferRepository.findById(1L)).thenReturn(Optional.of(transfer));
+        when(videoTransferService.initiate(eq(BUCKET), eq(KEY), any(ObjectMetadata.class))).thenReturn("upload-1");
+        when(videoTransferService.resume(URL, TOKEN, BUCKET, KEY, "upload-1")).thenReturn(1024L);
+
+        underTest.process(1L);
+
+        ArgumentCaptor<ObjectMetadata> captor = ArgumentCaptor.forClass(ObjectMetadata.class);
+        verify(videoTransferService).initiate(eq(BUCKET), eq(KEY), captor.capture());
+        assertEquals(Map.of("topic", "lesson 1"), captor.getValue().getUserMetadata());
+        assertEquals(VideoTransferStatus.COMPLETED, transfer.getStatus());
+        assertEquals(1024L, transfer.getSize());
+        verify(videoIndexService).addKey(BUCKET, KEY);
+        verify(eventPublisher).publishEvent(new VideoTransferCompletedEvent(BUCKET, KEY, List.of()));
+    }
+
+    @Test
+    @DisplayName("The download token of the webhook should be used for the first attempt only")
+    void shouldUseWebhookTokenForFirstAttemptOnly() throws IOException {
+        transferExecutor.shutdown();
+        when(videoTransferRepository.save(any(VideoTransfer.class))).thenAnswer(invocation -> {
+            VideoTransfer transfer = invocation.getArgument(0);
+            ReflectionTestUtils.setField(transfer, "id", 1L);
+            return transfer;
+        });
+        VideoTransfer transfer = underTest.submit(null, URL, WEBHOOK_TOKEN, BUCKET, KEY, null, List.of());
+        when(videoTransferRepository.findById(1L)).thenReturn(Optional.of(transfer));
+        when(videoTransferService.initiate(eq(BUCKET), eq(KEY), any(ObjectMetadata.class))).thenReturn("upload-1");
+        when(videoTransferService.resume(URL, WEBHOOK_TOKEN, BUCKET, KEY, "upload-1"))
+                .thenThrow(new IOException("Connection reset"));
+        when(videoTransferService.resume(URL, TOKEN, BUCKET, KEY, "upload-1")).thenReturn(1024L);
+
+        underTest.process(1L);
+        underTest.process(1L);
+
+        assertEquals(VideoTransferStatus.COMPLETED, transfer.getStatus());
+        verify(videoTransferService).resume(URL, WEBHOOK_TOKEN, BUCKET, KEY, "upload-1");
+        verify(videoTransferService).resume(URL, TOKEN, BUCKET, KEY, "upload-1");
+    }
+
+    @Test
+    @DisplayName("The aliases should be published only after the recording is stored")
+    void shouldPublishAliasesAfterCompletion() throws IOException {
+        VideoTransfer transfer = transfer("upload-1", null);
+        transfer.setAliasKeys("[\"" + ALIAS_KEY + "\"]");
+        when(videoTransferRepository.findById(1L)).thenReturn(Optional.of(transfer));
+        when(videoTransferService.resume(URL, TOKEN, BUCKET, KEY, "upload-1"))
+                .thenThrow(new IOException("Connection reset"))
+                .thenReturn(1024L);
+
+        underTest.process(1L);
+        verifyNoInteractions(eventPublisher);
+
+        underTest.process(1L);
+        verify(eventPublisher).publishEvent(new VideoTransferCompletedEvent(BUCKET, KEY, List.of(ALIAS_KEY)));
+    }
+
+    @Test
+    @DisplayName("The parts of a meeting should not be transferred beyond the limit per meeting")
+    void shouldLimitTransfersPerMeeting() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        VideoTransfer first = meetingTransfer(1L, "upload-1");
+        VideoTransfer second = meetingTransfer(2L, "upload-2");
+        when(videoTransferRepository.findAllByStatusInOrderByIdAsc(any())).thenReturn(List.of(first, second));
+        when(videoTransferRepository.findAllByMeetingUuidAndStatusInOrderByIdAsc(eq(MEETING), any()))
+                .thenReturn(List.of(second), List.of());
+        when(videoTransferRepository.findById(1L)).thenReturn(Optional.of(first));
+        when(videoTransferRepository.findById(2L)).thenReturn(Optional.of(second));
+        when(videoTransferService.resume(URL, TOKEN, BUCKET, KEY, "upload-1")).thenAnswer(invocation -> {
+            firstStarted.countDown();
+            assertTrue(releaseFirst.await(1, TimeUnit.SECONDS));
+            return 1024L;
+        });
+
+        underTest.schedulePending();
+
+        assertTrue(firstStarted.await(1, TimeUnit.SECONDS));
+        verify(videoTransferRepository, never()).findById(2L);
+        releaseFirst.countDown();
+        verify(videoTransferService, timeout(1000)).resume(URL, TOKEN, BUCKET, KEY, "upload-2");
+    }
+
+    @Test
+    @DisplayName("An interrupted transfer should be resumed with its multipart upload")
+    void shouldResumeInterruptedTransfer() throws IOException {
+        VideoTransfer transfer = transfer("upload-1", null);
+        transfer.setStatus(VideoTransferStatus.DOWNLOADING);
+        when(videoTransferRepository.findById(1L)).thenReturn(Optional.of(transfer));
+        when(videoTransferService.resume(URL, TOKEN, BUCKET, KEY, "upload-1")).thenReturn(1024L);
+
+        underTest.process(1L);
+
+        verify(videoTransferService, never()).initiate(any(), any(), any());
+        assertEquals(VideoTransferStatus.COMPLETED, transfer.getStatus());
+    }
+
+    @Test
+    @DisplayName("A failed transfer should be kept for a retry until the attempts are exhausted")
+    void shouldFailAfterMaxAttempts() throws IOException {
+        VideoTransfer transfer = transfer("upload-1", null);
+        when(videoTransferRepository.findById(1L)).thenReturn(Optional.of(transfer));
+        when(videoTransferService.resume(URL, TOKEN, BUCKET, KEY, "upload-1")).thenThrow(new IOException("Connection reset"));
+
+        underTest.process(1L);
+
+        assertEquals(VideoTransferStatus.DOWNLOADING, transfer.getStatus());
+        assertEquals("Connection reset", transfer.getErrorMessage());
+        verify(videoTransferService, never()).abort(any(), any(), any());
+
+        underTest.process(1L);
+
+        assertEquals(VideoTransferStatus.FAILED, transfer.getStatus());
+        verify(videoTransferService).abort(BUCKET, KEY, "upload-1");
+        verify(videoIndexService, never()).addKey(any(), any());
+    }
+
+    private static VideoTransfer meetingTransfer(Long id, String uploadId) {
+        VideoTransfer transfer = transfer(uploadId, null);
+        transfer.setMeetingUuid(MEETING);
+        ReflectionTestUtils.setField(transfer, "id", id);
+        return transfer;
+    }
+
+    private static VideoTransfer transfer(String uploadId, String userMetadata) {
+        return VideoTransfer.builder()
+                .downloadUrl(URL)
+                .s3Bucket(BUCKET)
+                .s3Key(KEY)
+                .userMetadata(userMetadata)
+                .status(VideoTransferStatus.PENDING)
+                .uploadId(uploadId)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package de.aittr.lmsbe.zoom.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.aittr.lmsbe.zoom.dto.RecordingCompletedDto;
+import de.aittr.lmsbe.zoom.entity.ZoomEvent;
+import de.aittr.lmsbe.zoom.model.ZoomEventStatus;
+import de.aittr.lmsbe.zoom.repository.ZoomEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ZoomEventInboxServiceTest {
+
+    private static final String BODY = "{\"event\":\"recording.completed\",\"event_ts\":1700000000000," +
+            "\"download_token\":\"token\",\"payload\":{\"object\":{\"uuid\":\"meeting-1\",\"topic\":\"lesson\"}}}";
+
+    @Mock
+    private ZoomEventRepository zoomEventRepository;
+
+    @Mock
+    private ZoomEventProcessingService zoomEventProcessingService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ExecutorService zoomEventExecutor = Executors.newSingleThreadExecutor();
+
+    private ZoomEventInboxService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new ZoomEventInboxService(zoomEventRepository, zoomEventProcessingService, objectMapper,
+                zoomEventExecutor, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        zoomEventExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A new event should be stored and processed in the background")
+    void shouldStoreAndProcessNewEvent() throws IOException {
+        when(zoomEventRepository.existsByMeetingUuidAndEventTs("meeting-1", 1700000000000L)).thenReturn(false);
+        when(zoomEventRepository.save(any(ZoomEvent.class))).thenAnswer(invocation -> {
+            ZoomEvent zoomEvent = invocation.getArgument(0);
+            ReflectionTestUtils.setField(zoomEvent, "id", 1L);
+            return zoomEvent;
+        });
+        when(zoomEventRepository.findById(1L)).thenAnswer(invocation -> Optional.of(storedEvent()));
+
+        assertTrue(underTest.append(event(), BODY));
+
+        ArgumentCaptor<RecordingCompletedDto> captor = ArgumentCaptor.forClass(RecordingCompletedDto.class);
+        verify(zoomEventProcessingService, timeout(1000)).processRecordingCompleteEvent(captor.capture());
+        assertEquals("meeting-1", captor.getValue().getPayload().getZoomObjectData().getUuid());
+        assertEquals("token", captor.getValue().getDownloadToken());
+        verify(zoomEventRepository).save(argThat((ZoomEvent zoomEvent) -> zoomEvent.getBody().contains("meeting-1")
+                && !zoomEvent.getBody().contains("download_token")));
+    }
+
+    @Test
+    @DisplayName("An event sent again by Zoom should be ignored")
+    void shouldIgnoreDuplicateEvent() throws IOException {
+        when(zoomEventRepository.existsByMeetingUuidAndEventTs("meeting-1", 1700000000000L)).thenReturn(true);
+
+        assertFalse(underTest.append(event(), BODY));
+
+        verify(zoomEventRepository, never()).save(any());
+        verifyNoInteractions(zoomEventProcessingService);
+    }
+
+    @Test
+    @DisplayName("A failed event should be retried until the maximum number of attempts and not processed again")
+    void shouldMarkFailedEvent() {
+        ZoomEvent zoomEvent = storedEvent();
+        when(zoomEventRepository.findById(1L)).thenReturn(Optional.of(zoomEvent));
+        doThrow(new IllegalStateException("Invalid recording")).when(zoomEventProcessingService)
+                .processRecordingCompleteEvent(any());
+
+        underTest.process(1L);
+        underTest.process(1L);
+        underTest.process(1L);
+
+        assertEquals(ZoomEventStatus.FAILED, zoomEvent.getStatus());
+        assertEquals(2, zoomEvent.getAttempts());
+        assertEquals("Invalid recording", zoomEvent.getErrorMessage());
+        verify(zoomEventProcessingService, times(2)).processRecordingCompleteEvent(any());
+    }
+
+    @Test
+    @DisplayName("An event stuck in processing should be processed again after the processing timeout")
+    void shouldProcessStaleEventAgain() {
+        ZoomEvent staleEvent = storedEvent();
+        staleEvent.setStatus(ZoomEventStatus.PROCESSING);
+        staleEvent.setUpdatedOn(Instant.now().minus(Duration.ofMinutes(11)));
+        ZoomEvent runningEvent = storedEvent();
+        runningEvent.setStatus(ZoomEventStatus.PROCESSING);
+        runningEvent.setUpdatedOn(Instant.now());
+        when(zoomEventRepository.findById(1L)).thenReturn(Optional.of(staleEvent));
+        when(zoomEventRepository.findById(2L)).thenReturn(Optional.of(runningEvent));
+
+        underTest.process(1L);
+        underTest.process(2L);
+
+        assertEquals(ZoomEventStatus.PROCESSED, staleEvent.getStatus());
+        assertEquals(ZoomEventStatus.PROCESSING, runningEvent.getStatus());
+        verify(zoomEventProcessingService, times(1)).processRecordingCompleteEvent(any());
+    }
+
+    private JsonNode event() throws IOException {
+        return objectMapper.readTree(BODY);
+    }
+
+    private static ZoomEvent storedEvent() {
+        return ZoomEvent.builder()
+                .event("recording.completed")
+                .meetingUuid("meeting-1")
+                .eventTs(1700000000000L)
+                .body(BODY)
+                .status(ZoomEventStatus.RECEIVED)
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package de.aittr.lmsbe.zoom.service;
+
+import de.aittr.lmsbe.configuration.ZoomConfiguration;
+import de.aittr.lmsbe.exception.RestException;
+import de.aittr.lmsbe.zoom.dto.ZoomTokenResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import static de.aittr.lmsbe.configuration.ZoomConstants.ZOOM_OAUTH_URL;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ZoomTokenServiceTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private ZoomTokenService underTest;
+
+    @BeforeEach
+    void setUp() {
+        ZoomConfiguration zoomConfiguration = new ZoomConfiguration();
+        zoomConfiguration.setAccountId("account");
+        zoomConfiguration.setClientId("client");
+        zoomConfiguration.setClientSecret("secret");
+        underTest = new ZoomTokenService(restTemplate, zoomConfiguration, Runnable::run, 300, 30);
+    }
+
+    @Test
+    @DisplayName("The token should be requested once while it is valid")
+    void shouldReuseValidToken() {
+        when(restTemplate.postForObject(eq(ZOOM_OAUTH_URL), any(HttpEntity.class), eq(ZoomTokenResponseDto.class)))
+                .thenReturn(response("token-1", 3600));
+
+        assertEquals("token-1", underTest.getAccessToken());
+        assertEquals("token-1", underTest.getAccessToken());
+
+        verify(restTemplate, times(1)).postForObject(eq(ZOOM_OAUTH_URL), any(HttpEntity.class), eq(ZoomTokenResponseDto.class));
+    }
+
+    @Test
+    @DisplayName("A token about to expire should be handed out while a new token is requested")
+    void shouldRefreshTokenBeforeExpiration() {
+        when(restTemplate.postForObject(eq(ZOOM_OAUTH_URL), any(HttpEntity.class), eq(ZoomTokenResponseDto.class)))
+                .thenReturn(response("token-1", 120))
+                .thenReturn(response("token-2", 3600));
+
+        assertEquals("token-1", underTest.getAccessToken());
+        assertEquals("token-1", underTest.getAccessToken());
+        assertEquals("token-2", underTest.getAccessToken());
+
+        verify(restTemplate, times(2)).postForObject(eq(ZOOM_OAUTH_URL), any(HttpEntity.class), eq(ZoomTokenResponseDto.class));
+    }
+
+    @Test
+    @DisplayName("A failed token request should not be cached")
+    void shouldRetryFailedRequest() {
+        when(restTemplate.postForObject(eq(ZOOM_OAUTH_URL), any(HttpEntity.class), eq(ZoomTokenResponseDto.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenReturn(response("token-1", 3600));
+
+        assertThrows(RestException.class, () -> underTest.getAccessToken());
+        assertEquals("token-1", underTest.getAccessToken());
+    }
+
+    private static ZoomTokenResponseDto response(String accessToken, long expiresIn) {
+        ZoomTokenResponseDto response = new ZoomTokenResponseDto();
+        response.setAccessToken(accessToken);
+        response.setTokenType("bearer");
+        response.setExpiresIn(expiresIn);
+        return response;
+    }
+}
@@ -0,0 +1,78 @@
+package de.aittr.lmsbe.zoom.utils;
+
+import de.aittr.lmsbe.exception.TopicParseException;
+import de.aittr.lmsbe.zoom.model.LessonTopicObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LessonTopicParserTest {
+
+    private static final String GENERATED_TOPIC =
+            "cohort:[\"25\", \"26\"], module: \"english\", type: \"interactive\", lesson: \"10\", topic: \"verbs\"";
+
+    @Test
+    @DisplayName("A generated topic should be parsed in both modes")
+    void shouldParseGeneratedTopic() {
+        LessonTopicObject expected = topicObject(List.of("25", "26"), "english", "interactive", "10", "verbs");
+
+        assertEquals(expected, LessonTopicParser.parse(GENERATED_TOPIC));
+        assertEquals(expected, LessonTopicParser.parseStrict(GENERATED_TOPIC));
+    }
+
+    @Test
+    @DisplayName("A typed topic should be parsed leniently")
+    void shouldParseTypedTopic() {
+        LessonTopicObject result = LessonTopicParser.parse(
+                "{ cohort: '26', 'module': basic_programming, type: \"lecture\", lesson: 1, room: [\"a\", {b: 1}]," +
+                        " topic: \"HTML \\\"intro\\\"\", }");
+
+        assertEquals(topicObject(List.of("26"), "basic_programming", "lecture", "1", "HTML \"intro\""), result);
+    }
+
+    @Test
+    @DisplayName("A topic with a missing key should leave the field empty")
+    void shouldLeaveMissingKeyEmpty() {
+        LessonTopicObject result = LessonTopicParser.parse("module: \"english\", lesson: null");
+
+        assertNull(result.getCohort());
+        assertNull(result.getLesson());
+        assertEquals("english", result.getModule());
+    }
+
+    @Test
+    @DisplayName("The strict mode should report the position of an error")
+    void shouldReportErrorPosition() {
+        assertEquals(8, assertThrows(TopicParseException.class,
+                () -> LessonTopicParser.parseStrict("cohort: 25, module: \"english\"")).getPosition());
+        assertEquals(13, assertThrows(TopicParseException.class,
+                () -> LessonTopicParser.parseStrict("cohort: \"25\" module: \"english\"")).getPosition());
+        assertEquals(14, assertThrows(TopicParseException.class,
+                () -> LessonTopicParser.parseStrict("cohort: \"25\", room: \"1\"")).getPosition());
+        assertEquals(14, assertThrows(TopicParseException.class,
+                () -> LessonTopicParser.parseStrict("cohort: \"25\", cohort: \"26\"")).getPosition());
+    }
+
+    @Test
+    @DisplayName("An unterminated string should be reported in both modes")
+    void shouldReportUnterminatedString() {
+        assertEquals(8, assertThrows(TopicParseException.class,
+                () -> LessonTopicParser.parse("module: \"english")).getPosition());
+        assertEquals(8, assertThrows(TopicParseException.class,
+                () -> LessonTopicParser.parseStrict("module: \"english")).getPosition());
+    }
+
+    private static LessonTopicObject topicObject(List<String> cohort, String module, String type, String lesson,
+                                                 String topic) {
+        LessonTopicObject topicObject = new LessonTopicObject();
+        topicObject.setCohort(cohort);
+        topicObject.setModule(module);
+        topicObject.setType(type);
+        topicObject.setLesson(lesson);
+        topicObject.setTopic(topic);
+        return topicObject;
+    }
+}